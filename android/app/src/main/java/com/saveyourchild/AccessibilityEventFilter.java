@@ -0,0 +1,164 @@
+// android/app/src/main/java/com/saveyourchild/AccessibilityEventFilter.java
+package com.saveyourchild;
+
+import android.accessibilityservice.AccessibilityService;
+import android.accessibilityservice.AccessibilityServiceInfo;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.accessibility.AccessibilityEvent;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Decides which accessibility events reach AppMonitorService at all.
+ *
+ * Instead of receiving every window change on the device and discarding most of
+ * them in Java, the service info is narrowed to the monitored packages plus the
+ * launchers, so the system does not wake our process for anything else. Launchers
+ * stay in so we notice when the user goes home from a monitored app. Leaving one
+ * through Recents or a notification for an unwatched app sends nothing, so the
+ * last event can name an app the user already left: the screen-on re-evaluation
+ * reads the active window instead (AppMonitorService.readActiveWindowPackage).
+ * The set is recomputed whenever the session changes.
+ *
+ * Content-change events (and view IDs) are only subscribed while some monitored
+ * app has in-app section blocking on (see SectionBlocker), and even then only for
+ * the packages above.
+ */
+final class AccessibilityEventFilter {
+
+    private static final String TAG = "AccessibilityFilter";
+
+    // Service-level configuration, applied on top of accessibility_service_config.xml
+    static final int EVENT_TYPES = AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED;
+    static final int CONTENT_EVENT_TYPES = AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED;
+    static final long NOTIFICATION_TIMEOUT_MS = 100;
+
+    private final AccessibilityService service;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable applyRunnable = this::apply;
+    private final Runnable sessionListener = () -> {
+        // Session or rule pack changed, possibly on the JS thread; coalesce and apply on main
+        mainHandler.removeCallbacks(applyRunnable);
+        mainHandler.post(applyRunnable);
+    };
+
+    private volatile Set<String> launchers = Collections.emptySet();
+    private volatile Set<String> watchedPackages = Collections.emptySet();
+    private volatile Set<String> monitoredPackages = Collections.emptySet();
+    private volatile Set<String> contentInspectedPackages = Collections.emptySet();
+    private volatile boolean restrictPackages = true;
+
+    AccessibilityEventFilter(AccessibilityService service) {
+        this.service = service;
+    }
+
+    /** Discovers launchers, applies the filter and follows session changes. Main thread. */
+    void start() {
+        launchers = discoverLaunchers(service.getPackageManager());
+        SessionStore.addOnVersionChangedListener(sessionListener);
+        RulePackManager.getInstance(service).addOnPackChangedListener(sessionListener);
+        apply();
+    }
+
+    void stop() {
+        SessionStore.removeOnVersionChangedListener(sessionListener);
+        RulePackManager.getInstance(service).removeOnPackChangedListener(sessionListener);
+        mainHandler.removeCallbacks(applyRunnable);
+    }
+
+    /**
+     * When false the service receives events from every package again (debugging,
+     * or a feature that needs to see apps outside the session). Takes effect at once.
+     */
+    void setRestrictPackages(boolean restrict) {
+        restrictPackages = restrict;
+        mainHandler.post(applyRunnable);
+    }
+
+    Set<String> getLaunchers() {
+        return launchers;
+    }
+
+    Set<String> getWatchedPackages() {
+        return watchedPackages;
+    }
+
+    /** True for packages with an active session entry, as of the last session change. */
+    boolean isMonitored(String packageName) {
+        return monitoredPackages.contains(packageName);
+    }
+
+    /** True for monitored packages whose session blocks a section inside the app. */
+    boolean isContentInspected(String packageName) {
+        return contentInspectedPackages.contains(packageName);
+    }
+
+    private void apply() {
+        Set<String> monitored = SessionStore.getMonitoredPackages();
+        monitoredPackages = Collections.unmodifiableSet(monitored);
+
+        Set<String> inspected = new HashSet<>();
+        for (String packageName : monitored) {
+            if (SectionBlocker.isSectionBlocked(service, packageName)) {
+                inspected.add(packageName);
+            }
+        }
+        boolean contentChanged = !inspected.equals(contentInspectedPackages);
+        contentInspectedPackages = Collections.unmodifiableSet(inspected);
+
+        Set<String> watched = new HashSet<>(monitored);
+        watched.addAll(launchers);
+        if (watched.isEmpty()) {
+            // An empty list means "all packages" to the framework - watch only ourselves instead
+            watched.add(service.getPackageName());
+        }
+
+        if (watched.equals(watchedPackages) && !contentChanged && restrictPackages == isRestricted()) {
+            return;
+        }
+
+        AccessibilityServiceInfo info = service.getServiceInfo();
+        if (info == null) {
+            Log.w(TAG, "⚠️ Service info not available yet");
+            return;
+        }
+        boolean inspectContent = !inspected.isEmpty();
+        info.eventTypes = inspectContent ? EVENT_TYPES | CONTENT_EVENT_TYPES : EVENT_TYPES;
+        if (inspectContent) {
+            info.flags |= AccessibilityServiceInfo.FLAG_REPORT_VIEW_IDS;
+        } else {
+            info.flags &= ~AccessibilityServiceInfo.FLAG_REPORT_VIEW_IDS;
+        }
+        info.notificationTimeout = NOTIFICATION_TIMEOUT_MS;
+        info.packageNames = restrictPackages ? watched.toArray(new String[0]) : null;
+        service.setServiceInfo(info);
+
+        watchedPackages = Collections.unmodifiableSet(watched);
+        Log.d(TAG, "🎯 Watching " + (restrictPackages ? watched.size() + " packages: " + watched : "all packages")
+                + (inspectContent ? ", inspecting content of " + inspected : ""));
+    }
+
+    private boolean isRestricted() {
+        AccessibilityServiceInfo info = service.getServiceInfo();
+        return info != null && info.packageNames != null;
+    }
+
+    static Set<String> discoverLaunchers(PackageManager pm) {
+        Set<String> found = new HashSet<>();
+        Intent homeIntent = new Intent(Intent.ACTION_MAIN);
+        homeIntent.addCategory(Intent.CATEGORY_HOME);
+        for (ResolveInfo info : pm.queryIntentActivities(homeIntent, 0)) {
+            if (info.activityInfo != null) {
+                found.add(info.activityInfo.packageName);
+            }
+        }
+        return Collections.unmodifiableSet(found);
+    }
+}
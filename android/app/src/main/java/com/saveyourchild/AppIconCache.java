@@ -0,0 +1,226 @@
+// android/app/src/main/java/com/saveyourchild/AppIconCache.java
+package com.saveyourchild;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide pool of rendered app icons for AppIconView and the overlay pages.
+ *
+ * Icons are drawn from PackageManager on a background thread at the size the view
+ * asks for (rounded up to a 32 px step, so neighbouring sizes share an entry) and
+ * kept in an LRU bounded by bytes. On API 26+ each one is moved into a hardware
+ * bitmap: the pixels live in graphics memory, are uploaded once and drawing them
+ * costs the UI thread nothing. Nothing is PNG-encoded or sent through JS; a list
+ * cell holds a package name and a reference into this pool.
+ *
+ * Requests for an icon that is already being drawn join the pending one. get(),
+ * cancel() and the callbacks are main thread only.
+ */
+public final class AppIconCache implements ComponentCallbacks2 {
+
+    private static final String TAG = "AppIconCache";
+    private static final int SIZE_STEP_PX = 32;
+    private static final int MAX_SIZE_PX = 512;
+    private static final int MAX_CACHE_KB = 16 * 1024;
+
+    interface Callback {
+        /** Main thread. bitmap is null when the app has no loadable icon. */
+        void onIconLoaded(String packageName, int sizePx, Bitmap bitmap);
+    }
+
+    private static AppIconCache instance;
+
+    private final PackageManager packageManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Handler worker;
+    private final LruCache<String, Bitmap> cache;
+    private final HashMap<String, ArrayList<Callback>> pending = new HashMap<>();   // main thread only
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong joinedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong hardwareCount = new AtomicLong();
+    private final LatencyHistogram decodeLatency = new LatencyHistogram();
+
+    private AppIconCache(Context context) {
+        packageManager = context.getPackageManager();
+        ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int maxKb = Math.min(MAX_CACHE_KB, am.getMemoryClass() * 1024 / 8);
+        cache = new LruCache<String, Bitmap>(maxKb) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return Math.max(1, bitmap.getAllocationByteCount() / 1024);
+            }
+        };
+        HandlerThread thread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        worker = new Handler(thread.getLooper());
+        context.registerComponentCallbacks(this);
+    }
+
+    public static synchronized AppIconCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new AppIconCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** The pool's size bucket for a view of sizePx. */
+    static int bucketSize(int sizePx) {
+        int rounded = (Math.max(sizePx, 1) + SIZE_STEP_PX - 1) / SIZE_STEP_PX * SIZE_STEP_PX;
+        return Math.min(rounded, MAX_SIZE_PX);
+    }
+
+    /**
+     * The icon if it is in the pool. Otherwise starts drawing it, calls back when
+     * done and returns null, so the caller shows its placeholder meanwhile.
+     */
+    Bitmap get(String packageName, int sizePx, Callback callback) {
+        String key = key(packageName, sizePx);
+        Bitmap bitmap = cache.get(key);
+        if (bitmap != null) {
+            hitCount.incrementAndGet();
+            return bitmap;
+        }
+        ArrayList<Callback> waiting = pending.get(key);
+        if (waiting != null) {
+            joinedCount.incrementAndGet();
+            waiting.add(callback);
+            return null;
+        }
+        missCount.incrementAndGet();
+        waiting = new ArrayList<>();
+        waiting.add(callback);
+        pending.put(key, waiting);
+        worker.post(() -> {
+            Bitmap loaded = load(packageName, sizePx, true);
+            mainHandler.post(() -> deliver(key, packageName, sizePx, loaded));
+        });
+        return null;
+    }
+
+    /** The view went away or changed package; the icon is still drawn and pooled. */
+    void cancel(String packageName, int sizePx, Callback callback) {
+        ArrayList<Callback> waiting = pending.get(key(packageName, sizePx));
+        if (waiting != null) {
+            waiting.remove(callback);
+        }
+    }
+
+    /** PNG of the icon for the overlay pages' image requests. Any thread; not pooled. */
+    byte[] renderPng(String packageName, int sizePx) {
+        Bitmap bitmap = load(packageName, sizePx, false);
+        if (bitmap == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        bitmap.recycle();
+        return out.toByteArray();
+    }
+
+    Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("iconHits", hitCount.get());
+        metrics.put("iconMisses", missCount.get());
+        metrics.put("iconJoined", joinedCount.get());
+        metrics.put("iconFailed", failedCount.get());
+        metrics.put("iconHardwareBitmaps", hardwareCount.get());
+        metrics.put("iconPoolEntries", (long) cache.snapshot().size());
+        metrics.put("iconPoolKb", (long) cache.size());
+        metrics.put("iconPoolMaxKb", (long) cache.maxSize());
+        return metrics;
+    }
+
+    LatencyHistogram getDecodeLatency() {
+        return decodeLatency;
+    }
+
+    // Worker thread (or the WebView's IO thread for renderPng)
+    private Bitmap load(String packageName, int sizePx, boolean hardware) {
+        boolean traced = PerfTrace.begin(PerfTrace.ICON_RENDER);
+        long start = System.nanoTime();
+        try {
+            Drawable icon = packageManager.getApplicationIcon(packageName);
+            Bitmap bitmap = Bitmap.createBitmap(sizePx, sizePx, Bitmap.Config.ARGB_8888);
+            icon.setBounds(0, 0, sizePx, sizePx);
+            icon.draw(new Canvas(bitmap));
+            if (hardware && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                Bitmap uploaded = bitmap.copy(Bitmap.Config.HARDWARE, false);
+                if (uploaded != null) {
+                    bitmap.recycle();
+                    bitmap = uploaded;
+                    hardwareCount.incrementAndGet();
+                }
+            }
+            decodeLatency.record((System.nanoTime() - start) / 1000);
+            return bitmap;
+        } catch (PackageManager.NameNotFoundException e) {
+            failedCount.incrementAndGet();
+            return null;
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            Log.e(TAG, "❌ Error drawing icon for " + packageName + ": " + e.getMessage());
+            return null;
+        } finally {
+            PerfTrace.end(traced);
+        }
+    }
+
+    private void deliver(String key, String packageName, int sizePx, Bitmap bitmap) {
+        if (bitmap != null) {
+            cache.put(key, bitmap);
+        }
+        ArrayList<Callback> waiting = pending.remove(key);
+        if (waiting == null) {
+            return;
+        }
+        for (Callback callback : waiting) {
+            callback.onIconLoaded(packageName, sizePx, bitmap);
+        }
+    }
+
+    private static String key(String packageName, int sizePx) {
+        return packageName + '@' + sizePx;
+    }
+
+    // Evicted icons are just redrawn on the next bind; views keep theirs until then
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            cache.evictAll();
+        } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            cache.trimToSize(cache.maxSize() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        cache.evictAll();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {}
+}
@@ -0,0 +1,149 @@
+// android/app/src/main/java/com/saveyourchild/AppIconView.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Outline;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewOutlineProvider;
+
+import java.util.Locale;
+
+/**
+ * An app's launcher icon by package name, drawn from AppIconCache. Until the icon
+ * is in the pool (or when the app has none) it shows a placeholder: the first
+ * letter of appName on placeholderColor. Corners are rounded through the view
+ * outline, which clips on the render thread instead of per draw.
+ *
+ * Detached views drop their pending request, so a fast-scrolling list only ever
+ * waits for the cells on screen.
+ */
+final class AppIconView extends View implements AppIconCache.Callback {
+
+    private static final int DEFAULT_PLACEHOLDER_COLOR = Color.parseColor("#667eea");
+
+    private final AppIconCache cache;
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG | Paint.ANTI_ALIAS_FLAG);
+    private final Paint letterPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Rect bounds = new Rect();
+
+    private String packageName;
+    private String letter = "";
+    private int placeholderColor = DEFAULT_PLACEHOLDER_COLOR;
+    private float cornerRadius = 0;
+
+    private Bitmap bitmap;
+    private int requestedSize = 0;   // bucket of the request in flight or loaded, 0 = none
+
+    AppIconView(Context context) {
+        super(context);
+        cache = AppIconCache.getInstance(context);
+        letterPaint.setColor(Color.WHITE);
+        letterPaint.setTextAlign(Paint.Align.CENTER);
+        letterPaint.setFakeBoldText(true);
+        setOutlineProvider(new ViewOutlineProvider() {
+            @Override
+            public void getOutline(View view, Outline outline) {
+                outline.setRoundRect(0, 0, view.getWidth(), view.getHeight(), cornerRadius);
+            }
+        });
+        setClipToOutline(true);
+    }
+
+    void setPackageName(String packageName) {
+        if (packageName != null && packageName.equals(this.packageName)) {
+            return;
+        }
+        release();
+        this.packageName = packageName;
+        request();
+        invalidate();
+    }
+
+    void setAppName(String appName) {
+        letter = appName != null && !appName.isEmpty()
+                ? appName.substring(0, appName.offsetByCodePoints(0, 1)).toUpperCase(Locale.getDefault())
+                : "";
+        invalidate();
+    }
+
+    void setPlaceholderColor(Integer color) {
+        placeholderColor = color != null ? color : DEFAULT_PLACEHOLDER_COLOR;
+        invalidate();
+    }
+
+    void setCornerRadius(float radiusPx) {
+        cornerRadius = radiusPx;
+        invalidateOutline();
+    }
+
+    @Override
+    public void onIconLoaded(String packageName, int sizePx, Bitmap loaded) {
+        if (!packageName.equals(this.packageName) || sizePx != requestedSize) {
+            return;
+        }
+        bitmap = loaded;
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (AppIconCache.bucketSize(Math.max(w, h)) != requestedSize) {
+            release();
+            request();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        request();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        release();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        bounds.set(0, 0, getWidth(), getHeight());
+        // A hardware bitmap can't be drawn into a software canvas (e.g. a view snapshot)
+        boolean drawable = bitmap != null && (Build.VERSION.SDK_INT < Build.VERSION_CODES.O
+                || bitmap.getConfig() != Bitmap.Config.HARDWARE || canvas.isHardwareAccelerated());
+        if (drawable) {
+            canvas.drawBitmap(bitmap, null, bounds, bitmapPaint);
+            return;
+        }
+        canvas.drawColor(placeholderColor);
+        if (!letter.isEmpty()) {
+            letterPaint.setTextSize(getHeight() * 0.45f);
+            float baseline = getHeight() / 2f - (letterPaint.descent() + letterPaint.ascent()) / 2f;
+            canvas.drawText(letter, getWidth() / 2f, baseline, letterPaint);
+        }
+    }
+
+    private void request() {
+        if (packageName == null || requestedSize != 0 || getWidth() == 0 || !isAttachedToWindow()) {
+            return;
+        }
+        requestedSize = AppIconCache.bucketSize(Math.max(getWidth(), getHeight()));
+        bitmap = cache.get(packageName, requestedSize, this);
+    }
+
+    // The pool keeps the bitmap; this view only lets go of its reference
+    private void release() {
+        if (packageName != null && requestedSize != 0) {
+            cache.cancel(packageName, requestedSize, this);
+        }
+        requestedSize = 0;
+        bitmap = null;
+    }
+}
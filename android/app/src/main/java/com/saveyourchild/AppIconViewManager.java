@@ -0,0 +1,62 @@
+// android/app/src/main/java/com/saveyourchild/AppIconViewManager.java
+package com.saveyourchild;
+
+import com.facebook.react.uimanager.PixelUtil;
+import com.facebook.react.uimanager.SimpleViewManager;
+import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.ViewManagerDelegate;
+import com.facebook.react.uimanager.annotations.ReactProp;
+import com.facebook.react.viewmanagers.AppIconViewManagerDelegate;
+import com.facebook.react.viewmanagers.AppIconViewManagerInterface;
+
+/**
+ * Fabric component for AppIconView. The props interface and delegate are generated
+ * from src/specs/AppIconViewNativeComponent.ts into com.facebook.react.viewmanagers
+ * (codegen's javaPackageName only applies to modules); keep both in sync.
+ */
+public class AppIconViewManager extends SimpleViewManager<AppIconView>
+        implements AppIconViewManagerInterface<AppIconView> {
+
+    public static final String NAME = "AppIconView";
+
+    private final ViewManagerDelegate<AppIconView> delegate = new AppIconViewManagerDelegate<>(this);
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    protected ViewManagerDelegate<AppIconView> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    protected AppIconView createViewInstance(ThemedReactContext context) {
+        return new AppIconView(context);
+    }
+
+    @Override
+    @ReactProp(name = "packageName")
+    public void setPackageName(AppIconView view, String packageName) {
+        view.setPackageName(packageName);
+    }
+
+    @Override
+    @ReactProp(name = "appName")
+    public void setAppName(AppIconView view, String appName) {
+        view.setAppName(appName);
+    }
+
+    @Override
+    @ReactProp(name = "placeholderColor", customType = "Color")
+    public void setPlaceholderColor(AppIconView view, Integer color) {
+        view.setPlaceholderColor(color);
+    }
+
+    @Override
+    @ReactProp(name = "cornerRadius", defaultFloat = 0f)
+    public void setCornerRadius(AppIconView view, float radius) {
+        view.setCornerRadius(PixelUtil.toPixelFromDIP(radius));
+    }
+}
@@ -6,32 +6,55 @@ import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.content.pm.ApplicationInfo;
 import android.provider.Settings;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.drawable.Drawable;
-import android.util.Base64;
 import android.util.Log;
 import com.facebook.react.bridge.*;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 
-import org.json.JSONObject;
-
-import java.io.ByteArrayOutputStream;
 import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.ArrayList;
 
-public class AppMonitorModule extends ReactContextBaseJavaModule {
+/**
+ * TurboModule behind src/specs/NativeAppMonitorModule.ts. Codegen turns the spec
+ * into NativeAppMonitorModuleSpec, so a method added here without the spec (or
+ * the other way round) fails the build instead of failing at runtime.
+ */
+public class AppMonitorModule extends NativeAppMonitorModuleSpec implements LifecycleEventListener {
     
     private ReactApplicationContext reactContext;
     private static final String TAG = "AppMonitorModule";
     private static AppMonitorModule moduleInstance;
-      // static field in Java is the equivalent of Kotlin companion object @JvmStatic
-    private static String activeSession = "{}";
+    private static final int SEARCH_CHUNK_SIZE = 50;
+    private volatile AppSearchIndex searchIndex;
+    private final NativeEventBus eventBus;
+
+    // JS screens showing a countdown; ticks are only forwarded while the app is in the foreground
+    private int sessionClockListeners = 0;
+    private boolean hostResumed = false;
+    private final SessionClock.Subscriber sessionClockSubscriber = nowMillis -> {
+        WritableMap params = Arguments.createMap();
+        params.putDouble("now", nowMillis);
+        sendEvent("SessionClockTick", "", params);
+    };
 
     public AppMonitorModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
+        this.eventBus = new NativeEventBus((eventName, params) -> reactContext
+                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                .emit(eventName, params));
         moduleInstance = this; // ✅ Store static reference
+        PerfTrace.init(reactContext);
+        SessionStore.init(reactContext);
+
+        // ✅ Tell JS which app native services changed; it reads the data back through getAppSessionJson
+        SessionStore.setOnSessionChangedListener(packageName -> {
+            WritableMap params = Arguments.createMap();
+            params.putString("packageName", packageName);
+            sendEvent("SessionChanged", packageName, params);
+        });
+        reactContext.addLifecycleEventListener(this);
     }
 
     // ✅ Static method to send event from service
@@ -44,7 +67,7 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
                 params.putString("action", "NAVIGATE_TO_LOCK_SCREEN");
                 params.putString("timestamp", String.valueOf(System.currentTimeMillis()));
 
-                moduleInstance.sendEvent("AppBlocked", params);
+                moduleInstance.sendEvent("AppBlocked", packageName, params);
                 Log.d("AppMonitorModule", "✅ Event sent from service for: " + appName);
             }
         } catch (Exception e) {
@@ -52,161 +75,190 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
         }
     }
 
-    // android/app/src/main/java/com/saveyourchild/AppMonitorModule.java
+    @Override
     @ReactMethod
-    public static void updateActiveSessionForApp(String packageName, String sessionDataJson) {
+    public void updateActiveSessionForApp(String packageName, String sessionDataJson) {
+        Log.d("AppMonitorModule", "🔄 Updating active session for: " + packageName);
+        Log.d("AppMonitorModule", "📊 Session data: " + sessionDataJson);
+        boolean traced = PerfTrace.begin(PerfTrace.UPDATE_SESSION_FOR_APP);
         try {
-            Log.d("AppMonitorModule", "🔄 Updating active session for: " + packageName);
-            Log.d("AppMonitorModule", "📊 Session data: " + sessionDataJson);
-
-            // Get current active session from static field
-            String currentSessionJson = getActiveSession();
-            JSONObject activeSessionObj;
-
-            if (currentSessionJson != null && !currentSessionJson.isEmpty() && !currentSessionJson.equals("{}")) {
-                activeSessionObj = new JSONObject(currentSessionJson);
-            } else {
-                activeSessionObj = new JSONObject();
-            }
-
-            // Parse new session data (without icon)
-            JSONObject newSessionData = new JSONObject(sessionDataJson);
+            SessionStore.updateApp(packageName, sessionDataJson);
+        } finally {
+            PerfTrace.end(traced);
+        }
+    }
 
-            // ✅ Add icon from existing session data if available
-            if (activeSessionObj.has(packageName)) {
-                JSONObject existingAppData = activeSessionObj.getJSONObject(packageName);
-                if (existingAppData.has("icon") && !existingAppData.getString("icon").isEmpty()) {
-                    newSessionData.put("icon", existingAppData.getString("icon"));
-                    Log.d("AppMonitorModule", "✅ Preserved existing icon for: " + packageName);
-                }
-            }
+    // ✅ StorageService's session reads and writes: JS never opens the session MMKV
+    // file itself, so only SessionStore's MMKV core maps it. Blocking, so a read
+    // right after a write sees it.
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public String getActiveSessionJson() {
+        return SessionStore.getActiveSession();
+    }
 
-            // Update the specific app's session data
-            activeSessionObj.put(packageName, newSessionData);
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public String getAppSessionJson(String packageName) {
+        return SessionStore.getAppJson(packageName);
+    }
 
-            // ✅ Update the static field
-            String updatedSessionJson = activeSessionObj.toString();
-            // call the instance method on moduleInstance
-            if (moduleInstance != null) {
-                 moduleInstance.updateActiveSession(updatedSessionJson);
-            }
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean setActiveSessionJson(String activeSessionJson) {
+        Log.d(TAG, "🔄 Replacing active session from JS");
+        return SessionStore.setActiveSession(activeSessionJson);
+    }
 
-            Log.d("AppMonitorModule", "✅ Active session updated successfully for: " + packageName);
-            Log.d("AppMonitorModule", "📊 Updated session: " + updatedSessionJson);
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean setAppSessionJson(String packageName, String sessionDataJson) {
+        Log.d(TAG, "🔄 Updating session from JS for: " + packageName);
+        return SessionStore.updateAppFromJs(packageName, sessionDataJson);
+    }
 
-            // ✅ Also notify React Native side to update MMKV
-            if (moduleInstance != null) {
-                WritableMap params = Arguments.createMap();
-                params.putString("activeSession", updatedSessionJson);
-                moduleInstance.sendEvent("ActiveSessionUpdated", params);
-            }
+    // ✅ Synchronous session reads for screens: answered from SessionStore and the
+    // SessionClock deadline cache on the JS thread, so nothing is mirrored through events
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public double getSessionVersion() {
+        return SessionStore.getVersion();
+    }
 
-        } catch (Exception e) {
-            Log.e("AppMonitorModule", "❌ Error updating active session: " + e.getMessage());
-            e.printStackTrace();
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableArray getMonitoredPackages() {
+        WritableArray packages = Arguments.createArray();
+        for (String packageName : SessionStore.getMonitoredPackages()) {
+            packages.pushString(packageName);
         }
+        return packages;
     }
 
-    // ✅ Add this method to update static field
-    @ReactMethod
-    public void updateActiveSession(String jsActiveSession) {
-        Log.d(TAG, "🔄 updateActiveSession called with: " + jsActiveSession);
-        activeSession = jsActiveSession;
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getSessionDeadlines(String packageName) {
+        long[] deadlines = new long[3];
+        if (!SessionClock.readDeadlines(packageName, deadlines)) {
+            return null;
+        }
+        WritableMap result = Arguments.createMap();
+        result.putDouble("accessStart", deadlines[0]);
+        result.putDouble("accessEnd", deadlines[1]);
+        result.putDouble("lockUpTo", deadlines[2]);
+        return result;
     }
 
+    // NativeEventEmitter bookkeeping; events are sent whether or not anyone listens
+    @Override
+    @ReactMethod
+    public void addListener(String eventName) {}
 
     @Override
-    public String getName() {
-        return "AppMonitorModule";
-    }
+    @ReactMethod
+    public void removeListeners(double count) {}
     
-    // ✅ Updated method with icon support
+    // ✅ Name and package only: list cells draw icons natively by package name (AppIconView)
+    @Override
     @ReactMethod
     public void getInstalledApps(Promise promise) {
+        boolean traced = PerfTrace.begin(PerfTrace.GET_INSTALLED_APPS);
         try {
-            Log.d(TAG, "🔍 Getting installed apps with icons...");
-            PackageManager pm = reactContext.getPackageManager();
-            List<ApplicationInfo> apps = pm.getInstalledApplications(PackageManager.GET_META_DATA);
-            
+            Log.d(TAG, "🔍 Getting installed apps...");
+            List<String[]> catalog = loadAppCatalog();
+
             WritableArray appList = Arguments.createArray();
-            String selfPackage = reactContext.getPackageName();
-            int count = 0;
-            
-            for (ApplicationInfo app : apps) {
-                try {
-                    // Skip system apps and our own app
-                    if ((app.flags & ApplicationInfo.FLAG_SYSTEM) == 0 && 
-                        !app.packageName.equals(selfPackage)) {
-                        
-                        WritableMap appInfo = Arguments.createMap();
-                        
-                        // Basic app info
-                        String appName = pm.getApplicationLabel(app).toString();
-                        appInfo.putString("packageName", app.packageName);
-                        appInfo.putString("appName", appName);
-                        
-                        // ✅ Get and convert icon to base64
-                        try {
-                            Drawable icon = pm.getApplicationIcon(app);
-                            String iconBase64 = drawableToBase64(icon);
-                            appInfo.putString("icon", iconBase64);
-                            Log.d(TAG, "✅ Icon added for: " + appName);
-                        } catch (Exception iconError) {
-                            Log.e(TAG, "❌ Icon error for " + appName + ": " + iconError.getMessage());
-                            appInfo.putString("icon", ""); // Empty if icon fails
-                        }
-                        
-                        appList.pushMap(appInfo);
-                        count++;
-                        
-                        // Limit to 50 apps to avoid performance issues
-                        if (count >= 70) break;
-                    }
-                } catch (Exception appError) {
-                    Log.e(TAG, "Error processing app: " + appError.getMessage());
-                    continue;
-                }
+            for (String[] app : catalog) {
+                WritableMap appInfo = Arguments.createMap();
+                appInfo.putString("packageName", app[0]);
+                appInfo.putString("appName", app[1]);
+                appList.pushMap(appInfo);
             }
-            
-            Log.d(TAG, "✅ Successfully loaded " + count + " apps with icons");
+
+            Log.d(TAG, "✅ Successfully loaded " + catalog.size() + " apps");
             promise.resolve(appList);
-            
+
+            // ✅ Fresh catalog - rebuild the search index from it, no second PackageManager pass
+            searchIndex = AppSearchIndex.build(catalog);
+
         } catch (Exception e) {
             Log.e(TAG, "❌ Error getting installed apps: " + e.getMessage());
             promise.reject("GET_APPS_ERROR", e.getMessage());
+        } finally {
+            PerfTrace.end(traced);
         }
     }
-    
-    // ✅ Helper method to convert drawable to base64
-    private String drawableToBase64(Drawable drawable) {
+
+    // {packageName, label} of the launchable, non-system apps other than ours
+    private List<String[]> loadAppCatalog() {
+        PackageManager pm = reactContext.getPackageManager();
+        String selfPackage = reactContext.getPackageName();
+        List<String[]> catalog = new ArrayList<>();
+        for (ApplicationInfo app : pm.getInstalledApplications(0)) {
+            try {
+                // Skip system apps and our own app
+                if ((app.flags & ApplicationInfo.FLAG_SYSTEM) == 0 && !app.packageName.equals(selfPackage)) {
+                    catalog.add(new String[]{app.packageName, pm.getApplicationLabel(app).toString()});
+                }
+            } catch (Exception appError) {
+                Log.e(TAG, "Error processing app: " + appError.getMessage());
+            }
+        }
+        return catalog;
+    }
+
+    // ✅ Ranked package names for a search query, from the native index.
+    // The first `limit` results resolve the promise; the rest follow as
+    // AppSearchResults events in chunks so long lists never block the JS thread.
+    // Chunks carry the caller's requestId so it can drop those of superseded calls.
+    @Override
+    @ReactMethod
+    public void searchApps(String query, double limit, double requestId, Promise promise) {
         try {
-            // Set reasonable icon size (48x48 dp)
-            int iconSize = 144; // 48dp * 3 for good quality
-            
-            Bitmap bitmap = Bitmap.createBitmap(iconSize, iconSize, Bitmap.Config.ARGB_8888);
-            Canvas canvas = new Canvas(bitmap);
-            
-            // Set bounds and draw
-            drawable.setBounds(0, 0, iconSize, iconSize);
-            drawable.draw(canvas);
-            
-            // Convert to base64
-            ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.PNG, 90, byteStream); // 90% quality for smaller size
-            byte[] byteArray = byteStream.toByteArray();
-            
-            // Cleanup
-            byteStream.close();
-            bitmap.recycle();
-            
-            return "data:image/png;base64," + Base64.encodeToString(byteArray, Base64.NO_WRAP);
-            
+            long start = System.nanoTime();
+            List<String> results = getSearchIndex().search(query, 0);
+            int firstPage = limit > 0 ? Math.min((int) limit, results.size()) : results.size();
+
+            WritableArray page = Arguments.createArray();
+            for (int i = 0; i < firstPage; i++) {
+                page.pushString(results.get(i));
+            }
+            Log.d(TAG, "🔍 searchApps('" + query + "'): " + results.size() + " hits in " + (System.nanoTime() - start) / 1000 + "µs");
+            promise.resolve(page);
+
+            for (int offset = firstPage; offset < results.size(); offset += SEARCH_CHUNK_SIZE) {
+                int end = Math.min(offset + SEARCH_CHUNK_SIZE, results.size());
+                WritableArray chunk = Arguments.createArray();
+                for (int i = offset; i < end; i++) {
+                    chunk.pushString(results.get(i));
+                }
+                WritableMap params = Arguments.createMap();
+                params.putDouble("requestId", requestId);
+                params.putString("query", query);
+                params.putInt("offset", offset);
+                params.putArray("packageNames", chunk);
+                params.putBoolean("done", end == results.size());
+                sendEvent("AppSearchResults", (long) requestId + "@" + offset, params);
+            }
+
         } catch (Exception e) {
-            Log.e(TAG, "Error converting icon to base64: " + e.getMessage());
-            return "";
+            Log.e(TAG, "❌ Error searching apps: " + e.getMessage());
+            promise.reject("SEARCH_APPS_ERROR", e.getMessage());
         }
     }
+
+    private AppSearchIndex getSearchIndex() {
+        AppSearchIndex index = searchIndex;
+        if (index == null) {
+            // searchApps before getInstalledApps: load the catalog once for the index alone
+            index = AppSearchIndex.build(loadAppCatalog());
+            searchIndex = index;
+        }
+        return index;
+    }
+
     
+    @Override
     @ReactMethod
     public void startAppMonitoring() {
         try {
@@ -218,6 +270,7 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
         }
     }
     
+    @Override
     @ReactMethod
     public void stopAppMonitoring() {
         try {
@@ -231,18 +284,201 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
 
     // Add this method to android/app/src/main/java/com/saveyourchild/AppMonitorModule.java
 
+    @Override
     @ReactMethod
     public void hideLockScreenOverlay() {
         try {
             Log.d(TAG, "🫥 Hiding lock screen overlay from React Native");
-            ReactNativeLockOverlay.hideOverlayStatic();
+            OverlayController.getInstance(reactContext).hide();
         } catch (Exception e) {
             Log.e(TAG, "❌ Error hiding overlay: " + e.getMessage());
         }
     }
 
+    @Override
+    @ReactMethod
+    public void getOverlayMetrics(Promise promise) {
+        try {
+            OverlayController controller = OverlayController.getInstance(reactContext);
+            WritableMap metrics = Arguments.createMap();
+            metrics.putString("state", controller.getState().name());
+            WritableMap counters = Arguments.createMap();
+            for (Map.Entry<String, Long> entry : controller.getMetrics().entrySet()) {
+                counters.putDouble(entry.getKey(), entry.getValue());
+            }
+            metrics.putMap("counters", counters);
+            promise.resolve(metrics);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting overlay metrics: " + e.getMessage());
+            promise.reject("OVERLAY_METRICS_ERROR", e.getMessage());
+        }
+    }
+
+
+
+    // ✅ Shared once-per-second tick for countdown screens, emitted as SessionClockTick { now }.
+    // Ref-counted: call unsubscribe once for every subscribe.
+    @Override
+    @ReactMethod
+    public synchronized void subscribeSessionClock() {
+        sessionClockListeners++;
+        updateSessionClockSubscription();
+    }
 
+    @Override
+    @ReactMethod
+    public synchronized void unsubscribeSessionClock() {
+        sessionClockListeners = Math.max(0, sessionClockListeners - 1);
+        updateSessionClockSubscription();
+    }
 
+    // ✅ Remaining access / lock time for one app, computed from the native session deadlines
+    @Override
+    @ReactMethod
+    public void getRemainingTime(String packageName, Promise promise) {
+        long now = System.currentTimeMillis();
+        WritableMap result = Arguments.createMap();
+        result.putDouble("now", now);
+        result.putDouble("accessRemainingMs", SessionClock.getAccessRemainingMillis(packageName, now));
+        result.putDouble("lockRemainingMs", SessionClock.getLockRemainingMillis(packageName, now));
+        promise.resolve(result);
+    }
+
+    // ✅ Records the service's event stream for EventReplay; resolves the capture file path
+    @Override
+    @ReactMethod
+    public void startEventCapture(Promise promise) {
+        AppMonitorService service = AppMonitorService.getInstance();
+        if (service == null) {
+            promise.reject("EVENT_CAPTURE_ERROR", "Accessibility service not running");
+            return;
+        }
+        try {
+            promise.resolve(service.startEventCapture());
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error starting event capture: " + e.getMessage());
+            promise.reject("EVENT_CAPTURE_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    @ReactMethod
+    public void stopEventCapture(Promise promise) {
+        AppMonitorService service = AppMonitorService.getInstance();
+        promise.resolve(service != null ? service.stopEventCapture() : null);
+    }
+
+    // ✅ Validates and activates a section rule pack; the service picks it up without a restart
+    @Override
+    @ReactMethod
+    public void installRulePack(String packText, Promise promise) {
+        try {
+            RulePack pack = RulePackManager.getInstance(reactContext).install(packText);
+            WritableMap result = Arguments.createMap();
+            result.putInt("version", pack.getVersion());
+            result.putInt("ruleCount", pack.getRuleCount());
+            promise.resolve(result);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Rule pack rejected: " + e.getMessage());
+            promise.reject("RULE_PACK_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    @ReactMethod
+    public void getRulePackVersion(Promise promise) {
+        promise.resolve(RulePackManager.getInstance(reactContext).getActivePack().getVersion());
+    }
+
+    @Override
+    public synchronized void onHostResume() {
+        hostResumed = true;
+        updateSessionClockSubscription();
+    }
+
+    @Override
+    public synchronized void onHostPause() {
+        hostResumed = false;
+        updateSessionClockSubscription();
+    }
+
+    @Override
+    public synchronized void onHostDestroy() {
+        hostResumed = false;
+        updateSessionClockSubscription();
+    }
+
+    private void updateSessionClockSubscription() {
+        SessionClock clock = SessionClock.getInstance(reactContext);
+        if (hostResumed && sessionClockListeners > 0) {
+            clock.subscribe(sessionClockSubscriber);
+        } else {
+            clock.unsubscribe(sessionClockSubscriber);
+        }
+    }
+
+    @Override
+    @ReactMethod
+    public void runOverlayDispatchBenchmark(double iterations, Promise promise) {
+        Log.d(TAG, "⏱️ Running overlay dispatch benchmark, iterations: " + (int) iterations);
+        OverlayDispatchBenchmark.run(reactContext, (int) iterations, result -> {
+            WritableMap map = Arguments.createMap();
+            for (Map.Entry<String, Double> entry : result.entrySet()) {
+                map.putDouble(entry.getKey(), entry.getValue());
+            }
+            promise.resolve(map);
+        });
+    }
+
+    // ✅ Overlay show/hide cycles with heap growth per cycle; renderer is "NATIVE", "WEBVIEW" or "REACT"
+    @Override
+    @ReactMethod
+    public void runOverlayLeakCheck(double cycles, String renderer, Promise promise) {
+        OverlayController.RendererType type;
+        try {
+            type = OverlayController.RendererType.valueOf(renderer);
+        } catch (IllegalArgumentException e) {
+            promise.reject("LEAK_CHECK_ERROR", "Unknown renderer: " + renderer);
+            return;
+        }
+        Log.d(TAG, "🧪 Running overlay leak check, cycles: " + (int) cycles + ", renderer: " + type);
+        OverlayLeakCheck.run(reactContext, (int) cycles, type, result -> {
+            WritableMap map = Arguments.createMap();
+            for (Map.Entry<String, Double> entry : result.entrySet()) {
+                map.putDouble(entry.getKey(), entry.getValue());
+            }
+            promise.resolve(map);
+        });
+    }
+
+    // ✅ Device tier the overlay pages render for, with the signals it was measured from
+    @Override
+    @ReactMethod
+    public void getDeviceTier(Promise promise) {
+        DeviceTier deviceTier = DeviceTier.getInstance(reactContext);
+        WritableMap map = Arguments.createMap();
+        map.putString("tier", deviceTier.getTier().name());
+        WritableMap signals = Arguments.createMap();
+        for (Map.Entry<String, Long> entry : deviceTier.getSignals().entrySet()) {
+            signals.putDouble(entry.getKey(), entry.getValue());
+        }
+        map.putMap("signals", signals);
+        promise.resolve(map);
+    }
+
+    // ✅ Forces "LOW", "MID" or "HIGH" for the overlay pages; null goes back to the measured tier
+    @Override
+    @ReactMethod
+    public void setOverlayTier(String tier, Promise promise) {
+        try {
+            DeviceTier.getInstance(reactContext).setOverride(tier != null ? DeviceTier.Tier.valueOf(tier) : null);
+            promise.resolve(true);
+        } catch (IllegalArgumentException e) {
+            promise.reject("TIER_ERROR", "Unknown tier: " + tier);
+        }
+    }
+
+    @Override
     @ReactMethod
     public void checkAccessibilityPermission(Promise promise) {
         try {
@@ -255,6 +491,7 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
         }
     }
     
+    @Override
     @ReactMethod
     public void openAccessibilitySettings() {
         try {
@@ -267,6 +504,7 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
         }
     }
     
+    @Override
     @ReactMethod
     public void checkOverlayPermission(Promise promise) {
         try {
@@ -279,6 +517,7 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
         }
     }
     
+    @Override
     @ReactMethod
     public void openOverlaySettings() {
         try {
@@ -306,17 +545,156 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
         }
     }
     
-    // Send events to React Native
-    public void sendEvent(String eventName, WritableMap params) {
+    // Send events to React Native through the coalescing bus: until the next flush only
+    // the latest event per (eventName, key) is kept; a null key replaces all of them
+    public void sendEvent(String eventName, String key, WritableMap params) {
+        eventBus.post(eventName, key, params);
+    }
+
+    // ✅ Posted vs. coalesced vs. delivered event counts
+    @Override
+    @ReactMethod
+    public void getEventBusMetrics(Promise promise) {
+        WritableMap map = Arguments.createMap();
+        for (Map.Entry<String, Long> entry : eventBus.getMetrics().entrySet()) {
+            map.putDouble(entry.getKey(), entry.getValue());
+        }
+        promise.resolve(map);
+    }
+
+    // ✅ The service dump as nested maps, for the in-app debug screen
+    @Override
+    @ReactMethod
+    public void getDiagnostics(Promise promise) {
         try {
-            reactContext
-                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
-                .emit(eventName, params);
+            WritableMap result = Arguments.createMap();
+            for (Map.Entry<String, Map<String, Object>> section : Diagnostics.collect(reactContext).entrySet()) {
+                WritableMap values = Arguments.createMap();
+                for (Map.Entry<String, Object> entry : section.getValue().entrySet()) {
+                    Object value = entry.getValue();
+                    if (value instanceof Long) {
+                        values.putDouble(entry.getKey(), (Long) value);
+                    } else {
+                        values.putString(entry.getKey(), String.valueOf(value));
+                    }
+                }
+                result.putMap(section.getKey(), values);
+            }
+            promise.resolve(result);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error collecting diagnostics: " + e.getMessage());
+            promise.reject("DIAGNOSTICS_ERROR", e.getMessage());
+        }
+    }
+
+    // ✅ Intervention counts per "hour" or "day" bucket starting in [fromMillis, toMillis),
+    // summed over apps; read from the rollups, not the raw log
+    @Override
+    @ReactMethod
+    public void getInterventionStats(double fromMillis, double toMillis, String granularity, Promise promise) {
+        if (!"hour".equals(granularity) && !"day".equals(granularity)) {
+            promise.reject("INTERVENTION_STATS_ERROR", "Unknown granularity: " + granularity);
+            return;
+        }
+        try {
+            WritableArray buckets = Arguments.createArray();
+            for (Map.Entry<Long, long[]> bucket : InterventionLog.getInstance(reactContext)
+                    .getTotals("hour".equals(granularity), (long) fromMillis, (long) toMillis).entrySet()) {
+                WritableMap map = interventionCounts(bucket.getValue());
+                map.putDouble("start", bucket.getKey());
+                buckets.pushMap(map);
+            }
+            promise.resolve(buckets);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error reading intervention stats: " + e.getMessage());
+            promise.reject("INTERVENTION_STATS_ERROR", e.getMessage());
+        }
+    }
+
+    // ✅ Intervention counts per app over the days starting in [fromMillis, toMillis), most blocked first
+    @Override
+    @ReactMethod
+    public void getInterventionsByApp(double fromMillis, double toMillis, Promise promise) {
+        try {
+            List<Map.Entry<String, long[]>> apps = new ArrayList<>(InterventionLog.getInstance(reactContext)
+                    .getTotalsByApp((long) fromMillis, (long) toMillis).entrySet());
+            apps.sort((a, b) -> Long.compare(b.getValue()[InterventionRollups.TOTAL], a.getValue()[InterventionRollups.TOTAL]));
+            WritableArray result = Arguments.createArray();
+            for (Map.Entry<String, long[]> app : apps) {
+                WritableMap map = interventionCounts(app.getValue());
+                map.putString("packageName", app.getKey());
+                result.pushMap(map);
+            }
+            promise.resolve(result);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error reading interventions by app: " + e.getMessage());
+            promise.reject("INTERVENTION_STATS_ERROR", e.getMessage());
+        }
+    }
+
+    private static WritableMap interventionCounts(long[] counters) {
+        WritableMap map = Arguments.createMap();
+        for (int i = 0; i < InterventionRollups.FIELD_COUNT; i++) {
+            map.putDouble(InterventionRollups.FIELD_NAMES[i], counters[i]);
+        }
+        long shown = counters[InterventionRollups.SHOWN];
+        map.putDouble("avgTimeToOverlayMs", shown == 0 ? 0 : counters[InterventionRollups.TIME_TO_OVERLAY_SUM_MS] / shown);
+        return map;
+    }
+
+    // ✅ Overlay pre-warming: hit rate, misses and the show latency it saves
+    @Override
+    @ReactMethod
+    public void getPrewarmMetrics(Promise promise) {
+        WritableMap map = Arguments.createMap();
+        for (Map.Entry<String, Long> entry : OverlayPrewarmer.getInstance(reactContext).getMetrics().entrySet()) {
+            map.putDouble(entry.getKey(), entry.getValue());
+        }
+        promise.resolve(map);
+    }
+
+    // ✅ Sets the given pre-warm budget keys (persisted) and resolves the whole budget
+    @Override
+    @ReactMethod
+    public void setPrewarmBudget(ReadableMap budget, Promise promise) {
+        try {
+            Map<String, Long> values = new LinkedHashMap<>();
+            ReadableMapKeySetIterator keys = budget.keySetIterator();
+            while (keys.hasNextKey()) {
+                String key = keys.nextKey();
+                values.put(key, OverlayPrewarmer.ENABLED.equals(key)
+                        ? (budget.getBoolean(key) ? 1L : 0L) : (long) budget.getDouble(key));
+            }
+            WritableMap result = Arguments.createMap();
+            for (Map.Entry<String, Long> entry : OverlayPrewarmer.getInstance(reactContext).setBudget(values).entrySet()) {
+                if (OverlayPrewarmer.ENABLED.equals(entry.getKey())) {
+                    result.putBoolean(entry.getKey(), entry.getValue() != 0);
+                } else {
+                    result.putDouble(entry.getKey(), entry.getValue());
+                }
+            }
+            promise.resolve(result);
         } catch (Exception e) {
-            Log.e(TAG, "Error sending event: " + e.getMessage());
+            Log.e(TAG, "❌ Error setting pre-warm budget: " + e.getMessage());
+            promise.reject("PREWARM_BUDGET_ERROR", e.getMessage());
         }
     }
 
+    // ✅ Trace sections for Perfetto captures (scripts/perfetto/); persisted across restarts
+    @Override
+    @ReactMethod
+    public void setTracingEnabled(boolean enabled) {
+        PerfTrace.setEnabled(reactContext, enabled);
+    }
+
+    // ✅ 0 = deliver at the next frame (default), otherwise batch for intervalMs
+    @Override
+    @ReactMethod
+    public void setEventBusInterval(double intervalMs) {
+        eventBus.setInterval((long) intervalMs);
+    }
+
+    @Override
     @ReactMethod
     public void bringAppToForeground(Promise promise) {
         try {
@@ -338,6 +716,7 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
         }
     }
 
+    @Override
     @ReactMethod
     public void navigateToLockScreen(String appName, String packageName) {
         try {
@@ -349,7 +728,7 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
             params.putString("packageName", packageName);
             params.putString("action", "NAVIGATE_TO_LOCK_SCREEN");
 
-            sendEvent("AppBlocked", params);
+            sendEvent("AppBlocked", packageName, params);
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error navigating to lock screen: " + e.getMessage());
@@ -357,6 +736,7 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
     }
 
     // android/app/src/main/java/com/saveyourchild/AppMonitorModule.java - Add this method
+    @Override
     @ReactMethod
     public void goToHomeScreen() {
         try {
@@ -372,7 +752,7 @@ public class AppMonitorModule extends ReactContextBaseJavaModule {
 
     /** Optional: expose a getter so other Java classes can read the latest rules */
     public static String getActiveSession() {
-        return activeSession;
+        return SessionStore.getActiveSession();
     }
 
 }
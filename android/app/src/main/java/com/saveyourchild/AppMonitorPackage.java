@@ -1,25 +1,45 @@
 // android/app/src/main/java/com/saveyourchild/AppMonitorPackage.java
 package com.saveyourchild;
 
-import com.facebook.react.ReactPackage;
+import com.facebook.react.BaseReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 import com.facebook.react.uimanager.ViewManager;
-import java.util.ArrayList;
+
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+public class AppMonitorPackage extends BaseReactPackage {
 
-public class AppMonitorPackage implements ReactPackage {
-    
     @Override
-    public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
-        return Collections.emptyList();
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        if (name.equals(AppMonitorModule.NAME)) {
+            return new AppMonitorModule(reactContext);
+        }
+        return null;
+    }
+
+    @Override
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return () -> {
+            Map<String, ReactModuleInfo> moduleInfos = new HashMap<>();
+            moduleInfos.put(AppMonitorModule.NAME, new ReactModuleInfo(
+                    AppMonitorModule.NAME,
+                    AppMonitorModule.class.getName(),
+                    false,  // canOverrideExistingModule
+                    false,  // needsEagerInit
+                    false,  // isCxxModule
+                    true)); // isTurboModule
+            return moduleInfos;
+        };
     }
-    
+
     @Override
-    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-        List<NativeModule> modules = new ArrayList<>();
-        modules.add(new AppMonitorModule(reactContext));
-        return modules;
+    public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
+        return Collections.singletonList(new AppIconViewManager());
     }
 }
@@ -2,223 +2,250 @@
 package com.saveyourchild;
 
 import android.accessibilityservice.AccessibilityService;
-import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.os.SystemClock;
 import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityNodeInfo;
 import android.util.Log;
-import com.facebook.react.bridge.Arguments;
-import com.facebook.react.bridge.WritableMap;
 import org.json.JSONObject;
 import org.json.JSONException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.TimeZone;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.LongAdder;
 
 public class AppMonitorService extends AccessibilityService {
 
     private static final String TAG = "AppMonitorService";
+    // Per-event logs build strings on every window change; debug builds only
+    private static final boolean DEBUG_DECISIONS = BuildConfig.DEBUG;
     private static AppMonitorService instance;
-    private static boolean isOverlayActive = false;
-    private static long lastBlockTime = 0;
-    private static String lastBlockedPackage = "";
-    JSONObject appData;
-    private String appName;
 
-    // App states for decision making
-    private enum AppState {
-        NOT_IN_SESSION,     // App not in active session
-        NEEDS_ACCESS_SETUP, // accessStartTime is null/empty - show Access Screen
-        WITHIN_ACCESS_TIME, // Currently within allowed access time - allow access
-        IN_LOCK_PERIOD,     // Access time ended, in lock period - show Lock Screen
-        LOCK_EXPIRED        // Lock period ended - allow access
-    }
+    private AccessibilityEventFilter eventFilter;
+    private SystemPackageRegistry systemPackages;
+    private RulePackManager rulePacks;
+    private Runnable packagesChangedListener;
+    private SectionBlocker sectionBlocker;
+    private OverlayPrewarmer prewarmer;
+    private DecisionPipeline pipeline;
+    private volatile EventCapture eventCapture;   // set from the module thread, read on main
+
+    // For dump() / AppMonitorModule.getDiagnostics: event time → our callback, and the decision itself
+    private final LongAdder eventCount = new LongAdder();
+    private final LatencyHistogram dispatchLatency = new LatencyHistogram();
+    private final LatencyHistogram decisionLatency = new LatencyHistogram();
+
+    // Power-save mode: while the screen is off (or the keyguard is up) events are
+    // dropped unprocessed; the last foreground app is re-evaluated once when the user is back
+    private ScreenStateMonitor screenState;
+    private long skippedAtScreenOff = 0;
+
+    private final ScreenStateMonitor.Listener screenListener = new ScreenStateMonitor.Listener() {
+        @Override
+        public void onScreenOff() {
+            skippedAtScreenOff = pipeline.getEventsSkippedWhileOff();
+            recordCapture(EventCapture.SCREEN_OFF, null, null);
+            Log.d(TAG, "🌙 Screen off - decisions parked");
+        }
 
-    @Override
-    public void onAccessibilityEvent(AccessibilityEvent event) {
-        if (event.getEventType() != AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED)
-            return;
+        @Override
+        public void onScreenOn() {
+            // Keyguard may still be up; wait for onUserPresent
+        }
 
-        String packageName = event.getPackageName().toString();
-        Log.d(TAG, "App opened: " + packageName);
+        @Override
+        public void onUserPresent() {
+            Log.i(TAG, "☀️ Decisions resumed, skipped " + (pipeline.getEventsSkippedWhileOff() - skippedAtScreenOff)
+                    + " events while screen off");
+            String foreground = readActiveWindowPackage();
+            recordCapture(EventCapture.USER_PRESENT, foreground, null);
+            long now = System.currentTimeMillis();
+            pipeline.onUserPresent(foreground, now);
+            if (prewarmer != null) {
+                prewarmer.onUserPresent(foreground, foreground != null && eventFilter.isMonitored(foreground), now);
+            }
+        }
+    };
 
-        // Skip system apps
-        if (isSystemApp(packageName)) {
-            return;
+    // The Android side of the decisions: session, registry, overlay and section blocker
+    private final DecisionPipeline.Host pipelineHost = new DecisionPipeline.Host() {
+        @Override
+        public boolean isUserPresent() {
+            return screenState == null || screenState.isUserPresent();
         }
 
-        // Check app state based on active session rules
-        AppState appState = checkAppState(packageName);
+        // Launchers, keyboards and system apps skip the session lookup entirely - unless the
+        // user put one in the session (preinstalled apps like YouTube carry FLAG_SYSTEM too)
+        @Override
+        public boolean isSystemPackage(String packageName) {
+            return systemPackages != null && systemPackages.isSystemPackage(packageName)
+                    && (eventFilter == null || !eventFilter.isMonitored(packageName));
+        }
 
-        if (appState != AppState.NOT_IN_SESSION && appState != AppState.WITHIN_ACCESS_TIME && appState != AppState.LOCK_EXPIRED) {
-            Log.d(TAG, "App needs intervention: " + packageName + " - State: " + appState);
-            handleAppIntervention(packageName, appState);
+        @Override
+        public boolean readDeadlines(String packageName, long[] out) {
+            return readSessionDeadlines(packageName, out);
         }
-    }
 
-    private boolean isSystemApp(String packageName) {
-        return packageName.equals("com.google.android.launcher") ||
-                packageName.equals("com.android.launcher3") ||
-                packageName.equals("com.android.systemui") ||
-                packageName.equals("com.google.android.gms") ||
-                packageName.equals("android") ||
-                packageName.equals("com.mi.android.globallauncher") ||
-                packageName.equals("com.android.settings") ||
-                packageName.equals("com.miui.securitycenter") ||
-                packageName.equals(getPackageName());
-    }
+        @Override
+        public void onLockExpired(String packageName) {
+            resetAppTiming(packageName);
+        }
 
-    // ✅ Smart rules-based app state checking
-    private AppState checkAppState(String packageName) {
-        try {
-            String rulesJson = AppMonitorModule.getActiveSession();
-            Log.d(TAG, "📋 Checking rules for " + packageName + ": " + rulesJson);
+        @Override
+        public void intervene(String packageName, DecisionPipeline.AppState state) {
+            if (DEBUG_DECISIONS) Log.d(TAG, "App needs intervention: " + packageName + " - State: " + state);
+            handleAppIntervention(packageName, state);
+        }
 
-            if (rulesJson == null || rulesJson.isEmpty() || rulesJson.equals("{}")) {
-                Log.d(TAG, "📋 No active session rules found");
-                return AppState.NOT_IN_SESSION;
+        @Override
+        public void requestSectionScan(String packageName) {
+            if (sectionBlocker != null) {
+                sectionBlocker.onWindowChanged(packageName);
             }
+        }
+    };
 
-            JSONObject activeSession = new JSONObject(rulesJson);
-
-            if (!activeSession.has(packageName)) {
-                Log.d(TAG, "📋 App not in active session: " + packageName);
-                return AppState.NOT_IN_SESSION;
+    @Override
+    public void onAccessibilityEvent(AccessibilityEvent event) {
+        int eventType = event.getEventType();
+        if (eventType != AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED
+                && eventType != AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED) {
+            return;
+        }
+        CharSequence eventPackage = event.getPackageName();
+        if (eventPackage == null || pipeline == null) {
+            return;
+        }
+        boolean traced = PerfTrace.begin(PerfTrace.ACCESSIBILITY_EVENT);
+        try {
+            String packageName = eventPackage.toString();
+            eventCount.increment();
+            dispatchLatency.record((SystemClock.uptimeMillis() - event.getEventTime()) * 1000);
+            recordCapture(eventType, packageName, event.getClassName());
+
+            // Only subscribed while a monitored app blocks a section (see AccessibilityEventFilter)
+            if (eventType == AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED) {
+                pipeline.onWindowContentChanged(packageName);
+                return;
             }
 
-            appData = activeSession.getJSONObject(packageName);
-            appName = appData.optString("appName", "");
-            // Check if app is active
-            if (!appData.optBoolean("isActive", false)) {
-                Log.d(TAG, "📋 App is not active in session: " + packageName);
-                return AppState.NOT_IN_SESSION;
+            StartupTrace.mark(StartupTrace.FIRST_EVENT);
+            if (DEBUG_DECISIONS) Log.d(TAG, "App opened: " + packageName);
+            boolean tracedEvaluate = PerfTrace.begin(PerfTrace.EVALUATE);
+            long start = System.nanoTime();
+            long now = System.currentTimeMillis();
+            pipeline.onWindowStateChanged(packageName, now);
+            decisionLatency.record((System.nanoTime() - start) / 1000);
+            PerfTrace.end(tracedEvaluate);
+            // After the decision, so a show for this app settles any pre-warm first
+            if (screenState.isUserPresent()) {
+                prewarmer.onWindowStateChanged(packageName, eventFilter.isMonitored(packageName), now);
             }
+        } finally {
+            PerfTrace.end(traced);
+        }
+    }
 
-            // Check if access time has been set
-            String accessStartTime = appData.optString("accessStartTime", "");
+    private void recordCapture(int eventType, String packageName, CharSequence className) {
+        EventCapture capture = eventCapture;
+        if (capture != null) {
+            capture.record(eventType, packageName, className,
+                    packageName != null && pipelineHost.isSystemPackage(packageName));
+        }
+    }
 
-            if (accessStartTime.isEmpty() || accessStartTime.equals("null")) {
-                Log.d(TAG, "🎯 App needs access setup: " + packageName);
-                return AppState.NEEDS_ACCESS_SETUP;
-            }
+    // The package of the window actually in front, or null. The event filter hides switches to
+    // unwatched apps, so after screen-off the last event may name an app the user already left.
+    // The overlay is never the active window (FLAG_NOT_FOCUSABLE), so this is the app under it.
+    private String readActiveWindowPackage() {
+        AccessibilityNodeInfo root = getRootInActiveWindow();
+        if (root == null) {
+            return null;
+        }
+        CharSequence packageName = root.getPackageName();
+        root.recycle();
+        return packageName != null ? packageName.toString() : null;
+    }
 
-            // Parse timing data
-            String accessEndTime = appData.optString("accessEndTime", "");
-            String lockUpToTime = appData.optString("lockUpToTime", "");
-
-            long currentTime = System.currentTimeMillis();
-
-            try {
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-                sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-
-                long accessStartMillis = sdf.parse(accessStartTime).getTime();
-                long accessEndMillis = !accessEndTime.isEmpty() ? sdf.parse(accessEndTime).getTime() : 0;
-                long lockUpToMillis = !lockUpToTime.isEmpty() ? sdf.parse(lockUpToTime).getTime() : 0;
-
-                Log.d(TAG, "⏰ Time check for " + packageName + ":");
-                Log.d(TAG, "   Current: " + new Date(currentTime));
-                Log.d(TAG, "   Access Start: " + new Date(accessStartMillis));
-                Log.d(TAG, "   Access End: " + new Date(accessEndMillis));
-                Log.d(TAG, "   Lock Until: " + new Date(lockUpToMillis));
-
-                if (currentTime >= accessStartMillis && currentTime <= accessEndMillis) {
-                    Log.d(TAG, "✅ Within access time: " + packageName);
-                    return AppState.WITHIN_ACCESS_TIME;
-                } else if (currentTime > accessEndMillis && currentTime <= lockUpToMillis) {
-                    Log.d(TAG, "🔒 In lock period: " + packageName);
-                    return AppState.IN_LOCK_PERIOD;
-                } else if (currentTime > lockUpToMillis) {
-                    Log.d(TAG, "🔓 Lock expired: " + packageName);
-                    // 1) Reset the timing fields on the JSON
-                    try {
-                        // clear the old times
-                        appData.put("accessTime", 0);
-                        appData.put("lockTime", 0);
-                        appData.put("accessStartTime", "");
-                        appData.put("accessEndTime", "");
-                        appData.put("lockUpToTime",  "");
-                    } catch (JSONException je) {
-                        Log.e(TAG, "❌ Error clearing appData times", je);
-                    }
-                    // 2) Write that back into your session store
-                    //    Make sure to convert to String—your bridge method takes a String
-                    AppMonitorModule.updateActiveSessionForApp(
-                            packageName,
-                            appData.toString()
-                    );
-                    return AppState.LOCK_EXPIRED;
-                } else {
-                    Log.d(TAG, "⏰ Before access time: " + packageName);
-                    return AppState.NEEDS_ACCESS_SETUP;
-                }
-
-            } catch (Exception e) {
-                Log.e(TAG, "❌ Error parsing time for " + packageName + ": " + e.getMessage());
-                return AppState.NEEDS_ACCESS_SETUP;
-            }
+    // ✅ Session timing for the decision from SessionClock's per-version deadline cache:
+    // no JSON walk, date parsing or Date objects per event once the session is warm.
+    // Nothing else on the per-event path: scripts/AllocationBudget.java holds it to its budget
+    private boolean readSessionDeadlines(String packageName, long[] out) {
+        if (!SessionClock.readDeadlines(packageName, out)) {
+            if (DEBUG_DECISIONS) Log.d(TAG, "📋 App not active in session: " + packageName);
+            return false;
+        }
+        if (DEBUG_DECISIONS) {
+            Log.d(TAG, "⏰ Time check for " + packageName + ": start " + out[0]
+                    + ", end " + out[1] + ", lock until " + out[2]);
+        }
+        return true;
+    }
 
-        } catch (JSONException e) {
-            Log.e(TAG, "❌ Error parsing active session JSON: " + e.getMessage());
-            return AppState.NOT_IN_SESSION;
+    // ✅ Lock period over: clear the timing so the next open starts at the access screen
+    private void resetAppTiming(String packageName) {
+        Log.d(TAG, "🔓 Lock expired: " + packageName);
+        JSONObject appData = SessionStore.getAppData(packageName);
+        if (appData == null) {
+            return;
+        }
+        // 1) Reset the timing fields on a copy - appData belongs to the shared session tree
+        JSONObject resetAppData = appData;
+        try {
+            resetAppData = new JSONObject(appData.toString());
+            // clear the old times
+            resetAppData.put("accessTime", 0);
+            resetAppData.put("lockTime", 0);
+            resetAppData.put("accessStartTime", "");
+            resetAppData.put("accessEndTime", "");
+            resetAppData.put("lockUpToTime",  "");
+        } catch (JSONException je) {
+            Log.e(TAG, "❌ Error clearing appData times", je);
         }
+        // 2) Write that back into your session store
+        //    Make sure to convert to String—your bridge method takes a String
+        SessionStore.updateApp(
+                packageName,
+                resetAppData.toString()
+        );
     }
 
     // ✅ Handle app intervention based on state
-    private void handleAppIntervention(String packageName, AppState appState) {
+    private void handleAppIntervention(String packageName, DecisionPipeline.AppState appState) {
         try {
-            long currentTime = System.currentTimeMillis();
-
-            // Prevent rapid duplicate calls
-//            if (isOverlayActive ||
-//                    (packageName.equals(lastBlockedPackage) && currentTime - lastBlockTime < 2000)) {
-//                Log.d(TAG, "⏭️ Ignoring duplicate intervention request");
-//                return;
-//            }
-
-            Log.d(TAG, "🎯 isOverlayActive: " + isOverlayActive +" lastBlockedPackage: "+lastBlockedPackage+" currentTime: "+currentTime+" lastBlockTime: "+lastBlockTime);
-            lastBlockTime = currentTime;
-            lastBlockedPackage = packageName;
+            if (DEBUG_DECISIONS) Log.d(TAG, "🎯 overlayState: " + OverlayController.getInstance(this).getState());
 
-            isOverlayActive = true;
+            StartupTrace.mark(StartupTrace.FIRST_DECISION);
+            JSONObject appData = SessionStore.getAppData(packageName);
+            String appName = appData != null ? appData.optString("appName", "") : packageName;
 
+            // ✅ Typed in-process message carrying only the package name; the overlay side
+            // looks the app data up in SessionStore, and an overlay that is up updates in place
+            OverlayChannel overlayChannel = OverlayChannel.getInstance(this);
             switch (appState) {
                 case NEEDS_ACCESS_SETUP:
-                 Log.d(TAG, "🎯 Showing Access Screen for: " + appName);
-                Intent accessIntent = new Intent(this, OverlayAccessService.class);
-                accessIntent.putExtra("appData", appData.toString());
-                accessIntent.putExtra("appState", "showAccessScreen");
-                startService(accessIntent);
-                break;
+                    Log.d(TAG, "🎯 Showing Access Screen for: " + appName);
+                    overlayChannel.sendShow(OverlayContent.Screen.ACCESS, packageName);
+                    break;
 
                 case IN_LOCK_PERIOD:
                     Log.d(TAG, "🔒 Showing Lock Screen for: " + appName);
-
-                    Intent lockIntent = new Intent(this, OverlayAccessService.class);
-                    lockIntent.putExtra("appData", appData.toString());
-                    lockIntent.putExtra("appState", "showLockScreen");
-                    startService(lockIntent);
+                    overlayChannel.sendShow(OverlayContent.Screen.LOCK, packageName);
                     break;
 
                 default:
                     Log.w(TAG, "⚠️ Unexpected app state: " + appState);
-                    isOverlayActive = false;
                     break;
             }
 
-            Log.d(TAG, "✅ Intervention handled for: " + appName + " - State: " + appState);
+            if (DEBUG_DECISIONS) Log.d(TAG, "✅ Intervention handled for: " + appName + " - State: " + appState);
 
         } catch (Exception e) {
-            isOverlayActive = false;
             Log.e(TAG, "❌ Error handling app intervention: " + e.getMessage());
         }
     }
 
-    // Legacy method - now used for fallback only
-    private boolean isAppLocked(String packageName) {
-        AppState state = checkAppState(packageName);
-        return state == AppState.NEEDS_ACCESS_SETUP || state == AppState.IN_LOCK_PERIOD;
-    }
-
     @Override
     public void onInterrupt() {
         Log.d(TAG, "Accessibility service interrupted");
@@ -228,6 +255,27 @@ public class AppMonitorService extends AccessibilityService {
     protected void onServiceConnected() {
         super.onServiceConnected();
         instance = this;
+        PerfTrace.init(this);
+        // Enforce from the persisted session even when JS never started in this process
+        SessionStore.init(this);
+        pipeline = new DecisionPipeline(pipelineHost);
+        screenState = ScreenStateMonitor.getInstance(this);
+        screenState.addListener(screenListener);
+
+        // Only the monitored apps and launchers wake us from now on
+        eventFilter = new AccessibilityEventFilter(this);
+        eventFilter.start();
+        systemPackages = SystemPackageRegistry.getInstance(this);
+        systemPackages.start();
+
+        // Section rules are resolved per installed app version; re-resolve after app updates
+        rulePacks = RulePackManager.getInstance(this);
+        packagesChangedListener = rulePacks::invalidateVersions;
+        systemPackages.addOnPackagesChangedListener(packagesChangedListener);
+        sectionBlocker = new SectionBlocker(this, eventFilter);
+        prewarmer = OverlayPrewarmer.getInstance(this);
+        prewarmer.start();
+        StartupTrace.mark(StartupTrace.SERVICE_CONNECTED);
         Log.d(TAG, "Accessibility service connected");
     }
 
@@ -235,17 +283,90 @@ public class AppMonitorService extends AccessibilityService {
         return instance;
     }
 
-    public static void resetOverlayFlag() {
-        isOverlayActive = false;
-        Log.d(TAG, "🔄 Overlay flag reset");
+    // ---- Diagnostics (read from binder and module threads) ----
+
+    DecisionPipeline getPipeline() {
+        return pipeline;
     }
 
-    private void notifyReactNative(String packageName, String appName) {
-        try {
-            Log.d(TAG, "📤 Notifying React Native to navigate to lock screen for: " + appName);
-            AppMonitorModule.sendEventFromService(appName, packageName);
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error notifying React Native: " + e.getMessage());
+    SectionBlocker getSectionBlocker() {
+        return sectionBlocker;
+    }
+
+    long getEventCount() {
+        return eventCount.sum();
+    }
+
+    LatencyHistogram getDispatchLatency() {
+        return dispatchLatency;
+    }
+
+    LatencyHistogram getDecisionLatency() {
+        return decisionLatency;
+    }
+
+    // adb shell dumpsys activity service com.saveyourchild/.AppMonitorService [section...]
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter writer, String[] args) {
+        Diagnostics.dump(this, writer, args);
+    }
+
+    public long getEventsSkippedWhileOff() {
+        return pipeline.getEventsSkippedWhileOff();
+    }
+
+    public long getScreenOnReevaluations() {
+        return pipeline.getScreenOnReevaluations();
+    }
+
+    /** Events answered by SystemPackageRegistry without touching the session. */
+    public long getSystemShortCircuitCount() {
+        return pipeline.getSystemShortCircuitCount();
+    }
+
+    /**
+     * Starts recording the event stream for EventReplay (see EventCapture) and returns
+     * the capture file path. Replaces a capture already running.
+     */
+    public String startEventCapture() throws IOException {
+        stopEventCapture();
+        eventCapture = EventCapture.start(this);
+        return eventCapture.getFile().getAbsolutePath();
+    }
+
+    /** Stops recording; returns the capture file path, or null when none was running. */
+    public String stopEventCapture() {
+        EventCapture capture = eventCapture;
+        if (capture == null) {
+            return null;
+        }
+        eventCapture = null;
+        capture.stop();
+        return capture.getFile().getAbsolutePath();
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        instance = null;
+        if (screenState != null) {
+            screenState.removeListener(screenListener);
+        }
+        if (eventFilter != null) {
+            eventFilter.stop();
+        }
+        if (systemPackages != null) {
+            systemPackages.removeOnPackagesChangedListener(packagesChangedListener);
+            systemPackages.stop();
+        }
+        if (sectionBlocker != null) {
+            sectionBlocker.stop();
+        }
+        if (prewarmer != null) {
+            prewarmer.stop();
         }
+        stopEventCapture();
+        OverlayController.getInstance(this).release();
+        Log.d(TAG, "Accessibility service destroyed");
     }
 }
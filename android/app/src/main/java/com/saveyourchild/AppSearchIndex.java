@@ -0,0 +1,338 @@
+// android/app/src/main/java/com/saveyourchild/AppSearchIndex.java
+package com.saveyourchild;
+
+import android.util.Log;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prefix and trigram index over the installed-app catalog.
+ *
+ * Labels and package names are lower-cased and diacritic-folded ("Café" → "cafe")
+ * and split into tokens. Every trie node keeps the apps that have a token with
+ * that prefix together with the best rank for it; a posting list per label
+ * trigram finds the apps a term of three or more letters occurs inside. A query
+ * takes its candidates from those two for the first term and narrows them with
+ * each further term, so it never walks the whole catalog. Shorter terms match
+ * prefixes only.
+ *
+ * The index never changes once built; build a new one to refresh. search() reuses
+ * per-index scratch arrays, so it is synchronized.
+ */
+public final class AppSearchIndex {
+
+    private static final String TAG = "AppSearchIndex";
+
+    // Lower is better
+    private static final int RANK_LABEL_PREFIX = 0;    // "ins" → "Instagram"
+    private static final int RANK_WORD_PREFIX = 1;     // "pay" → "Google Pay"
+    private static final int RANK_PACKAGE_TOKEN = 2;   // "katana" → com.facebook.katana
+    private static final int RANK_SUBSTRING = 3;       // "gram" → "Instagram" (trigrams)
+
+    private static final int GRAM = 3;
+
+    private final String[] packageNames;   // sorted by label, so id order is alphabetical
+    private final String[] normalizedLabels;
+    private final Node root = new Node();
+    private final long[] gramKeys;         // sorted label trigrams
+    private final int[][] gramIds;         // ascending app ids per trigram
+
+    // Scratch for search(), sized to the catalog; guarded by this
+    private final int[] termRank;          // -1 except while a term's trie hits are marked
+    private final int[] candidates;
+    private final int[] candidateScores;
+    private final int[] infix;
+    private final long[] sortKeys;
+
+    private static final class Node {
+        final HashMap<Character, Node> children = new HashMap<>();
+        int[] ids = new int[2];
+        byte[] ranks = new byte[2];
+        int size = 0;
+
+        void add(int id, int rank) {
+            // Tokens of one app are inserted back to back, so a repeat is always the last entry
+            if (size > 0 && ids[size - 1] == id) {
+                if (rank < ranks[size - 1]) ranks[size - 1] = (byte) rank;
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                ranks = Arrays.copyOf(ranks, size * 2);
+            }
+            ids[size] = id;
+            ranks[size] = (byte) rank;
+            size++;
+        }
+    }
+
+    private AppSearchIndex(List<String[]> apps) {
+        int count = apps.size();
+        packageNames = new String[count];
+        normalizedLabels = new String[count];
+        HashMap<Long, int[]> grams = new HashMap<>();   // trigram → {size, ids...}
+
+        for (int id = 0; id < count; id++) {
+            String packageName = apps.get(id)[0];
+            String label = normalize(apps.get(id)[1]);
+            packageNames[id] = packageName;
+            normalizedLabels[id] = label;
+
+            insert(label, id, RANK_LABEL_PREFIX);
+            for (String word : tokenize(label)) {
+                insert(word, id, RANK_WORD_PREFIX);
+            }
+            for (String token : tokenize(normalize(packageName))) {
+                insert(token, id, RANK_PACKAGE_TOKEN);
+            }
+            for (int i = 0; i + GRAM <= label.length(); i++) {
+                Long key = gram(label, i);
+                int[] list = grams.get(key);
+                if (list == null) {
+                    list = new int[4];
+                } else if (list[list[0]] == id) {
+                    continue;   // trigram repeats within this label
+                } else if (list[0] + 1 == list.length) {
+                    list = Arrays.copyOf(list, list.length * 2);
+                }
+                list[++list[0]] = id;
+                grams.put(key, list);
+            }
+        }
+
+        gramKeys = new long[grams.size()];
+        int k = 0;
+        for (Long key : grams.keySet()) {
+            gramKeys[k++] = key;
+        }
+        Arrays.sort(gramKeys);
+        gramIds = new int[gramKeys.length][];
+        for (int i = 0; i < gramKeys.length; i++) {
+            int[] list = grams.get(gramKeys[i]);
+            gramIds[i] = Arrays.copyOfRange(list, 1, list[0] + 1);
+        }
+
+        termRank = new int[count];
+        Arrays.fill(termRank, -1);
+        candidates = new int[count];
+        candidateScores = new int[count];
+        infix = new int[count];
+        sortKeys = new long[count];
+    }
+
+    /**
+     * Indexes a catalog of {packageName, label} pairs, e.g. the one getInstalledApps
+     * just loaded. The list is sorted by label in place.
+     */
+    public static AppSearchIndex build(List<String[]> apps) {
+        long start = System.nanoTime();
+        apps.sort((a, b) -> a[1].compareToIgnoreCase(b[1]));
+        AppSearchIndex index = new AppSearchIndex(apps);
+        Log.d(TAG, "✅ Indexed " + apps.size() + " apps in " + (System.nanoTime() - start) / 1000 + "µs");
+        return index;
+    }
+
+    public int size() {
+        return packageNames.length;
+    }
+
+    /**
+     * Package names matching every term of the query, best first. An empty query
+     * returns all apps alphabetically. Returns at most limit results (limit <= 0 = all).
+     */
+    public synchronized List<String> search(String query, int limit) {
+        String[] terms = tokenize(normalize(query == null ? "" : query));
+        int count = packageNames.length;
+        int max = limit > 0 ? limit : count;
+        List<String> results = new ArrayList<>(Math.min(max, count));
+
+        if (terms.length == 0) {
+            for (int id = 0; id < count && results.size() < max; id++) {
+                results.add(packageNames[id]);
+            }
+            return results;
+        }
+
+        // Summed rank per candidate; every further term drops the candidates it doesn't match
+        int size = firstTermCandidates(terms[0]);
+        for (int t = 1; t < terms.length && size > 0; t++) {
+            String term = terms[t];
+            Node node = find(term);
+            mark(node);
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int id = candidates[i];
+                int rank = termRank[id];
+                if (rank < 0 && term.length() >= GRAM && normalizedLabels[id].contains(term)) {
+                    rank = RANK_SUBSTRING;
+                }
+                if (rank >= 0) {
+                    candidates[kept] = id;
+                    candidateScores[kept] = candidateScores[i] + rank;
+                    kept++;
+                }
+            }
+            unmark(node);
+            size = kept;
+        }
+
+        // Sort hits by (score, id); id order is already alphabetical
+        for (int i = 0; i < size; i++) {
+            sortKeys[i] = (long) candidateScores[i] * count + candidates[i];
+        }
+        Arrays.sort(sortKeys, 0, size);
+
+        for (int i = 0; i < size && results.size() < max; i++) {
+            results.add(packageNames[(int) (sortKeys[i] % count)]);
+        }
+        return results;
+    }
+
+    // Trie hits for the term, then the labels it occurs inside; returns the candidate count
+    private int firstTermCandidates(String term) {
+        Node node = find(term);
+        int size = 0;
+        if (node != null) {
+            for (int i = 0; i < node.size; i++) {
+                candidates[size] = node.ids[i];
+                candidateScores[size] = node.ranks[i];
+                size++;
+            }
+        }
+        if (term.length() < GRAM) {
+            return size;
+        }
+        mark(node);
+        int infixCount = infixMatches(term);
+        for (int i = 0; i < infixCount; i++) {
+            int id = infix[i];
+            if (termRank[id] < 0) {
+                candidates[size] = id;
+                candidateScores[size] = RANK_SUBSTRING;
+                size++;
+            }
+        }
+        unmark(node);
+        return size;
+    }
+
+    // Apps whose label contains term: intersects the posting lists of its trigrams, rarest
+    // first, then checks the survivors (the trigrams may occur apart). Fills infix.
+    private int infixMatches(String term) {
+        int rarest = -1;
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            int slot = Arrays.binarySearch(gramKeys, gram(term, i));
+            if (slot < 0) {
+                return 0;
+            }
+            if (rarest < 0 || gramIds[slot].length < gramIds[rarest].length) {
+                rarest = slot;
+            }
+        }
+        int size = gramIds[rarest].length;
+        System.arraycopy(gramIds[rarest], 0, infix, 0, size);
+        for (int i = 0; i + GRAM <= term.length() && size > 0; i++) {
+            int slot = Arrays.binarySearch(gramKeys, gram(term, i));
+            if (slot != rarest) {
+                size = intersect(gramIds[slot], size);
+            }
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (normalizedLabels[infix[i]].contains(term)) {
+                infix[kept++] = infix[i];
+            }
+        }
+        return kept;
+    }
+
+    // infix[0..size) ∩ ids, both ascending, written back into infix
+    private int intersect(int[] ids, int size) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < ids.length; i++) {
+            while (j < ids.length && ids[j] < infix[i]) {
+                j++;
+            }
+            if (j < ids.length && ids[j] == infix[i]) {
+                infix[kept++] = infix[i];
+            }
+        }
+        return kept;
+    }
+
+    private void mark(Node node) {
+        if (node != null) {
+            for (int i = 0; i < node.size; i++) {
+                termRank[node.ids[i]] = node.ranks[i];
+            }
+        }
+    }
+
+    private void unmark(Node node) {
+        if (node != null) {
+            for (int i = 0; i < node.size; i++) {
+                termRank[node.ids[i]] = -1;
+            }
+        }
+    }
+
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private void insert(String token, int id, int rank) {
+        Node node = root;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            Node child = node.children.get(c);
+            if (child == null) {
+                child = new Node();
+                node.children.put(c, child);
+            }
+            child.add(id, rank);
+            node = child;
+        }
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /** Lower-cases and strips combining marks: "Café Ñandú" → "cafe nandu". */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static String[] tokenize(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean isTokenChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (isTokenChar && start < 0) {
+                start = i;
+            } else if (!isTokenChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
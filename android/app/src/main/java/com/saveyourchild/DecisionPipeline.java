@@ -0,0 +1,183 @@
+// android/app/src/main/java/com/saveyourchild/DecisionPipeline.java
+package com.saveyourchild;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The decision half of AppMonitorService: which foreground app needs which
+ * intervention, with the screen-off skipping, system-package short circuit and
+ * section-scan routing in front of it.
+ *
+ * Everything Android-specific (session lookup, registry, overlay) sits behind Host,
+ * so the same code runs in the service and in the JVM event replay
+ * (scripts/EventReplay.java). Main thread only; the clock is passed in.
+ */
+public final class DecisionPipeline {
+
+    // App states for decision making
+    public enum AppState {
+        NOT_IN_SESSION,     // App not in active session
+        NEEDS_ACCESS_SETUP, // accessStartTime is null/empty - show Access Screen
+        WITHIN_ACCESS_TIME, // Currently within allowed access time - allow access
+        IN_LOCK_PERIOD,     // Access time ended, in lock period - show Lock Screen
+        LOCK_EXPIRED        // Lock period ended - allow access
+    }
+
+    public interface Host {
+        /** False while the screen is off or the keyguard is up. */
+        boolean isUserPresent();
+
+        /** Launchers, keyboards and system apps the user did not put in the session. */
+        boolean isSystemPackage(String packageName);
+
+        /**
+         * Fills out with {accessStart, accessEnd, lockUpTo} epoch millis, 0 when unset
+         * or unparseable. Returns false when the app is not active in the session.
+         */
+        boolean readDeadlines(String packageName, long[] out);
+
+        /** The lock period is over; clear the app's timing in the session. */
+        void onLockExpired(String packageName);
+
+        /** Show the access or lock screen (state is NEEDS_ACCESS_SETUP or IN_LOCK_PERIOD). */
+        void intervene(String packageName, AppState state);
+
+        /** The allowed foreground app changed content; check it for blocked sections. */
+        void requestSectionScan(String packageName);
+    }
+
+    private final Host host;
+    private final long[] deadlines = new long[3];   // reused, main thread only
+
+    private String lastForegroundPackage;
+    private boolean lastForegroundAllowed = false;
+
+    private final AtomicLong decisionCount = new AtomicLong();
+    private final AtomicLong interventionCount = new AtomicLong();
+    private final AtomicLong systemShortCircuitCount = new AtomicLong();
+    private final AtomicLong eventsSkippedWhileOff = new AtomicLong();
+    private final AtomicLong screenOnReevaluations = new AtomicLong();
+
+    public DecisionPipeline(Host host) {
+        this.host = host;
+    }
+
+    /** TYPE_WINDOW_STATE_CHANGED from packageName. */
+    public void onWindowStateChanged(String packageName, long nowMillis) {
+        // While off the keyguard owns the foreground; remember the app the user was in
+        if (!host.isUserPresent()) {
+            eventsSkippedWhileOff.incrementAndGet();
+            return;
+        }
+        lastForegroundPackage = packageName;
+        evaluate(packageName, nowMillis);
+    }
+
+    /** TYPE_WINDOW_CONTENT_CHANGED; only subscribed while a monitored app blocks a section. */
+    public void onWindowContentChanged(String packageName) {
+        if (!host.isUserPresent()) {
+            return;
+        }
+        // Locked or gated apps are covered by the overlay already
+        if (packageName.equals(lastForegroundPackage) && lastForegroundAllowed) {
+            host.requestSectionScan(packageName);
+        }
+    }
+
+    /**
+     * Back from screen-off: decide once for the app the user returns to.
+     * foregroundPackage is the package of the active window as read on unlock, null
+     * when it couldn't be read. The last event isn't good enough: events only come
+     * from watched packages, so a switch to any other app (Recents, a notification)
+     * leaves lastForegroundPackage on the app that was left.
+     */
+    public void onUserPresent(String foregroundPackage, long nowMillis) {
+        if (foregroundPackage == null) {
+            // Unknown front app: the next event decides rather than a stale one
+            lastForegroundPackage = null;
+            lastForegroundAllowed = false;
+            return;
+        }
+        lastForegroundPackage = foregroundPackage;
+        screenOnReevaluations.incrementAndGet();
+        evaluate(foregroundPackage, nowMillis);
+    }
+
+    public AppState evaluate(String packageName, long nowMillis) {
+        lastForegroundAllowed = false;
+
+        // Skip system apps
+        if (host.isSystemPackage(packageName)) {
+            systemShortCircuitCount.incrementAndGet();
+            return null;
+        }
+
+        decisionCount.incrementAndGet();
+        AppState appState = host.readDeadlines(packageName, deadlines)
+                ? decide(deadlines, nowMillis)
+                : AppState.NOT_IN_SESSION;
+
+        switch (appState) {
+            case WITHIN_ACCESS_TIME:
+                lastForegroundAllowed = true;
+                // The app may open straight into its blocked section
+                host.requestSectionScan(packageName);
+                break;
+            case LOCK_EXPIRED:
+                host.onLockExpired(packageName);
+                break;
+            case NEEDS_ACCESS_SETUP:
+            case IN_LOCK_PERIOD:
+                interventionCount.incrementAndGet();
+                host.intervene(packageName, appState);
+                break;
+            default:
+                break;
+        }
+        return appState;
+    }
+
+    /** The session rules on {accessStart, accessEnd, lockUpTo} at nowMillis. */
+    public static AppState decide(long[] deadlines, long nowMillis) {
+        long accessStart = deadlines[0];
+        long accessEnd = deadlines[1];
+        long lockUpTo = deadlines[2];
+
+        if (accessStart <= 0) {
+            return AppState.NEEDS_ACCESS_SETUP;
+        }
+        if (nowMillis >= accessStart && nowMillis <= accessEnd) {
+            return AppState.WITHIN_ACCESS_TIME;
+        } else if (nowMillis > accessEnd && nowMillis <= lockUpTo) {
+            return AppState.IN_LOCK_PERIOD;
+        } else if (nowMillis > lockUpTo) {
+            return AppState.LOCK_EXPIRED;
+        }
+        // Before access time
+        return AppState.NEEDS_ACCESS_SETUP;
+    }
+
+    public String getLastForegroundPackage() {
+        return lastForegroundPackage;
+    }
+
+    public long getDecisionCount() {
+        return decisionCount.get();
+    }
+
+    public long getInterventionCount() {
+        return interventionCount.get();
+    }
+
+    public long getSystemShortCircuitCount() {
+        return systemShortCircuitCount.get();
+    }
+
+    public long getEventsSkippedWhileOff() {
+        return eventsSkippedWhileOff.get();
+    }
+
+    public long getScreenOnReevaluations() {
+        return screenOnReevaluations.get();
+    }
+}
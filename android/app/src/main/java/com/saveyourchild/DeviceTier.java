@@ -0,0 +1,108 @@
+// android/app/src/main/java/com/saveyourchild/DeviceTier.java
+package com.saveyourchild;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.content.pm.ConfigurationInfo;
+import android.hardware.display.DisplayManager;
+import android.util.Log;
+import android.view.Display;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rough rendering class of the device, used to pick the overlay pages' animation
+ * variant. Measured once per process from the RAM class, the OpenGL ES version
+ * the GPU supports and the display refresh rate; none of these change while the
+ * app runs.
+ *
+ *   LOW  - low-RAM device, under 3 GB, GLES below 3.0 or fewer than 4 cores:
+ *          the pages drop paint-heavy animations and backdrop blur
+ *   HIGH - 6 GB or more, GLES 3.1+ and a 90 Hz or faster display
+ *   MID  - everything else, full animations
+ *
+ * setOverride() forces a tier (null clears it) so the variants can be compared on
+ * one device.
+ */
+public final class DeviceTier {
+
+    private static final String TAG = "DeviceTier";
+
+    public enum Tier { LOW, MID, HIGH }
+
+    private static final long GB = 1024L * 1024 * 1024;
+    private static final int GLES_3_0 = 0x30000;
+    private static final int GLES_3_1 = 0x30001;
+
+    private static DeviceTier instance;
+
+    private final Tier measured;
+    private final float refreshRate;
+    private final Map<String, Long> signals = new LinkedHashMap<>();
+    private volatile Tier override;
+
+    private DeviceTier(Context context) {
+        ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        am.getMemoryInfo(memoryInfo);
+        ConfigurationInfo config = am.getDeviceConfigurationInfo();
+        int glEsVersion = config != null ? config.reqGlEsVersion : 0;
+        boolean lowRam = am.isLowRamDevice();
+        int cores = Runtime.getRuntime().availableProcessors();
+        refreshRate = readRefreshRate(context);
+
+        signals.put("totalMemMb", memoryInfo.totalMem / (1024 * 1024));
+        signals.put("memoryClassMb", (long) am.getMemoryClass());
+        signals.put("lowRamDevice", lowRam ? 1L : 0L);
+        signals.put("glEsVersion", (long) glEsVersion);
+        signals.put("cores", (long) cores);
+        signals.put("refreshRateHz", (long) Math.round(refreshRate));
+
+        if (lowRam || memoryInfo.totalMem < 3 * GB || glEsVersion < GLES_3_0 || cores < 4) {
+            measured = Tier.LOW;
+        } else if (memoryInfo.totalMem >= 6 * GB && glEsVersion >= GLES_3_1 && refreshRate >= 89f) {
+            measured = Tier.HIGH;
+        } else {
+            measured = Tier.MID;
+        }
+        Log.i(TAG, "📱 Device tier " + measured + " " + signals);
+    }
+
+    public static synchronized DeviceTier getInstance(Context context) {
+        if (instance == null) {
+            instance = new DeviceTier(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public Tier getTier() {
+        Tier forced = override;
+        return forced != null ? forced : measured;
+    }
+
+    /** Lower-case tier name, as the overlay pages expect it. */
+    public String getTierName() {
+        return getTier().name().toLowerCase(Locale.US);
+    }
+
+    public void setOverride(Tier tier) {
+        override = tier;
+        Log.i(TAG, "📱 Tier override: " + (tier != null ? tier : "none") + ", using " + getTier());
+    }
+
+    public Map<String, Long> getSignals() {
+        Map<String, Long> copy = new LinkedHashMap<>(signals);
+        copy.put("measuredTier", (long) measured.ordinal());
+        copy.put("tier", (long) getTier().ordinal());
+        return copy;
+    }
+
+    /** The default display's current refresh rate; it changes at runtime on variable-rate screens. */
+    static float readRefreshRate(Context context) {
+        DisplayManager dm = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+        Display display = dm != null ? dm.getDisplay(Display.DEFAULT_DISPLAY) : null;
+        return display != null ? display.getRefreshRate() : 60f;
+    }
+}
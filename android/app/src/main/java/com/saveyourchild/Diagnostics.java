@@ -0,0 +1,209 @@
+// android/app/src/main/java/com/saveyourchild/Diagnostics.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.SystemClock;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * One snapshot of everything enforcement keeps count of, for support cases where
+ * logcat is all we would otherwise have. Printed by the services' dump()
+ * (adb shell dumpsys activity service com.saveyourchild/.AppMonitorService) and
+ * returned by AppMonitorModule.getDiagnostics for the in-app debug screen.
+ *
+ * Only reads counters the components already keep; nothing here is on a hot path.
+ * Sections hold Long or String values so both outputs share one shape.
+ */
+public final class Diagnostics {
+
+    static final String SECTION_SESSION = "session";
+    static final String SECTION_SERVICE = "service";
+    static final String SECTION_OVERLAY = "overlay";
+    static final String SECTION_INTERVENTIONS = "interventions";
+    static final String SECTION_PREWARM = "prewarm";
+    static final String SECTION_QUEUES = "queues";
+    static final String SECTION_LATENCY = "latency";
+    static final String SECTION_CACHES = "caches";
+    static final String SECTION_MEMORY = "memory";
+    static final String SECTION_DEVICE = "device";
+
+    static final String[] OVERLAY_SECTIONS = {SECTION_OVERLAY, SECTION_QUEUES, SECTION_LATENCY, SECTION_MEMORY};
+
+    private Diagnostics() {}
+
+    /** Section name → key → Long or String, in print order. */
+    public static Map<String, Map<String, Object>> collect(Context context) {
+        Map<String, Map<String, Object>> sections = new LinkedHashMap<>();
+        AppMonitorService service = AppMonitorService.getInstance();
+        OverlayController overlay = OverlayController.getInstance(context);
+        OverlayChannel channel = OverlayChannel.getInstance(context);
+
+        Map<String, Object> session = new LinkedHashMap<>();
+        RulePack pack = RulePackManager.getInstance(context).getActivePack();
+        session.put("version", SessionStore.getVersion());
+        session.put("apps", (long) SessionStore.getAppCount());
+        session.put("monitoredApps", (long) SessionStore.getMonitoredPackages().size());
+        session.put("rulePackVersion", (long) pack.getVersion());
+        session.put("ruleCount", (long) pack.getRuleCount());
+        sections.put(SECTION_SESSION, session);
+
+        sections.put(SECTION_SERVICE, collectService(context, service));
+
+        Map<String, Object> overlayState = new LinkedHashMap<>();
+        overlayState.put("state", overlay.getState().name());
+        overlayState.putAll(overlay.getMetrics());
+        sections.put(SECTION_OVERLAY, overlayState);
+
+        Map<String, Object> interventions = new LinkedHashMap<>();
+        InterventionLog log = InterventionLog.getInstance(context);
+        interventions.putAll(log.getMetrics());
+        long now = System.currentTimeMillis();
+        long today = InterventionRollups.bucketStart(now, TimeZone.getDefault().getOffset(now), InterventionRollups.DAY_MS);
+        for (long[] day : log.getTotals(false, today, today + 1).values()) {
+            for (int i = 0; i < InterventionRollups.FIELD_COUNT; i++) {
+                interventions.put("today." + InterventionRollups.FIELD_NAMES[i], day[i]);
+            }
+        }
+        sections.put(SECTION_INTERVENTIONS, interventions);
+
+        Map<String, Object> prewarm = new LinkedHashMap<>();
+        OverlayPrewarmer prewarmer = OverlayPrewarmer.getInstance(context);
+        prewarm.putAll(prewarmer.getMetrics());
+        for (Map.Entry<String, Long> entry : prewarmer.getBudget().entrySet()) {
+            prewarm.put("budget." + entry.getKey(), entry.getValue());
+        }
+        sections.put(SECTION_PREWARM, prewarm);
+
+        Map<String, Object> queues = new LinkedHashMap<>();
+        queues.put("overlayChannelPending", channel.getPendingCount());
+        queues.put("overlayChannelSent", channel.getSentCount());
+        queues.put("overlayChannelDelivered", channel.getDeliveredCount());
+        queues.put("overlayChannelMissingPayload", channel.getMissingPayloadCount());
+        Map<String, Long> eventBus = NativeEventBus.getCurrentMetrics();
+        if (eventBus != null) {
+            queues.putAll(eventBus);
+        }
+        sections.put(SECTION_QUEUES, queues);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        if (service != null) {
+            service.getDispatchLatency().putMetrics("eventDispatch", latency);
+            service.getDecisionLatency().putMetrics("decision", latency);
+            SectionBlocker blocker = service.getSectionBlocker();
+            if (blocker != null) {
+                blocker.getScanLatency().putMetrics("sectionScan", latency);
+            }
+        }
+        channel.getDeliveryLatency().putMetrics("overlayDelivery", latency);
+        overlay.getShowLatency().putMetrics("overlayShow", latency);
+        OverlayPrewarmer.getInstance(context).getEvaluateLatency().putMetrics("prewarmEvaluate", latency);
+        AppIconCache.getInstance(context).getDecodeLatency().putMetrics("iconDecode", latency);
+        sections.put(SECTION_LATENCY, latency);
+
+        Map<String, Object> caches = new LinkedHashMap<>();
+        RulePackManager rulePacks = RulePackManager.getInstance(context);
+        putHitRate(caches, "sessionDeadlines", SessionClock.getDeadlineCacheHits(), SessionClock.getDeadlineCacheMisses());
+        putHitRate(caches, "sessionJson", SessionStore.getSessionJsonCacheHits(), SessionStore.getSessionJsonCacheMisses());
+        putHitRate(caches, "appVersionCodes", rulePacks.getVersionCacheHits(), rulePacks.getVersionCacheMisses());
+        caches.putAll(AppIconCache.getInstance(context).getMetrics());
+        sections.put(SECTION_CACHES, caches);
+
+        Map<String, Object> memory = new LinkedHashMap<>();
+        Runtime runtime = Runtime.getRuntime();
+        memory.put("javaHeapUsedKb", (runtime.totalMemory() - runtime.freeMemory()) / 1024);
+        memory.put("javaHeapMaxKb", runtime.maxMemory() / 1024);
+        memory.put("nativeHeapKb", Debug.getNativeHeapAllocatedSize() / 1024);
+        memory.put("pssKb", Debug.getPss());
+        sections.put(SECTION_MEMORY, memory);
+
+        Map<String, Object> device = new LinkedHashMap<>();
+        device.put("tier", DeviceTier.getInstance(context).getTierName());
+        device.putAll(DeviceTier.getInstance(context).getSignals());
+        device.put("timeToFirstEnforcementMs", StartupTrace.getTimeToFirstEnforcement());
+        device.put("traceSections", PerfTrace.isEnabled() ? 1L : 0L);
+        sections.put(SECTION_DEVICE, device);
+        return sections;
+    }
+
+    /**
+     * Prints the sections named in args, or all of them when args is empty.
+     * "trace on" / "trace off" instead flips PerfTrace's flag.
+     */
+    public static void dump(Context context, PrintWriter writer, String[] args) {
+        if (args != null && args.length == 2 && "trace".equals(args[0])) {
+            PerfTrace.setEnabled(context, "on".equals(args[1]));
+            writer.println("trace sections " + (PerfTrace.isEnabled() ? "enabled" : "disabled"));
+            writer.flush();
+            return;
+        }
+        List<String> wanted = args != null ? Arrays.asList(args) : null;
+        writer.println("SaveYourChild diagnostics, uptime " + SystemClock.elapsedRealtime() + "ms");
+        try {
+            for (Map.Entry<String, Map<String, Object>> section : collect(context).entrySet()) {
+                if (wanted != null && !wanted.isEmpty() && !wanted.contains(section.getKey())) {
+                    continue;
+                }
+                writer.println();
+                writer.println("[" + section.getKey() + "]");
+                for (Map.Entry<String, Object> entry : section.getValue().entrySet()) {
+                    writer.println("  " + entry.getKey() + ": " + entry.getValue());
+                }
+            }
+        } catch (Exception e) {
+            // A half-printed dump is still worth more than none
+            writer.println("dump failed: " + e);
+        }
+        writer.flush();
+    }
+
+    private static Map<String, Object> collectService(Context context, AppMonitorService service) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        DecisionPipeline pipeline = service != null ? service.getPipeline() : null;
+        out.put("running", pipeline != null ? 1L : 0L);
+        if (pipeline == null) {
+            return out;
+        }
+        ScreenStateMonitor screen = ScreenStateMonitor.getInstance(context);
+        SystemPackageRegistry registry = SystemPackageRegistry.getInstance(context);
+        String foreground = pipeline.getLastForegroundPackage();
+        out.put("foregroundPackage", foreground != null ? foreground : "");
+        out.put("screenOn", screen.isScreenOn() ? 1L : 0L);
+        out.put("userPresent", screen.isUserPresent() ? 1L : 0L);
+        out.put("events", service.getEventCount());
+        out.put("decisions", pipeline.getDecisionCount());
+        out.put("interventions", pipeline.getInterventionCount());
+        out.put("systemShortCircuits", pipeline.getSystemShortCircuitCount());
+        out.put("eventsSkippedWhileOff", pipeline.getEventsSkippedWhileOff());
+        out.put("screenOnReevaluations", pipeline.getScreenOnReevaluations());
+        out.put("screenOffCount", screen.getScreenOffCount());
+        out.put("totalScreenOffMs", screen.getTotalScreenOffMs());
+        out.put("systemPackages", (long) registry.size());
+        out.put("registryRebuilds", registry.getRebuildCount());
+        out.put("registryLastBuildMs", registry.getLastBuildMs());
+        SessionClock clock = SessionClock.getInstance(context);
+        out.put("clockTicks", clock.getTickCount());
+        out.put("clockSuspends", clock.getSuspendCount());
+        SectionBlocker blocker = service.getSectionBlocker();
+        if (blocker != null) {
+            out.put("sectionContentEvents", blocker.getContentEventCount());
+            out.put("sectionScans", blocker.getScanCount());
+            out.put("sectionBlocks", blocker.getBlockCount());
+            out.put("sectionOverBudgetScans", blocker.getOverBudgetScanCount());
+        }
+        return out;
+    }
+
+    private static void putHitRate(Map<String, Object> out, String cache, long hits, long misses) {
+        long total = hits + misses;
+        out.put(cache + ".hits", hits);
+        out.put(cache + ".misses", misses);
+        out.put(cache + ".hitRatePct", total == 0 ? 0L : hits * 100 / total);
+    }
+}
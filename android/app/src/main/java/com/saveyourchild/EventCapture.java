@@ -0,0 +1,161 @@
+// android/app/src/main/java/com/saveyourchild/EventCapture.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.Log;
+import android.view.accessibility.AccessibilityEvent;
+
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Records the accessibility event stream the service sees, with enough session
+ * state to replay its decisions on the JVM (scripts/EventReplay.java).
+ *
+ * Capture format v1, one record per line, times in ms relative to "start":
+ *
+ *   start 1760870400000                       # epoch millis of offset 0
+ *   session 0                                 # session snapshot follows, replaces the previous one
+ *   app com.instagram.android 5000 65000 125000   # accessStart accessEnd lockUpTo, "-" = unset
+ *   system com.google.android.apps.nexuslauncher  # answered by the system package registry
+ *   1200 STATE com.instagram.android com.instagram.mainactivity.MainActivity
+ *   1450 CONTENT com.instagram.android android.widget.FrameLayout
+ *   9000 SCREEN_OFF
+ *   9800 USER_PRESENT com.android.chrome       # package of the active window on unlock, "-" = unreadable
+ *
+ * Events are recorded on the main thread and written on a background thread.
+ * Debugging aid: nothing runs unless a capture was started.
+ */
+final class EventCapture {
+
+    private static final String TAG = "EventCapture";
+    private static final String CAPTURE_DIR = "captures";
+
+    static final int SCREEN_OFF = -1;
+    static final int USER_PRESENT = -2;
+
+    private final File file;
+    private final long startMillis;
+    private final BufferedWriter writer;
+    private final HandlerThread thread;
+    private final Handler worker;
+    private final Set<String> systemPackages = new HashSet<>();   // main thread only
+    private final Runnable sessionListener = this::recordSession;
+    private volatile boolean stopped = false;
+
+    private EventCapture(File file, BufferedWriter writer) {
+        this.file = file;
+        this.writer = writer;
+        this.startMillis = System.currentTimeMillis();
+        this.thread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        this.worker = new Handler(thread.getLooper());
+    }
+
+    static EventCapture start(Context context) throws IOException {
+        File dir = new File(context.getFilesDir(), CAPTURE_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File file = new File(dir, "events-" + System.currentTimeMillis() + ".capture");
+        BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+
+        EventCapture capture = new EventCapture(file, writer);
+        capture.write("# saveyourchild event capture v1");
+        capture.write("start " + capture.startMillis);
+        capture.recordSession();
+        SessionStore.addOnVersionChangedListener(capture.sessionListener);
+        Log.i(TAG, "⏺️ Capturing to " + file);
+        return capture;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Main thread. eventType is an AccessibilityEvent type, SCREEN_OFF or USER_PRESENT;
+     * for USER_PRESENT packageName is the active window's package, or null.
+     */
+    void record(int eventType, String packageName, CharSequence className, boolean systemPackage) {
+        if (stopped) {
+            return;
+        }
+        long offset = System.currentTimeMillis() - startMillis;
+        if (eventType == SCREEN_OFF) {
+            write(offset + " SCREEN_OFF");
+            return;
+        }
+        if (eventType == USER_PRESENT) {
+            write(offset + " USER_PRESENT " + (packageName != null ? packageName : "-"));
+            return;
+        }
+        if (systemPackage && systemPackages.add(packageName)) {
+            write("system " + packageName);
+        }
+        String type = eventType == AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED ? "CONTENT" : "STATE";
+        write(offset + " " + type + " " + packageName + " " + (className != null ? className : "-"));
+    }
+
+    void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        SessionStore.removeOnVersionChangedListener(sessionListener);
+        worker.post(() -> {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                Log.e(TAG, "❌ Error closing capture: " + e.getMessage());
+            }
+            Log.i(TAG, "⏹️ Capture saved: " + file);
+        });
+        thread.quitSafely();
+    }
+
+    // Any thread: session changes arrive from the JS thread
+    private void recordSession() {
+        StringBuilder snapshot = new StringBuilder();
+        snapshot.append("session ").append(System.currentTimeMillis() - startMillis);
+        for (String packageName : SessionStore.getMonitoredPackages()) {
+            JSONObject appData = SessionStore.getAppData(packageName);
+            if (appData == null) {
+                continue;
+            }
+            snapshot.append("\napp ").append(packageName)
+                    .append(' ').append(offsetOf(appData.optString("accessStartTime", "")))
+                    .append(' ').append(offsetOf(appData.optString("accessEndTime", "")))
+                    .append(' ').append(offsetOf(appData.optString("lockUpToTime", "")));
+        }
+        write(snapshot.toString());
+    }
+
+    private String offsetOf(String iso) {
+        long millis = iso.equals("null") ? 0 : SessionClock.parseIsoMillis(iso);
+        return millis > 0 ? Long.toString(millis - startMillis) : "-";
+    }
+
+    private void write(String line) {
+        worker.post(() -> {
+            try {
+                writer.write(line);
+                writer.write('\n');
+            } catch (IOException e) {
+                Log.e(TAG, "❌ Error writing capture: " + e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,157 @@
+// android/app/src/main/java/com/saveyourchild/FrameTimingProbe.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.hardware.display.DisplayManager;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts dropped frames while the overlay is on screen, one session per show,
+ * totalled per device tier so the reduced page variant can be compared with the
+ * full one (force a tier with DeviceTier.setOverride).
+ *
+ * Frames are timed with Choreographer vsync callbacks on the main thread: a gap
+ * of n frame intervals between callbacks counts as n - 1 dropped frames. The
+ * interval follows the display's current refresh rate, re-read on every start
+ * and display change, since variable-rate screens drop to 60 Hz on static
+ * content. The overlay window has no Activity Window, so FrameMetrics isn't
+ * available. What this sees is main-thread stalls: layout, the native renderer's
+ * drawing and the WebView's work on this thread. Frames that are slow only in the
+ * WebView's renderer process or the compositor don't delay these callbacks.
+ * Main thread only, except getMetrics().
+ */
+final class FrameTimingProbe implements Choreographer.FrameCallback, DisplayManager.DisplayListener {
+
+    private static final String TAG = "FrameTimingProbe";
+    private static final DeviceTier.Tier[] TIERS = DeviceTier.Tier.values();
+
+    private final AtomicLongArray sessions = new AtomicLongArray(TIERS.length);
+    private final AtomicLongArray frames = new AtomicLongArray(TIERS.length);
+    private final AtomicLongArray dropped = new AtomicLongArray(TIERS.length);
+    private volatile long lastSessionDropped = 0;
+
+    private final Context context;
+    private DeviceTier.Tier tier;
+    private long frameIntervalNanos;
+    private long lastFrameNanos = 0;
+    private long sessionFrames = 0;
+    private long sessionDropped = 0;
+    private boolean running = false;
+
+    FrameTimingProbe(Context context) {
+        this.context = context;
+    }
+
+    void start(DeviceTier.Tier tier) {
+        if (tier == null) {
+            return;
+        }
+        stop();
+        this.tier = tier;
+        sessionFrames = 0;
+        sessionDropped = 0;
+        resume();
+    }
+
+    /** Stops counting without ending the session, e.g. while the screen is off. */
+    void pause() {
+        if (running) {
+            running = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+            DisplayManager displayManager = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+            if (displayManager != null) {
+                displayManager.unregisterDisplayListener(this);
+            }
+        }
+    }
+
+    void resume() {
+        if (tier != null && !running) {
+            running = true;
+            DisplayManager displayManager = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+            if (displayManager != null) {
+                displayManager.registerDisplayListener(this, null);
+            }
+            readFrameInterval();
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /** Ends the session and adds it to its tier's totals. */
+    void stop() {
+        if (tier == null) {
+            return;
+        }
+        pause();
+        int index = tier.ordinal();
+        sessions.incrementAndGet(index);
+        frames.addAndGet(index, sessionFrames);
+        dropped.addAndGet(index, sessionDropped);
+        lastSessionDropped = sessionDropped;
+        Log.d(TAG, "🎞️ " + tier + " overlay session: " + sessionDropped + " dropped / " + sessionFrames + " frames");
+        tier = null;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+        if (lastFrameNanos != 0) {
+            // Round to whole intervals so vsync jitter doesn't count as a drop
+            long intervals = (frameTimeNanos - lastFrameNanos + frameIntervalNanos / 2) / frameIntervalNanos;
+            if (intervals > 1) {
+                sessionDropped += intervals - 1;
+            }
+        }
+        sessionFrames++;
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void onDisplayChanged(int displayId) {
+        if (displayId == Display.DEFAULT_DISPLAY && running) {
+            readFrameInterval();
+        }
+    }
+
+    @Override
+    public void onDisplayAdded(int displayId) {
+    }
+
+    @Override
+    public void onDisplayRemoved(int displayId) {
+    }
+
+    // The gap across a rate switch is in neither interval, so timing restarts at the next frame
+    private void readFrameInterval() {
+        frameIntervalNanos = (long) (1_000_000_000L / Math.max(DeviceTier.readRefreshRate(context), 1f));
+        lastFrameNanos = 0;
+    }
+
+    Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        for (DeviceTier.Tier t : TIERS) {
+            int index = t.ordinal();
+            long count = sessions.get(index);
+            if (count == 0) {
+                continue;
+            }
+            String name = t.name().toLowerCase(Locale.US);
+            metrics.put("frames." + name + ".sessions", count);
+            metrics.put("frames." + name + ".frames", frames.get(index));
+            metrics.put("frames." + name + ".dropped", dropped.get(index));
+            metrics.put("frames." + name + ".droppedPerSession", dropped.get(index) / count);
+        }
+        metrics.put("frames.lastSessionDropped", lastSessionDropped);
+        return metrics;
+    }
+}
@@ -0,0 +1,389 @@
+// android/app/src/main/java/com/saveyourchild/InterventionLog.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only record of every block the overlay put up: when, which app, access
+ * setup or lock, how it ended and how long it took to get on screen.
+ *
+ * Files under filesDir/interventions:
+ *   00000001.seg …   InterventionRecord segments, MAX_RECORDS_PER_SEGMENT each;
+ *                    only the newest MAX_SEGMENTS are kept
+ *   packages         package dictionary, one name per line, line number = packageId
+ *   rollups          InterventionRollups, rewritten FLUSH_DELAY_MS after the last append
+ *
+ * OverlayController reports each intervention once it has ended; records are
+ * written on a background thread and folded into the hourly and daily rollups
+ * as they go, which is all the queries read. At startup the rollups are restored
+ * and the records after their watermark replayed, so a crash between append and
+ * flush loses nothing that reached the segment.
+ */
+public final class InterventionLog {
+
+    private static final String TAG = "InterventionLog";
+    private static final String DIR = "interventions";
+    private static final String PACKAGES_FILE = "packages";
+    private static final String ROLLUPS_FILE = "rollups";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAX_RECORDS_PER_SEGMENT = 2048;   // ~48 KB
+    private static final int MAX_SEGMENTS = 16;
+    private static final long FLUSH_DELAY_MS = 10_000;
+    private static final long LOAD_TIMEOUT_MS = 2_000;
+
+    private static InterventionLog instance;
+
+    private final File dir;
+    private final Handler worker;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final Runnable flushRunnable = this::flushRollups;
+
+    // Guarded by this: written on the worker, read by queries
+    private InterventionRollups rollups = new InterventionRollups();
+    private final ArrayList<String> packages = new ArrayList<>();
+    private final HashMap<String, Integer> packageIds = new HashMap<>();
+
+    // Worker thread only
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(InterventionRecord.SIZE);
+    private FileOutputStream segmentOut;
+    private int segmentIndex = 0;
+    private long segmentSize = 0;
+
+    private final AtomicLong recordCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong writeErrorCount = new AtomicLong();
+
+    private InterventionLog(Context context) {
+        dir = new File(context.getFilesDir(), DIR);
+        HandlerThread thread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        worker = new Handler(thread.getLooper());
+        worker.post(this::load);
+    }
+
+    public static synchronized InterventionLog getInstance(Context context) {
+        if (instance == null) {
+            instance = new InterventionLog(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Any thread. startedAt is the epoch millis of the show request; timeToOverlayMs
+     * is -1 when the content never reached the screen, durationMs 0 then.
+     */
+    void record(String packageName, byte state, byte outcome, long startedAt, int timeToOverlayMs, int durationMs) {
+        worker.post(() -> append(packageName, state, outcome, startedAt, timeToOverlayMs, durationMs));
+    }
+
+    // ---- Queries (any thread but main; wait for the startup replay) ----
+
+    /** Bucket start → counters summed over apps, for "hour" or "day" buckets starting in [from, to). */
+    Map<Long, long[]> getTotals(boolean hourly, long from, long to) {
+        awaitLoaded();
+        synchronized (this) {
+            return rollups.totals(hourly, from, to);
+        }
+    }
+
+    /** Package name → counters over the days starting in [from, to). */
+    Map<String, long[]> getTotalsByApp(long from, long to) {
+        awaitLoaded();
+        Map<String, long[]> out = new LinkedHashMap<>();
+        synchronized (this) {
+            for (Map.Entry<Integer, long[]> app : rollups.byPackage(from, to).entrySet()) {
+                int id = app.getKey();
+                out.put(id >= 0 && id < packages.size() ? packages.get(id) : "unknown", app.getValue());
+            }
+        }
+        return out;
+    }
+
+    Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        File[] segments = listSegments();
+        long rawBytes = 0;
+        for (File segment : segments) {
+            rawBytes += segment.length();
+        }
+        metrics.put("interventionRecords", recordCount.get());
+        metrics.put("interventionReplayed", replayedCount.get());
+        metrics.put("interventionWriteErrors", writeErrorCount.get());
+        metrics.put("interventionSegments", (long) segments.length);
+        metrics.put("interventionRawKb", rawBytes / 1024);
+        synchronized (this) {
+            metrics.put("interventionPackages", (long) packages.size());
+            metrics.put("interventionRollupBuckets", (long) rollups.getBucketCount());
+        }
+        return metrics;
+    }
+
+    private void awaitLoaded() {
+        try {
+            if (!loaded.await(LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                Log.w(TAG, "⚠️ Intervention log still loading, answering from what is there");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---- Worker thread ----
+
+    private void append(String packageName, byte state, byte outcome, long startedAt, int timeToOverlayMs, int durationMs) {
+        try {
+            InterventionRecord record = new InterventionRecord(
+                    startedAt, packageId(packageName), state, outcome, timeToOverlayMs, durationMs);
+            ensureSegment();
+            recordBuffer.clear();
+            record.writeTo(recordBuffer);
+            segmentOut.write(recordBuffer.array(), 0, InterventionRecord.SIZE);
+            segmentSize += InterventionRecord.SIZE;
+            synchronized (this) {
+                rollups.add(record, TimeZone.getDefault());
+                rollups.setWatermark(segmentIndex, segmentSize);
+            }
+            recordCount.incrementAndGet();
+            worker.removeCallbacks(flushRunnable);
+            worker.postDelayed(flushRunnable, FLUSH_DELAY_MS);
+            Log.d(TAG, "📝 " + packageName + " " + InterventionRecord.stateName(state) + " → "
+                    + InterventionRecord.outcomeName(outcome) + ", on screen after " + timeToOverlayMs + "ms");
+        } catch (IOException e) {
+            writeErrorCount.incrementAndGet();
+            Log.e(TAG, "❌ Error appending intervention: " + e.getMessage());
+        }
+    }
+
+    private int packageId(String packageName) throws IOException {
+        Integer id;
+        synchronized (this) {
+            id = packageIds.get(packageName);
+        }
+        if (id != null) {
+            return id;
+        }
+        try (FileOutputStream out = new FileOutputStream(new File(dir, PACKAGES_FILE), true)) {
+            out.write((packageName + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        synchronized (this) {
+            id = packages.size();
+            packages.add(packageName);
+            packageIds.put(packageName, id);
+        }
+        return id;
+    }
+
+    // Opens the next segment when there is none or the current one is full
+    private void ensureSegment() throws IOException {
+        long fullSize = InterventionRecord.HEADER_SIZE + (long) MAX_RECORDS_PER_SEGMENT * InterventionRecord.SIZE;
+        if (segmentOut != null && segmentSize < fullSize) {
+            return;
+        }
+        if (segmentOut != null) {
+            segmentOut.close();
+            segmentOut = null;
+        }
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        segmentIndex++;
+        segmentOut = new FileOutputStream(segmentFile(segmentIndex));
+        recordBuffer.clear();
+        InterventionRecord.writeHeader(recordBuffer);
+        segmentOut.write(recordBuffer.array(), 0, InterventionRecord.HEADER_SIZE);
+        segmentSize = InterventionRecord.HEADER_SIZE;
+
+        File[] segments = listSegments();
+        for (int i = 0; i < segments.length - MAX_SEGMENTS; i++) {
+            if (!segments[i].delete()) {
+                Log.w(TAG, "⚠️ Could not delete old segment " + segments[i]);
+            }
+        }
+    }
+
+    private void load() {
+        try {
+            if (!dir.exists() && !dir.mkdirs()) {
+                throw new IOException("Cannot create " + dir);
+            }
+            loadPackages();
+            InterventionRollups restored = readRollups();
+            TimeZone zone = TimeZone.getDefault();
+            File[] segments = listSegments();
+            long replayed = 0;
+            for (File segment : segments) {
+                int index = segmentIndexOf(segment);
+                if (index < restored.getWatermarkSegment()) {
+                    continue;
+                }
+                long from = index == restored.getWatermarkSegment()
+                        ? Math.max(restored.getWatermarkOffset(), InterventionRecord.HEADER_SIZE)
+                        : InterventionRecord.HEADER_SIZE;
+                replayed += replaySegment(segment, index, from, restored, zone);
+            }
+            restored.trim(System.currentTimeMillis());
+            synchronized (this) {
+                rollups = restored;
+            }
+            replayedCount.set(replayed);
+            if (segments.length > 0) {
+                reopenLastSegment(segments[segments.length - 1]);
+            }
+            if (replayed > 0) {
+                flushRollups();
+            }
+            Log.d(TAG, "📚 Intervention log loaded: " + segments.length + " segments, "
+                    + replayed + " records replayed");
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Error loading intervention log: " + e.getMessage());
+        } finally {
+            loaded.countDown();
+        }
+    }
+
+    private void loadPackages() throws IOException {
+        File file = new File(dir, PACKAGES_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            synchronized (this) {
+                while ((line = reader.readLine()) != null) {
+                    packageIds.put(line, packages.size());
+                    packages.add(line);
+                }
+            }
+        }
+    }
+
+    // The persisted rollups, or empty ones (watermark 0) to rebuild from the segments still on disk
+    private InterventionRollups readRollups() {
+        File file = new File(dir, ROLLUPS_FILE);
+        if (!file.exists()) {
+            return new InterventionRollups();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return InterventionRollups.readFrom(in);
+        } catch (IOException e) {
+            Log.w(TAG, "⚠️ Rollups unreadable, rebuilding from segments: " + e.getMessage());
+            return new InterventionRollups();
+        }
+    }
+
+    private long replaySegment(File segment, int index, long from, InterventionRollups into, TimeZone zone)
+            throws IOException {
+        byte[] bytes;
+        try (RandomAccessFile file = new RandomAccessFile(segment, "r")) {
+            bytes = new byte[(int) file.length()];
+            file.readFully(bytes);
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (!InterventionRecord.readHeader(in)) {
+            Log.w(TAG, "⚠️ Skipping segment with unknown header: " + segment);
+            return 0;
+        }
+        long replayed = 0;
+        long offset = from;
+        while (offset + InterventionRecord.SIZE <= bytes.length) {
+            in.position((int) offset);
+            into.add(InterventionRecord.readFrom(in), zone);
+            offset += InterventionRecord.SIZE;
+            replayed++;
+        }
+        into.setWatermark(index, offset);
+        return replayed;
+    }
+
+    // Appends continue in the newest segment, minus a record torn by a crash mid-write
+    private void reopenLastSegment(File segment) throws IOException {
+        segmentIndex = segmentIndexOf(segment);
+        long length = segment.length();
+        long whole = length < InterventionRecord.HEADER_SIZE ? 0
+                : length - (length - InterventionRecord.HEADER_SIZE) % InterventionRecord.SIZE;
+        if (whole < InterventionRecord.HEADER_SIZE) {
+            // Not even a header; the next append starts a fresh segment
+            return;
+        }
+        if (whole != length) {
+            try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+                file.setLength(whole);
+            }
+        }
+        segmentOut = new FileOutputStream(segment, true);
+        segmentSize = whole;
+    }
+
+    private void flushRollups() {
+        File tmp = new File(dir, ROLLUPS_FILE + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                synchronized (this) {
+                    rollups.trim(System.currentTimeMillis());
+                    rollups.writeTo(out);
+                }
+            }
+            if (!tmp.renameTo(new File(dir, ROLLUPS_FILE))) {
+                throw new IOException("Cannot replace " + ROLLUPS_FILE);
+            }
+        } catch (IOException e) {
+            writeErrorCount.incrementAndGet();
+            Log.e(TAG, "❌ Error writing rollups: " + e.getMessage());
+        }
+    }
+
+    // Oldest first
+    private File[] listSegments() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SEGMENT_SUFFIX) && segmentIndexOf(name) > 0);
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files, (a, b) -> Integer.compare(segmentIndexOf(a), segmentIndexOf(b)));
+        return files;
+    }
+
+    private File segmentFile(int index) {
+        return new File(dir, String.format(Locale.US, "%08d", index) + SEGMENT_SUFFIX);
+    }
+
+    private static int segmentIndexOf(File segment) {
+        return segmentIndexOf(segment.getName());
+    }
+
+    private static int segmentIndexOf(String name) {
+        try {
+            return Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+}
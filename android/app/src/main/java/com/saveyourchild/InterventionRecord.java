@@ -0,0 +1,100 @@
+// android/app/src/main/java/com/saveyourchild/InterventionRecord.java
+package com.saveyourchild;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One ended intervention in InterventionLog's segment files. Fixed width,
+ * big-endian, 24 bytes:
+ *
+ *   0  long  startedAt         epoch millis of the show request
+ *   8  int   packageId         line in the log's package dictionary
+ *   12 byte  state             STATE_ACCESS / STATE_LOCK
+ *   13 byte  outcome           OUTCOME_*
+ *   14 short reserved          0
+ *   16 int   timeToOverlayMs   show request → content on screen, -1 if it never got there
+ *   20 int   durationMs        content on screen → outcome, 0 if never shown
+ *
+ * Each segment starts with an 8-byte header: MAGIC, VERSION (short), SIZE (short).
+ * Plain Java, no Android classes, so scripts/InterventionDump.java can decode pulled files.
+ */
+final class InterventionRecord {
+
+    static final int MAGIC = 0x53594349;   // "SYCI"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int SIZE = 24;
+
+    static final byte STATE_ACCESS = 1;
+    static final byte STATE_LOCK = 2;
+
+    static final byte OUTCOME_CANCELLED = 1;        // child left through the home button
+    static final byte OUTCOME_SESSION_STARTED = 2;  // access screen started a session
+    static final byte OUTCOME_TIMED_OUT = 3;        // auto-hide sent the child home
+    static final byte OUTCOME_LOCK_ENDED = 4;       // lock countdown reached zero on screen
+    static final byte OUTCOME_DISMISSED = 5;        // hidden or replaced by another app's overlay
+    static final byte OUTCOME_FAILED = 6;           // never shown: no overlay permission or an error
+
+    final long startedAt;
+    final int packageId;
+    final byte state;
+    final byte outcome;
+    final int timeToOverlayMs;
+    final int durationMs;
+
+    InterventionRecord(long startedAt, int packageId, byte state, byte outcome, int timeToOverlayMs, int durationMs) {
+        this.startedAt = startedAt;
+        this.packageId = packageId;
+        this.state = state;
+        this.outcome = outcome;
+        this.timeToOverlayMs = timeToOverlayMs;
+        this.durationMs = durationMs;
+    }
+
+    static void writeHeader(ByteBuffer out) {
+        out.putInt(MAGIC).putShort(VERSION).putShort((short) SIZE);
+    }
+
+    /** False when the buffer doesn't start with a segment header this version can read. */
+    static boolean readHeader(ByteBuffer in) {
+        return in.remaining() >= HEADER_SIZE
+                && in.getInt() == MAGIC
+                && in.getShort() == VERSION
+                && in.getShort() == SIZE;
+    }
+
+    void writeTo(ByteBuffer out) {
+        out.putLong(startedAt)
+                .putInt(packageId)
+                .put(state)
+                .put(outcome)
+                .putShort((short) 0)
+                .putInt(timeToOverlayMs)
+                .putInt(durationMs);
+    }
+
+    static InterventionRecord readFrom(ByteBuffer in) {
+        long startedAt = in.getLong();
+        int packageId = in.getInt();
+        byte state = in.get();
+        byte outcome = in.get();
+        in.getShort();
+        return new InterventionRecord(startedAt, packageId, state, outcome, in.getInt(), in.getInt());
+    }
+
+    static String stateName(byte state) {
+        return state == STATE_LOCK ? "lock" : state == STATE_ACCESS ? "access" : "unknown";
+    }
+
+    static String outcomeName(byte outcome) {
+        switch (outcome) {
+            case OUTCOME_CANCELLED: return "cancelled";
+            case OUTCOME_SESSION_STARTED: return "sessionStarted";
+            case OUTCOME_TIMED_OUT: return "timedOut";
+            case OUTCOME_LOCK_ENDED: return "lockEnded";
+            case OUTCOME_DISMISSED: return "dismissed";
+            case OUTCOME_FAILED: return "failed";
+            default: return "unknown";
+        }
+    }
+}
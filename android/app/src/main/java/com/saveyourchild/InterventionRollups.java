@@ -0,0 +1,219 @@
+// android/app/src/main/java/com/saveyourchild/InterventionRollups.java
+package com.saveyourchild;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+/**
+ * Hourly and daily aggregates of InterventionLog, per app, updated one record at
+ * a time as it is appended. Queries read only these, never the segment files.
+ * Buckets start at local hour / local midnight in the zone the record was added in.
+ *
+ * Hourly buckets are kept for HOURLY_RETENTION_MS, daily ones for
+ * DAILY_RETENTION_MS, both far longer than the raw segments survive. The
+ * watermark (segment index, byte offset) is the end of the last record folded
+ * in, so after a crash the log replays only what came after it.
+ *
+ * Not thread safe; InterventionLog guards it. Plain Java, no Android classes.
+ */
+final class InterventionRollups {
+
+    private static final int MAGIC = 0x53594352;   // "SYCR"
+    private static final int VERSION = 1;
+
+    static final long HOUR_MS = 3_600_000L;
+    static final long DAY_MS = 24 * HOUR_MS;
+    static final long HOURLY_RETENTION_MS = 14 * DAY_MS;
+    static final long DAILY_RETENTION_MS = 400 * DAY_MS;
+
+    // Counter slots per bucket and app
+    static final int TOTAL = 0;
+    static final int ACCESS = 1;
+    static final int LOCK = 2;
+    static final int CANCELLED = 3;
+    static final int SESSION_STARTED = 4;
+    static final int TIMED_OUT = 5;
+    static final int LOCK_ENDED = 6;
+    static final int DISMISSED = 7;
+    static final int FAILED = 8;
+    static final int SHOWN = 9;                   // records with a time-to-overlay
+    static final int TIME_TO_OVERLAY_SUM_MS = 10;
+    static final int TIME_TO_OVERLAY_MAX_MS = 11;
+    static final int ON_SCREEN_SUM_MS = 12;
+    static final int FIELD_COUNT = 13;
+
+    static final String[] FIELD_NAMES = {
+            "total", "access", "lock", "cancelled", "sessionStarted", "timedOut", "lockEnded",
+            "dismissed", "failed", "shown", "timeToOverlaySumMs", "timeToOverlayMaxMs", "onScreenSumMs"
+    };
+
+    // bucket start → package id → counters
+    private final TreeMap<Long, HashMap<Integer, long[]>> hourly = new TreeMap<>();
+    private final TreeMap<Long, HashMap<Integer, long[]>> daily = new TreeMap<>();
+    private int watermarkSegment = 0;
+    private long watermarkOffset = 0;
+
+    void add(InterventionRecord record, TimeZone zone) {
+        long offset = zone.getOffset(record.startedAt);
+        fold(counters(hourly, bucketStart(record.startedAt, offset, HOUR_MS), record.packageId), record);
+        fold(counters(daily, bucketStart(record.startedAt, offset, DAY_MS), record.packageId), record);
+    }
+
+    void setWatermark(int segment, long offset) {
+        watermarkSegment = segment;
+        watermarkOffset = offset;
+    }
+
+    int getWatermarkSegment() {
+        return watermarkSegment;
+    }
+
+    long getWatermarkOffset() {
+        return watermarkOffset;
+    }
+
+    /** Drops buckets past retention. */
+    void trim(long nowMillis) {
+        hourly.headMap(nowMillis - HOURLY_RETENTION_MS).clear();
+        daily.headMap(nowMillis - DAILY_RETENTION_MS).clear();
+    }
+
+    int getBucketCount() {
+        return hourly.size() + daily.size();
+    }
+
+    /** Bucket start → counters summed over apps, for buckets starting in [from, to). */
+    Map<Long, long[]> totals(boolean hourlyBuckets, long from, long to) {
+        Map<Long, long[]> out = new LinkedHashMap<>();
+        for (Map.Entry<Long, HashMap<Integer, long[]>> bucket
+                : (hourlyBuckets ? hourly : daily).subMap(from, to).entrySet()) {
+            long[] sum = new long[FIELD_COUNT];
+            for (long[] counters : bucket.getValue().values()) {
+                merge(sum, counters);
+            }
+            out.put(bucket.getKey(), sum);
+        }
+        return out;
+    }
+
+    /** Package id → counters summed over the daily buckets starting in [from, to). */
+    Map<Integer, long[]> byPackage(long from, long to) {
+        Map<Integer, long[]> out = new HashMap<>();
+        for (HashMap<Integer, long[]> bucket : daily.subMap(from, to).values()) {
+            for (Map.Entry<Integer, long[]> app : bucket.entrySet()) {
+                long[] sum = out.get(app.getKey());
+                if (sum == null) {
+                    sum = new long[FIELD_COUNT];
+                    out.put(app.getKey(), sum);
+                }
+                merge(sum, app.getValue());
+            }
+        }
+        return out;
+    }
+
+    static long bucketStart(long millis, long zoneOffset, long width) {
+        return Math.floorDiv(millis + zoneOffset, width) * width - zoneOffset;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(watermarkSegment);
+        out.writeLong(watermarkOffset);
+        writeBuckets(out, hourly);
+        writeBuckets(out, daily);
+    }
+
+    /** Throws IOException on anything it didn't write; the caller rebuilds from the segments. */
+    static InterventionRollups readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a rollup file of version " + VERSION);
+        }
+        InterventionRollups rollups = new InterventionRollups();
+        rollups.watermarkSegment = in.readInt();
+        rollups.watermarkOffset = in.readLong();
+        readBuckets(in, rollups.hourly);
+        readBuckets(in, rollups.daily);
+        return rollups;
+    }
+
+    private static void fold(long[] counters, InterventionRecord record) {
+        counters[TOTAL]++;
+        counters[record.state == InterventionRecord.STATE_LOCK ? LOCK : ACCESS]++;
+        switch (record.outcome) {
+            case InterventionRecord.OUTCOME_CANCELLED: counters[CANCELLED]++; break;
+            case InterventionRecord.OUTCOME_SESSION_STARTED: counters[SESSION_STARTED]++; break;
+            case InterventionRecord.OUTCOME_TIMED_OUT: counters[TIMED_OUT]++; break;
+            case InterventionRecord.OUTCOME_LOCK_ENDED: counters[LOCK_ENDED]++; break;
+            case InterventionRecord.OUTCOME_FAILED: counters[FAILED]++; break;
+            default: counters[DISMISSED]++; break;
+        }
+        if (record.timeToOverlayMs >= 0) {
+            counters[SHOWN]++;
+            counters[TIME_TO_OVERLAY_SUM_MS] += record.timeToOverlayMs;
+            counters[TIME_TO_OVERLAY_MAX_MS] = Math.max(counters[TIME_TO_OVERLAY_MAX_MS], record.timeToOverlayMs);
+        }
+        counters[ON_SCREEN_SUM_MS] += record.durationMs;
+    }
+
+    private static void merge(long[] into, long[] counters) {
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            into[i] = i == TIME_TO_OVERLAY_MAX_MS ? Math.max(into[i], counters[i]) : into[i] + counters[i];
+        }
+    }
+
+    private static long[] counters(TreeMap<Long, HashMap<Integer, long[]>> buckets, long start, int packageId) {
+        HashMap<Integer, long[]> bucket = buckets.get(start);
+        if (bucket == null) {
+            bucket = new HashMap<>();
+            buckets.put(start, bucket);
+        }
+        long[] counters = bucket.get(packageId);
+        if (counters == null) {
+            counters = new long[FIELD_COUNT];
+            bucket.put(packageId, counters);
+        }
+        return counters;
+    }
+
+    private static void writeBuckets(DataOutputStream out, TreeMap<Long, HashMap<Integer, long[]>> buckets)
+            throws IOException {
+        out.writeInt(buckets.size());
+        for (Map.Entry<Long, HashMap<Integer, long[]>> bucket : buckets.entrySet()) {
+            out.writeLong(bucket.getKey());
+            out.writeInt(bucket.getValue().size());
+            for (Map.Entry<Integer, long[]> app : bucket.getValue().entrySet()) {
+                out.writeInt(app.getKey());
+                for (long value : app.getValue()) {
+                    out.writeLong(value);
+                }
+            }
+        }
+    }
+
+    private static void readBuckets(DataInputStream in, TreeMap<Long, HashMap<Integer, long[]>> buckets)
+            throws IOException {
+        int bucketCount = in.readInt();
+        for (int i = 0; i < bucketCount; i++) {
+            long start = in.readLong();
+            int appCount = in.readInt();
+            HashMap<Integer, long[]> bucket = new HashMap<>();
+            for (int j = 0; j < appCount; j++) {
+                int packageId = in.readInt();
+                long[] counters = new long[FIELD_COUNT];
+                for (int k = 0; k < FIELD_COUNT; k++) {
+                    counters[k] = in.readLong();
+                }
+                bucket.put(packageId, counters);
+            }
+            buckets.put(start, bucket);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+// android/app/src/main/java/com/saveyourchild/LatencyHistogram.java
+package com.saveyourchild;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size latency histogram for the diagnostics dump, in microseconds.
+ *
+ * Buckets split every power of two into four, so a percentile is reported as its
+ * bucket's upper bound, at most 25% above the true value. Recording is a bucket
+ * increment plus two LongAdder adds: no allocation, no lock, cheap enough for the
+ * per-event paths. Percentiles are read without stopping writers, so a dump taken
+ * mid-burst may be off by the samples recorded while it reads.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    // Values 0..3 get a bucket each, then four per power of two up to 2^36 µs (~19 h)
+    private static final int BUCKETS = 35 * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+        buckets.incrementAndGet(bucketOf(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    /** Upper bound of the bucket holding the p-th fraction of samples, 0 when empty. */
+    long percentile(double p) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /** Adds <stage>.count, .avgUs, .p50Us, .p95Us, .p99Us and .maxUs to out. */
+    void putMetrics(String stage, Map<String, Object> out) {
+        long samples = count.sum();
+        out.put(stage + ".count", samples);
+        out.put(stage + ".avgUs", samples == 0 ? 0L : totalMicros.sum() / samples);
+        out.put(stage + ".p50Us", percentile(0.50));
+        out.put(stage + ".p95Us", percentile(0.95));
+        out.put(stage + ".p99Us", percentile(0.99));
+        out.put(stage + ".maxUs", maxMicros.get());
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) ((micros >>> (msb - 2)) & (SUB_BUCKETS - 1));
+        return Math.min((msb - 1) * SUB_BUCKETS + sub, BUCKETS - 1);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int msb = bucket / SUB_BUCKETS + 1;
+        int sub = bucket % SUB_BUCKETS;
+        long width = 1L << (msb - 2);
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+}
@@ -0,0 +1,198 @@
+// android/app/src/main/java/com/saveyourchild/LaunchPredictor.java
+package com.saveyourchild;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-app, per-hour-of-week launch model for OverlayPrewarmer.
+ *
+ * Each app has 168 slots (Monday 00:00 local = slot 0). A launch adds 1 to the
+ * slot it falls in, at most once per calendar hour, and every week all slots are
+ * multiplied by DECAY. A slot therefore holds an exponentially weighted count of
+ * the weeks the app was opened in that hour, and slot × (1 - DECAY) estimates
+ * the probability it is opened in that hour this week: ~0.44 after two weeks
+ * running, ~0.68 after four, fading within a few weeks once the habit stops.
+ *
+ * At most maxApps apps are kept (672 bytes each); the one with the least launch
+ * mass goes first. Plain Java, no Android classes, main thread only; times are
+ * local epoch millis (UTC millis + zone offset), passed in.
+ */
+final class LaunchPredictor {
+
+    static final int SLOTS = 7 * 24;
+    static final float DECAY = 0.75f;
+    static final long HOUR_MS = 3_600_000L;
+    static final long WEEK_MS = SLOTS * HOUR_MS;
+    static final int BYTES_PER_APP = SLOTS * 4;
+
+    private static final int MAGIC = 0x5359434c;   // "SYCL"
+    private static final int VERSION = 1;
+    // 1970-01-01 was a Thursday; shifts hour-of-week so slot 0 is Monday 00:00
+    private static final long MONDAY_SHIFT_MS = 3 * 24 * HOUR_MS;
+
+    private static final class App {
+        final float[] slots = new float[SLOTS];
+        long lastLaunchHour = Long.MIN_VALUE;   // hours since epoch, local
+        long decayedToWeek;                     // weeks since epoch, local
+
+        App(long week) {
+            decayedToWeek = week;
+        }
+    }
+
+    private final HashMap<String, App> apps = new HashMap<>();
+    private int maxApps;
+
+    LaunchPredictor(int maxApps) {
+        this.maxApps = Math.max(1, maxApps);
+    }
+
+    /** Sets the app cap, evicting the weakest apps right away when it shrinks. */
+    void setMaxApps(int maxApps) {
+        this.maxApps = Math.max(1, maxApps);
+        while (apps.size() > this.maxApps) {
+            evictWeakest();
+        }
+    }
+
+    /** packageName came to the foreground at localMillis; false when this hour already counted. */
+    boolean onLaunch(String packageName, long localMillis) {
+        long week = weekOf(localMillis);
+        App app = apps.get(packageName);
+        if (app == null) {
+            if (apps.size() >= maxApps) {
+                evictWeakest();
+            }
+            app = new App(week);
+            apps.put(packageName, app);
+        }
+        decay(app, week);
+        long hour = Math.floorDiv(localMillis, HOUR_MS);
+        if (hour == app.lastLaunchHour) {
+            return false;
+        }
+        app.lastLaunchHour = hour;
+        app.slots[slotOf(localMillis)] += 1f;
+        return true;
+    }
+
+    /** Estimated probability packageName is opened in the hour-of-week containing localMillis. */
+    float probability(String packageName, long localMillis) {
+        App app = apps.get(packageName);
+        if (app == null) {
+            return 0f;
+        }
+        decay(app, weekOf(localMillis));
+        return Math.min(1f, app.slots[slotOf(localMillis)] * (1f - DECAY));
+    }
+
+    /**
+     * Probability of a launch from localMillis until lookaheadMs later: the
+     * larger of the slots that window touches.
+     */
+    float probabilityWithin(String packageName, long localMillis, long lookaheadMs) {
+        float now = probability(packageName, localMillis);
+        if (slotOf(localMillis + lookaheadMs) == slotOf(localMillis)) {
+            return now;
+        }
+        return Math.max(now, probability(packageName, localMillis + lookaheadMs));
+    }
+
+    Iterable<String> packages() {
+        return apps.keySet();
+    }
+
+    int size() {
+        return apps.size();
+    }
+
+    void clear() {
+        apps.clear();
+    }
+
+    static int slotOf(long localMillis) {
+        return (int) Math.floorMod(Math.floorDiv(localMillis + MONDAY_SHIFT_MS, HOUR_MS), (long) SLOTS);
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(apps.size());
+        for (Map.Entry<String, App> entry : apps.entrySet()) {
+            App app = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeLong(app.lastLaunchHour);
+            out.writeLong(app.decayedToWeek);
+            for (float slot : app.slots) {
+                out.writeFloat(slot);
+            }
+        }
+    }
+
+    /** Replaces the model with the one in in; throws IOException on anything writeTo didn't write. */
+    void readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a launch model of version " + VERSION);
+        }
+        HashMap<String, App> read = new HashMap<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String packageName = in.readUTF();
+            long lastLaunchHour = in.readLong();
+            App app = new App(in.readLong());
+            app.lastLaunchHour = lastLaunchHour;
+            for (int s = 0; s < SLOTS; s++) {
+                app.slots[s] = in.readFloat();
+            }
+            read.put(packageName, app);
+        }
+        apps.clear();
+        apps.putAll(read);
+        setMaxApps(maxApps);
+    }
+
+    private static long weekOf(long localMillis) {
+        return Math.floorDiv(localMillis + MONDAY_SHIFT_MS, WEEK_MS);
+    }
+
+    private static void decay(App app, long week) {
+        long weeks = week - app.decayedToWeek;
+        if (weeks <= 0) {
+            return;
+        }
+        float factor = weeks >= 64 ? 0f : (float) Math.pow(DECAY, weeks);
+        for (int s = 0; s < SLOTS; s++) {
+            app.slots[s] *= factor;
+        }
+        app.decayedToWeek = week;
+    }
+
+    // Launch mass compared as of the newest week any app was decayed to
+    private void evictWeakest() {
+        long week = Long.MIN_VALUE;
+        for (App app : apps.values()) {
+            week = Math.max(week, app.decayedToWeek);
+        }
+        String weakest = null;
+        double weakestMass = Double.MAX_VALUE;
+        for (Map.Entry<String, App> entry : apps.entrySet()) {
+            App app = entry.getValue();
+            double mass = 0;
+            for (float slot : app.slots) {
+                mass += slot;
+            }
+            mass *= Math.pow(DECAY, week - app.decayedToWeek);
+            if (mass < weakestMass) {
+                weakestMass = mass;
+                weakest = entry.getKey();
+            }
+        }
+        if (weakest != null) {
+            apps.remove(weakest);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.saveyourchild
 
+import android.os.Bundle
 import com.facebook.react.ReactActivity
 import com.facebook.react.ReactActivityDelegate
 import com.facebook.react.defaults.DefaultNewArchitectureEntryPoint.fabricEnabled
@@ -13,6 +14,12 @@ class MainActivity : ReactActivity() {
    */
   override fun getMainComponentName(): String = "SaveYourChild"
 
+  override fun onCreate(savedInstanceState: Bundle?) {
+    // UI is needed now, so make sure the React runtime exists before the delegate uses it
+    (application as MainApplication).ensureReactNativeLoaded()
+    super.onCreate(savedInstanceState)
+  }
+
   /**
    * Returns the instance of the [ReactActivityDelegate]. We use [DefaultReactActivityDelegate]
    * which allows you to enable New Architecture with a single boolean flags [fabricEnabled]
@@ -32,8 +32,23 @@ class MainApplication : Application(), ReactApplication {
   override val reactHost: ReactHost
     get() = getDefaultReactHost(applicationContext, reactNativeHost)
 
+  @Volatile private var reactNativeLoaded = false
+
+  /** True once the React Native runtime has been loaded in this process. */
+  val isReactNativeLoaded: Boolean
+    get() = reactNativeLoaded
+
   override fun onCreate() {
     super.onCreate()
+    // React Native is loaded on demand by ensureReactNativeLoaded(). A process started
+    // only for AppMonitorService or an overlay service never pays for the JS runtime.
+  }
+
+  /** Loads the React Native runtime once. Call before creating any React surface. */
+  @Synchronized
+  fun ensureReactNativeLoaded() {
+    if (reactNativeLoaded) return
     loadReactNative(this)
+    reactNativeLoaded = true
   }
 }
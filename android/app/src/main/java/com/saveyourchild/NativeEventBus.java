@@ -0,0 +1,178 @@
+// android/app/src/main/java/com/saveyourchild/NativeEventBus.java
+package com.saveyourchild;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalescing, batched delivery of AppMonitorModule's events to JS.
+ *
+ * post() keeps only the latest payload per (event, key) until the next flush, so a
+ * burst of session changes for one app or a backlog of clock ticks reaches JS as a
+ * single event. A null key stands for every key of that event: it replaces the
+ * pending keyed ones, and keyed posts fold into it while it is pending.
+ *
+ * A flush runs on the main thread at the next frame, or after a fixed interval when
+ * one is set, and emits one NativeEventBatch event holding every pending event in
+ * posting order. src/services/NativeEventBus.js fans the batch out to listeners.
+ * Choreographer stops with the display, so a frame-aligned flush also has a timer
+ * fallback and nothing waits for the screen to come on.
+ */
+final class NativeEventBus {
+
+    private static final String TAG = "NativeEventBus";
+    static final String BATCH_EVENT = "NativeEventBatch";
+    private static final long FRAME_FALLBACK_MS = 100;
+
+    interface Emitter {
+        void emit(String eventName, WritableMap params);
+    }
+
+    private static final class Pending {
+        final String name;
+        final String key;
+        final WritableMap params;
+
+        Pending(String name, String key, WritableMap params) {
+            this.name = name;
+            this.key = key;
+            this.params = params;
+        }
+    }
+
+    // The bus of the live module, for the service's diagnostics dump
+    private static volatile NativeEventBus current;
+
+    private final Emitter emitter;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> flush();
+    private final Runnable postFrameCallback = () -> Choreographer.getInstance().postFrameCallback(frameCallback);
+
+    // Guarded by this
+    private LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+    private boolean scheduled = false;
+    private volatile long intervalMs = 0;   // 0 = next frame
+
+    private final AtomicLong postedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
+    NativeEventBus(Emitter emitter) {
+        this.emitter = emitter;
+        current = this;
+    }
+
+    /** Metrics of the most recently created bus, or null when JS never started. */
+    static Map<String, Long> getCurrentMetrics() {
+        NativeEventBus bus = current;
+        return bus != null ? bus.getMetrics() : null;
+    }
+
+    /** Any thread. params must not be touched by the caller afterwards. */
+    synchronized void post(String eventName, String key, WritableMap params) {
+        postedCount.incrementAndGet();
+        String wildcard = eventName + '\u0000';
+        if (key == null) {
+            // Supersedes everything pending for this event
+            int before = pending.size();
+            pending.values().removeIf(p -> p.name.equals(eventName));
+            coalescedCount.addAndGet(before - pending.size());
+            pending.put(wildcard, new Pending(eventName, null, params));
+        } else if (pending.containsKey(wildcard)) {
+            coalescedCount.incrementAndGet();
+        } else {
+            String slot = wildcard + key;
+            // Re-inserting moves the event to the end, after whatever it now follows
+            if (pending.remove(slot) != null) {
+                coalescedCount.incrementAndGet();
+            }
+            pending.put(slot, new Pending(eventName, key, params));
+        }
+        schedule();
+    }
+
+    /** 0 aligns flushes to the next frame; otherwise flush at most every intervalMs. */
+    void setInterval(long intervalMs) {
+        this.intervalMs = Math.max(0, intervalMs);
+    }
+
+    Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("eventsPosted", postedCount.get());
+        metrics.put("eventsCoalesced", coalescedCount.get());
+        metrics.put("eventsDelivered", deliveredCount.get());
+        metrics.put("batchesDelivered", batchCount.get());
+        metrics.put("maxBatchSize", maxBatchSize.get());
+        metrics.put("intervalMs", intervalMs);
+        synchronized (this) {
+            metrics.put("eventsPending", (long) pending.size());
+        }
+        return metrics;
+    }
+
+    private void schedule() {
+        if (scheduled) {
+            return;
+        }
+        scheduled = true;
+        long interval = intervalMs;
+        if (interval > 0) {
+            mainHandler.postDelayed(flushRunnable, interval);
+        } else {
+            mainHandler.post(postFrameCallback);
+            mainHandler.postDelayed(flushRunnable, FRAME_FALLBACK_MS);
+        }
+    }
+
+    // Main thread
+    private void flush() {
+        LinkedHashMap<String, Pending> batch;
+        synchronized (this) {
+            mainHandler.removeCallbacks(flushRunnable);
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+            scheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        WritableArray events = Arguments.createArray();
+        for (Pending event : batch.values()) {
+            WritableMap entry = Arguments.createMap();
+            entry.putString("name", event.name);
+            if (event.key != null) {
+                entry.putString("key", event.key);
+            }
+            entry.putMap("payload", event.params);
+            events.pushMap(entry);
+        }
+        WritableMap params = Arguments.createMap();
+        params.putArray("events", events);
+
+        try {
+            emitter.emit(BATCH_EVENT, params);
+            deliveredCount.addAndGet(batch.size());
+            batchCount.incrementAndGet();
+            if (batch.size() > maxBatchSize.get()) {
+                maxBatchSize.set(batch.size());
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error delivering event batch: " + e.getMessage());
+        }
+    }
+}
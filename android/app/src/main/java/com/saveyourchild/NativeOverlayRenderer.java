@@ -0,0 +1,84 @@
+// android/app/src/main/java/com/saveyourchild/NativeOverlayRenderer.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.Button;
+import android.widget.TextView;
+
+/**
+ * Plain-view overlay from simple_lock_overlay.xml. Cheapest renderer and the
+ * fallback whenever React Native isn't ready.
+ */
+final class NativeOverlayRenderer implements OverlayRenderer {
+
+    private final Context context;
+    private final OverlayController controller;
+
+    private View view;
+    private TextView titleText;
+    private TextView messageText;
+
+    NativeOverlayRenderer(Context context, OverlayController controller) {
+        this.context = context;
+        this.controller = controller;
+    }
+
+    @Override
+    public View getView() {
+        if (view == null) {
+            view = LayoutInflater.from(context).inflate(R.layout.simple_lock_overlay, null);
+            titleText = view.findViewById(R.id.titleText);
+            messageText = view.findViewById(R.id.messageText);
+            Button homeButton = view.findViewById(R.id.homeButton);
+            homeButton.setOnClickListener(v -> controller.onCancel());
+        }
+        return view;
+    }
+
+    @Override
+    public void bind(OverlayContent content, Runnable onReady) {
+        getView();
+        if (content.screen == OverlayContent.Screen.LOCK) {
+            titleText.setText(content.appName + " is Locked");
+            messageText.setText("Focus on your goals! 🎯\nTime remaining: "
+                    + content.getRemainingLockMinutes() + " minutes");
+        } else {
+            titleText.setText(content.appName + " needs a focus session");
+            messageText.setText("Open SaveYourChild to set your access time 🎯");
+        }
+        onReady.run();
+    }
+
+    // Inflating the layout is all there is to warm
+    @Override
+    public void prewarm(OverlayContent content) {
+        getView();
+    }
+
+    @Override
+    public void releasePrewarm() {
+    }
+
+    @Override
+    public void reset() {
+        // Nothing running in plain views
+    }
+
+    @Override
+    public void pause() {
+        // Nothing running in plain views
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void release() {
+        view = null;
+        titleText = null;
+        messageText = null;
+    }
+}
@@ -0,0 +1,134 @@
+// android/app/src/main/java/com/saveyourchild/OverlayChannel.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process channel from AppMonitorService to the overlay layer.
+ *
+ * Messages are pooled android.os.Message objects delivered on the main looper,
+ * where OverlayController runs. They carry only a package name: the app data
+ * (including the Base64 icon) is looked up by reference in SessionStore, so
+ * nothing is serialized and nothing is bounded by the binder transaction buffer.
+ */
+public final class OverlayChannel implements Handler.Callback {
+
+    private static final String TAG = "OverlayChannel";
+
+    static final int MSG_SHOW = 1;  // arg1 = Screen ordinal, arg2 = RendererType ordinal, obj = packageName
+    static final int MSG_HIDE = 2;
+    static final int MSG_PING = 3;  // obj = Long send time in elapsedRealtimeNanos (benchmark only)
+
+    // What the service's shows render with, and so what OverlayPrewarmer warms
+    static final OverlayController.RendererType DEFAULT_RENDERER = OverlayController.RendererType.WEBVIEW;
+
+    private static final OverlayContent.Screen[] SCREENS = OverlayContent.Screen.values();
+    private static final OverlayController.RendererType[] RENDERERS = OverlayController.RendererType.values();
+
+    private static OverlayChannel instance;
+
+    private final Handler handler;
+    private final OverlayController controller;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong missingPayloadCount = new AtomicLong();
+    // Time a command waited in the main looper's queue, at millisecond resolution
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+
+    private OverlayChannel(Context context) {
+        this.handler = new Handler(Looper.getMainLooper(), this);
+        this.controller = OverlayController.getInstance(context);
+    }
+
+    public static synchronized OverlayChannel getInstance(Context context) {
+        if (instance == null) {
+            instance = new OverlayChannel(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public void sendShow(OverlayContent.Screen screen, String packageName) {
+        sendShow(screen, DEFAULT_RENDERER, packageName);
+    }
+
+    public void sendShow(OverlayContent.Screen screen, OverlayController.RendererType renderer, String packageName) {
+        sentCount.incrementAndGet();
+        Message.obtain(handler, MSG_SHOW, screen.ordinal(), renderer.ordinal(), packageName).sendToTarget();
+    }
+
+    public void sendHide() {
+        sentCount.incrementAndGet();
+        Message.obtain(handler, MSG_HIDE).sendToTarget();
+    }
+
+    void sendPing(long sentAtNanos) {
+        Message.obtain(handler, MSG_PING, sentAtNanos).sendToTarget();
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    public long getMissingPayloadCount() {
+        return missingPayloadCount.get();
+    }
+
+    /** Commands sent but not yet handled on the main thread. */
+    public long getPendingCount() {
+        return Math.max(0, sentCount.get() - deliveredCount.get());
+    }
+
+    LatencyHistogram getDeliveryLatency() {
+        return deliveryLatency;
+    }
+
+    @Override
+    public boolean handleMessage(Message msg) {
+        switch (msg.what) {
+            case MSG_SHOW: {
+                onDelivered(msg);
+                String packageName = (String) msg.obj;
+                JSONObject appData = SessionStore.getAppData(packageName);
+                if (appData == null) {
+                    // Session changed between decision and delivery
+                    missingPayloadCount.incrementAndGet();
+                    Log.w(TAG, "⚠️ No session data for: " + packageName);
+                    return true;
+                }
+                controller.showInternal(RENDERERS[msg.arg2], new OverlayContent(SCREENS[msg.arg1], appData));
+                return true;
+            }
+
+            case MSG_HIDE:
+                onDelivered(msg);
+                controller.hideInternal();
+                return true;
+
+            case MSG_PING:
+                OverlayDispatchBenchmark.onChannelArrived((Long) msg.obj);
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    private void onDelivered(Message msg) {
+        deliveredCount.incrementAndGet();
+        deliveryLatency.record((SystemClock.uptimeMillis() - msg.getWhen()) * 1000);
+    }
+}
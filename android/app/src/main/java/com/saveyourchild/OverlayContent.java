@@ -0,0 +1,66 @@
+// android/app/src/main/java/com/saveyourchild/OverlayContent.java
+package com.saveyourchild;
+
+import org.json.JSONObject;
+
+/**
+ * What an overlay should display: which screen, for which app, with the app's
+ * session data. Renderers only read from it.
+ */
+public final class OverlayContent {
+
+    public enum Screen {
+        ACCESS, // accessScreen.html - pick access and lock time
+        LOCK    // lockscreen.html - countdown until lockUpToTime
+    }
+
+    public final Screen screen;
+    public final String packageName;
+    public final String appName;
+    public final JSONObject appData;
+    public final long lockUpToMillis;   // parsed once, 0 when unset
+    final boolean synthetic;            // leak check / benchmark content, kept out of InterventionLog
+
+    public OverlayContent(Screen screen, JSONObject appData) {
+        this(screen, appData, false);
+    }
+
+    OverlayContent(Screen screen, JSONObject appData, boolean synthetic) {
+        this.synthetic = synthetic;
+        this.screen = screen;
+        this.appData = appData;
+        this.packageName = appData.optString("packageName", "");
+        this.appName = appData.optString("appName", "Unknown App");
+        this.lockUpToMillis = SessionClock.parseIsoMillis(appData.optString("lockUpToTime", ""));
+    }
+
+    /** Maps the legacy "showAccessScreen" / "showLockScreen" intent values, null if unknown. */
+    public static OverlayContent fromAppState(String appState, JSONObject appData) {
+        if ("showAccessScreen".equalsIgnoreCase(appState)) {
+            return new OverlayContent(Screen.ACCESS, appData);
+        } else if ("showLockScreen".equalsIgnoreCase(appState)) {
+            return new OverlayContent(Screen.LOCK, appData);
+        }
+        return null;
+    }
+
+    /** True when both would render identically: same screen, app and session timing. */
+    public boolean isSameAs(OverlayContent other) {
+        return other != null
+                && screen == other.screen
+                && packageName.equals(other.packageName)
+                && appData.optString("accessEndTime", "").equals(other.appData.optString("accessEndTime", ""))
+                && appData.optString("lockUpToTime", "").equals(other.appData.optString("lockUpToTime", ""));
+    }
+
+    /** Whole minutes left until lockUpToTime, rounded up; 0 when unknown or already passed. */
+    public int getRemainingLockMinutes() {
+        long remainingMillis = getRemainingLockMillis(System.currentTimeMillis());
+        return (int) ((remainingMillis + 59_999) / 60_000);
+    }
+
+    /** Millis left until lockUpToTime at nowMillis; 0 when unknown or already passed. */
+    public long getRemainingLockMillis(long nowMillis) {
+        return lockUpToMillis > nowMillis ? lockUpToMillis - nowMillis : 0;
+    }
+}
@@ -0,0 +1,600 @@
+// android/app/src/main/java/com/saveyourchild/OverlayController.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.PixelFormat;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.provider.Settings;
+import android.util.Log;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.WindowManager;
+import android.widget.FrameLayout;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single owner of the blocking overlay window.
+ *
+ * The window is added to the WindowManager once and then only made visible or
+ * invisible; renderers (native views, WebView, React) are swapped inside it
+ * without tearing it down. Every state change runs on the main looper, so the
+ * HIDDEN → SHOWING → SHOWN → HIDING → HIDDEN machine has exactly one writer.
+ * While the screen is off a visible overlay is paused: the renderer stops its
+ * animations and timers and the auto-hide timeout is frozen until screen-on.
+ */
+public final class OverlayController {
+
+    private static final String TAG = "OverlayController";
+    private static final long OVERLAY_TIMEOUT = 30_000; // 30 seconds
+
+    public enum State { HIDDEN, SHOWING, SHOWN, HIDING }
+
+    public enum RendererType { NATIVE, WEBVIEW, REACT }
+
+    private static OverlayController instance;
+
+    private final Context context;
+    private final Handler mainHandler;
+    private final WindowManager windowManager;
+    private final EnumMap<RendererType, OverlayRenderer> renderers = new EnumMap<>(RendererType.class);
+
+    private FrameLayout rootView;
+    private WindowManager.LayoutParams params;
+    private OverlayRenderer activeRenderer;
+    private OverlayContent currentContent;
+    private volatile State state = State.HIDDEN;
+    private long showRequestedAt;
+    private int showTraceCookie;   // open syc.overlay.show async section, 0 when none
+    private long timeoutAt;                 // uptimeMillis of the pending auto-hide
+    private long pausedTimeoutRemaining;    // auto-hide left when the screen went off
+    private boolean paused = false;
+    private OverlayContent prewarmedContent;   // what the hidden window is warmed for, null when none
+    private boolean showPrewarmed = false;     // the show in progress found its content pre-warmed
+
+    // The intervention on screen, written to InterventionLog when it ends
+    private final InterventionLog interventionLog;
+    private OverlayContent intervention;     // null when none is open
+    private long interventionStartedAt;      // epoch millis of its show request
+    private long interventionRequestedAt;    // elapsedRealtime of its show request
+    private long interventionShownAt;        // elapsedRealtime its content got on screen, 0 before
+
+    // Metrics
+    private final AtomicLong showCount = new AtomicLong();
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong duplicateShowCount = new AtomicLong();
+    private final AtomicLong hideCount = new AtomicLong();
+    private final AtomicLong shownCount = new AtomicLong();
+    private final AtomicLong rendererSwitchCount = new AtomicLong();
+    private final AtomicLong windowAttachCount = new AtomicLong();
+    private final AtomicLong lastShowLatencyMs = new AtomicLong();
+    private final AtomicLong totalShowLatencyMs = new AtomicLong();
+    private final AtomicLong screenOffPauseCount = new AtomicLong();
+    private final LatencyHistogram showLatency = new LatencyHistogram();
+    private final FrameTimingProbe frameProbe;
+
+    private final Runnable timeoutRunnable = () -> {
+        if (state == State.SHOWN) {
+            Log.w(TAG, "⚠️ Overlay timeout for: " + currentAppName());
+            // Send user to Home screen so the target app goes to background, then hide
+            goHome();
+            hideInternal(InterventionRecord.OUTCOME_TIMED_OUT);
+        }
+    };
+
+    private final ScreenStateMonitor.Listener screenListener = new ScreenStateMonitor.Listener() {
+        @Override
+        public void onScreenOff() {
+            pauseForScreenOff();
+        }
+
+        @Override
+        public void onScreenOn() {
+            resumeAfterScreenOn();
+        }
+
+        @Override
+        public void onUserPresent() {}
+    };
+
+    private OverlayController(Context context) {
+        this.context = context;
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        this.interventionLog = InterventionLog.getInstance(context);
+        this.frameProbe = new FrameTimingProbe(context);
+        PerfTrace.init(context);
+        SessionStore.init(context);
+    }
+
+    public static synchronized OverlayController getInstance(Context context) {
+        if (instance == null) {
+            instance = new OverlayController(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // ---- Commands (any thread) ----
+
+    public void show(RendererType type, OverlayContent content) {
+        mainHandler.post(() -> showInternal(type, content));
+    }
+
+    public void update(OverlayContent content) {
+        mainHandler.post(() -> updateInternal(content));
+    }
+
+    public void hide() {
+        mainHandler.post(this::hideInternal);
+    }
+
+    /**
+     * Attaches the (hidden) window and has the renderer load content ahead of a
+     * likely show. Ignored unless the overlay is hidden. See OverlayPrewarmer.
+     */
+    public void prewarm(RendererType type, OverlayContent content) {
+        mainHandler.post(() -> prewarmInternal(type, content));
+    }
+
+    /** The pre-warm went unused; the renderer gives back what it loaded for it. */
+    public void releasePrewarm() {
+        mainHandler.post(this::releasePrewarmInternal);
+    }
+
+    /** Removes the window and releases every renderer, e.g. when the monitor service goes away. */
+    public void release() {
+        mainHandler.post(this::releaseInternal);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isVisible() {
+        State current = state;
+        return current == State.SHOWING || current == State.SHOWN;
+    }
+
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        long shown = shownCount.get();
+        metrics.put("showCount", showCount.get());
+        metrics.put("updateCount", updateCount.get());
+        metrics.put("duplicateShowCount", duplicateShowCount.get());
+        metrics.put("hideCount", hideCount.get());
+        metrics.put("shownCount", shown);
+        metrics.put("rendererSwitchCount", rendererSwitchCount.get());
+        metrics.put("windowAttachCount", windowAttachCount.get());
+        metrics.put("lastShowLatencyMs", lastShowLatencyMs.get());
+        metrics.put("avgShowLatencyMs", shown == 0 ? 0 : totalShowLatencyMs.get() / shown);
+        metrics.put("screenOffPauseCount", screenOffPauseCount.get());
+        metrics.put("deviceTier", (long) DeviceTier.getInstance(context).getTier().ordinal());
+        metrics.putAll(frameProbe.getMetrics());
+        metrics.putAll(OverlayWebViewManager.getMetrics());
+        return metrics;
+    }
+
+    /** Show request → content on screen, for the diagnostics dump. */
+    LatencyHistogram getShowLatency() {
+        return showLatency;
+    }
+
+    // ---- State machine (main thread only) ----
+
+    void showInternal(RendererType type, OverlayContent content) {
+        if (!Settings.canDrawOverlays(context)) {
+            Log.e(TAG, "❌ Overlay permission not granted!");
+            if (!content.synthetic) {
+                interventionLog.record(content.packageName, interventionState(content),
+                        InterventionRecord.OUTCOME_FAILED, System.currentTimeMillis(), -1, 0);
+            }
+            return;
+        }
+
+        showCount.incrementAndGet();
+
+        if (isVisible()) {
+            if (content.isSameAs(currentContent)) {
+                // Same app re-reported by the accessibility service - nothing to redraw
+                duplicateShowCount.incrementAndGet();
+                return;
+            }
+            // Already on screen: new app, new countdown or access→lock, updated in place
+            Log.d(TAG, "🔁 Overlay already visible, updating in place for: " + content.appName);
+            updateCount.incrementAndGet();
+            if (intervention == null || !intervention.packageName.equals(content.packageName)
+                    || intervention.screen != content.screen) {
+                closeIntervention(InterventionRecord.OUTCOME_DISMISSED);
+                openIntervention(content);
+            }
+            switchRenderer(type);
+            bindContent(content);
+            return;
+        }
+
+        try {
+            state = State.SHOWING;
+            showRequestedAt = SystemClock.elapsedRealtime();
+            showTraceCookie = PerfTrace.beginAsync(PerfTrace.OVERLAY_SHOW);
+            openIntervention(content);
+            // Consumed either way: bind() takes over whatever the renderer pre-loaded
+            prewarmedContent = null;
+            showPrewarmed = !content.synthetic
+                    && OverlayPrewarmer.getInstance(context).onShowRequested(content.packageName, content.screen);
+
+            ensureWindow();
+            switchRenderer(type);
+            bindContent(content);
+            setWindowVisible(true);
+
+            Log.d(TAG, "🔐 Showing " + content.screen + " overlay for: " + content.appName);
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error showing overlay: " + e.getMessage());
+            showTraceCookie = PerfTrace.endAsync(PerfTrace.OVERLAY_SHOW, showTraceCookie);
+            closeIntervention(InterventionRecord.OUTCOME_FAILED);
+            state = State.HIDDEN;
+        }
+    }
+
+    private void updateInternal(OverlayContent content) {
+        if (!isVisible()) {
+            Log.d(TAG, "⏭️ Update ignored, overlay not visible");
+            return;
+        }
+        updateCount.incrementAndGet();
+        bindContent(content);
+    }
+
+    void hideInternal() {
+        hideInternal(InterventionRecord.OUTCOME_DISMISSED);
+    }
+
+    /** outcome is how the intervention on screen ended, an InterventionRecord.OUTCOME_*. */
+    private void hideInternal(byte outcome) {
+        if (state == State.HIDDEN || state == State.HIDING) {
+            return;
+        }
+        closeIntervention(outcome);
+
+        state = State.HIDING;
+        mainHandler.removeCallbacks(timeoutRunnable);
+        pausedTimeoutRemaining = 0;
+        hideCount.incrementAndGet();
+        frameProbe.stop();
+        // Hidden before its content was ever on screen
+        showTraceCookie = PerfTrace.endAsync(PerfTrace.OVERLAY_SHOW, showTraceCookie);
+
+        try {
+            setWindowVisible(false);
+            if (activeRenderer != null) {
+                if (paused) {
+                    activeRenderer.resume();
+                    paused = false;
+                }
+                activeRenderer.reset();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error hiding overlay: " + e.getMessage());
+        }
+
+        Log.d(TAG, "🫥 Overlay hidden for: " + currentAppName());
+        currentContent = null;
+        state = State.HIDDEN;
+    }
+
+    private void prewarmInternal(RendererType type, OverlayContent content) {
+        if (state != State.HIDDEN || !Settings.canDrawOverlays(context)) {
+            return;
+        }
+        try {
+            ensureWindow();
+            switchRenderer(type);
+            activeRenderer.prewarm(content);
+            prewarmedContent = content;
+            Log.d(TAG, "🔥 Pre-warmed " + content.screen + " overlay for: " + content.appName);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error pre-warming overlay: " + e.getMessage());
+        }
+    }
+
+    private void releasePrewarmInternal() {
+        // A show since then consumed it
+        if (prewarmedContent == null || state != State.HIDDEN) {
+            return;
+        }
+        prewarmedContent = null;
+        if (activeRenderer != null) {
+            activeRenderer.releasePrewarm();
+        }
+        Log.d(TAG, "🧊 Pre-warm released");
+    }
+
+    private void releaseInternal() {
+        hideInternal();
+        prewarmedContent = null;
+        ScreenStateMonitor.getInstance(context).removeListener(screenListener);
+
+        for (OverlayRenderer renderer : renderers.values()) {
+            renderer.release();
+        }
+        renderers.clear();
+        activeRenderer = null;
+
+        if (rootView != null) {
+            try {
+                windowManager.removeView(rootView);
+            } catch (IllegalArgumentException ignored) {}
+            rootView = null;
+        }
+        Log.d(TAG, "💀 Overlay window released");
+    }
+
+    private void bindContent(OverlayContent content) {
+        currentContent = content;
+        mainHandler.removeCallbacks(timeoutRunnable);
+
+        final OverlayRenderer renderer = activeRenderer;
+        renderer.bind(content, () -> mainHandler.post(() -> onContentReady(renderer, content)));
+    }
+
+    private void onContentReady(OverlayRenderer renderer, OverlayContent content) {
+        // A newer bind or a hide happened in between - this callback is stale
+        if (renderer != activeRenderer || content != currentContent || !isVisible()) {
+            return;
+        }
+        if (intervention != null && interventionShownAt == 0) {
+            interventionShownAt = SystemClock.elapsedRealtime();
+        }
+
+        if (state == State.SHOWING) {
+            state = State.SHOWN;
+            long latency = SystemClock.elapsedRealtime() - showRequestedAt;
+            lastShowLatencyMs.set(latency);
+            totalShowLatencyMs.addAndGet(latency);
+            showLatency.record(latency * 1000);
+            shownCount.incrementAndGet();
+            if (!content.synthetic) {
+                OverlayPrewarmer.getInstance(context).onShown(showPrewarmed, latency);
+            }
+            showTraceCookie = PerfTrace.endAsync(PerfTrace.OVERLAY_SHOW, showTraceCookie);
+            StartupTrace.mark(StartupTrace.FIRST_ENFORCEMENT);
+            frameProbe.start(DeviceTier.getInstance(context).getTier());
+            Log.d(TAG, "✅ Overlay shown in " + latency + "ms for: " + content.appName);
+        }
+
+        armTimeout(OVERLAY_TIMEOUT);
+    }
+
+    private void armTimeout(long delayMs) {
+        mainHandler.removeCallbacks(timeoutRunnable);
+        if (paused) {
+            // Bound while the screen is off - start counting at screen-on
+            pausedTimeoutRemaining = delayMs;
+            return;
+        }
+        timeoutAt = SystemClock.uptimeMillis() + delayMs;
+        mainHandler.postDelayed(timeoutRunnable, delayMs);
+    }
+
+    // ---- Intervention log ----
+
+    private void openIntervention(OverlayContent content) {
+        if (content.synthetic) {
+            return;
+        }
+        intervention = content;
+        interventionStartedAt = System.currentTimeMillis();
+        interventionRequestedAt = SystemClock.elapsedRealtime();
+        interventionShownAt = 0;
+    }
+
+    private void closeIntervention(byte outcome) {
+        OverlayContent content = intervention;
+        if (content == null) {
+            return;
+        }
+        intervention = null;
+        boolean shown = interventionShownAt != 0;
+        int timeToOverlay = shown ? (int) (interventionShownAt - interventionRequestedAt) : -1;
+        int onScreen = shown ? (int) (SystemClock.elapsedRealtime() - interventionShownAt) : 0;
+        interventionLog.record(content.packageName, interventionState(content), outcome,
+                interventionStartedAt, timeToOverlay, onScreen);
+    }
+
+    private static byte interventionState(OverlayContent content) {
+        return content.screen == OverlayContent.Screen.LOCK
+                ? InterventionRecord.STATE_LOCK : InterventionRecord.STATE_ACCESS;
+    }
+
+    // ---- Screen state ----
+
+    private void pauseForScreenOff() {
+        if (!isVisible() || paused) {
+            return;
+        }
+        paused = true;
+        screenOffPauseCount.incrementAndGet();
+
+        // Freeze the auto-hide instead of letting it fire while nobody is looking
+        mainHandler.removeCallbacks(timeoutRunnable);
+        pausedTimeoutRemaining = state == State.SHOWN
+                ? Math.max(0, timeoutAt - SystemClock.uptimeMillis())
+                : 0;
+        if (activeRenderer != null) {
+            activeRenderer.pause();
+        }
+        frameProbe.pause();
+        Log.d(TAG, "🌙 Overlay paused for: " + currentAppName());
+    }
+
+    private void resumeAfterScreenOn() {
+        if (!paused) {
+            return;
+        }
+        paused = false;
+        if (activeRenderer != null) {
+            activeRenderer.resume();
+        }
+        frameProbe.resume();
+        // Re-arm only the one pending boundary
+        if (state == State.SHOWN && pausedTimeoutRemaining > 0) {
+            armTimeout(pausedTimeoutRemaining);
+        }
+        pausedTimeoutRemaining = 0;
+        Log.d(TAG, "☀️ Overlay resumed for: " + currentAppName());
+    }
+
+    // ---- Window and renderers ----
+
+    private void ensureWindow() {
+        if (rootView != null) {
+            return;
+        }
+
+        rootView = new FrameLayout(context);
+        rootView.setVisibility(View.GONE);
+
+        params = new WindowManager.LayoutParams();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            params.type = WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY;
+        } else {
+            params.type = WindowManager.LayoutParams.TYPE_PHONE;
+        }
+        params.width = WindowManager.LayoutParams.MATCH_PARENT;
+        params.height = WindowManager.LayoutParams.MATCH_PARENT;
+        params.gravity = Gravity.TOP | Gravity.LEFT;
+        params.flags = WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE
+                | WindowManager.LayoutParams.FLAG_NOT_TOUCH_MODAL
+                | WindowManager.LayoutParams.FLAG_LAYOUT_IN_SCREEN
+                | WindowManager.LayoutParams.FLAG_FULLSCREEN
+                | WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE;
+        params.format = PixelFormat.TRANSLUCENT;
+        params.alpha = 0f;
+
+        boolean traced = PerfTrace.begin(PerfTrace.OVERLAY_ADD_VIEW);
+        try {
+            windowManager.addView(rootView, params);
+        } finally {
+            PerfTrace.end(traced);
+        }
+        windowAttachCount.incrementAndGet();
+        ScreenStateMonitor.getInstance(context).addListener(screenListener);
+        StartupTrace.mark(StartupTrace.OVERLAY_ATTACHED);
+        Log.d(TAG, "✅ Overlay window attached");
+    }
+
+    // While hidden the window stays attached but fully transparent and untouchable,
+    // which also keeps Android 12+ from treating it as an obscuring window.
+    private void setWindowVisible(boolean visible) {
+        if (rootView == null) {
+            return;
+        }
+
+        rootView.setVisibility(visible ? View.VISIBLE : View.GONE);
+        params.alpha = visible ? 1f : 0f;
+        if (visible) {
+            params.flags &= ~WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE;
+        } else {
+            params.flags |= WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE;
+        }
+        windowManager.updateViewLayout(rootView, params);
+    }
+
+    private void switchRenderer(RendererType requested) {
+        RendererType type = requested;
+        if (type == RendererType.REACT && !ReactOverlayRenderer.isAvailable(context)) {
+            // Never wait for or start React Native from here: the native renderer draws the same screens
+            Log.d(TAG, "⚡ React Native context not ready, using native renderer");
+            type = RendererType.NATIVE;
+        }
+
+        OverlayRenderer next = renderers.get(type);
+        if (next == null) {
+            next = createRenderer(type);
+            renderers.put(type, next);
+        }
+        if (next == activeRenderer) {
+            return;
+        }
+
+        if (activeRenderer != null) {
+            activeRenderer.reset();
+            rootView.removeView(activeRenderer.getView());
+            rendererSwitchCount.incrementAndGet();
+        }
+
+        rootView.addView(next.getView(), new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        activeRenderer = next;
+        Log.d(TAG, "🎨 Renderer switched to: " + type);
+    }
+
+    private OverlayRenderer createRenderer(RendererType type) {
+        switch (type) {
+            case WEBVIEW:
+                return new WebViewOverlayRenderer(context, this);
+            case REACT:
+                return new ReactOverlayRenderer(context);
+            case NATIVE:
+            default:
+                return new NativeOverlayRenderer(context, this);
+        }
+    }
+
+    // ---- Renderer callbacks (any thread) ----
+
+    void onFocusSessionStart(String sessionJson) {
+        mainHandler.post(() -> {
+            try {
+                JSONObject sess = new JSONObject(sessionJson);
+                String pkg = sess.getString("packageName");
+                SessionStore.updateApp(pkg, sessionJson);
+            } catch (JSONException e) {
+                Log.e(TAG, "Bad session JSON", e);
+            }
+            hideInternal(InterventionRecord.OUTCOME_SESSION_STARTED);
+        });
+    }
+
+    void onCancel() {
+        Log.d(TAG, "Session canceled for: " + currentAppName());
+        mainHandler.post(() -> {
+            goHome();
+            hideInternal(InterventionRecord.OUTCOME_CANCELLED);
+        });
+    }
+
+    void onTimeUp() {
+        Log.d(TAG, "⏰ Time completed");
+        mainHandler.post(() -> hideInternal(InterventionRecord.OUTCOME_LOCK_ENDED));
+    }
+
+    private void goHome() {
+        try {
+            Intent homeIntent = new Intent(Intent.ACTION_MAIN);
+            homeIntent.addCategory(Intent.CATEGORY_HOME);
+            homeIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+            context.startActivity(homeIntent);
+            Log.d(TAG, "✅ Navigated to home screen");
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error navigating to home: " + e.getMessage());
+        }
+    }
+
+    private String currentAppName() {
+        OverlayContent content = currentContent;
+        return content != null ? content.appName : "";
+    }
+}
@@ -0,0 +1,158 @@
+// android/app/src/main/java/com/saveyourchild/OverlayDispatchBenchmark.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of overlay dispatch latency: the old path (startService with the
+ * app JSON, icon included, as an intent extra) against OverlayChannel (pooled
+ * Message with a package name). Each sample is one round trip from send to arrival
+ * on the receiving side; nothing is shown on screen.
+ *
+ * Run from JS with AppMonitorModule.runOverlayDispatchBenchmark(iterations).
+ */
+public final class OverlayDispatchBenchmark {
+
+    private static final String TAG = "OverlayDispatchBench";
+    static final String EXTRA_SENT_AT = "benchmarkSentAtNanos";
+    private static final long ARRIVAL_TIMEOUT_MS = 2_000;
+
+    public interface Callback {
+        void onResult(Map<String, Double> result);
+    }
+
+    private static volatile CountDownLatch arrival;
+    private static volatile long lastLatencyNanos;
+
+    private OverlayDispatchBenchmark() {}
+
+    /** Runs both paths on a background thread and reports p50/p95/max in microseconds. */
+    public static void run(Context context, int iterations, Callback callback) {
+        final Context appContext = context.getApplicationContext();
+        HandlerThread thread = new HandlerThread(TAG);
+        thread.start();
+        new Handler(thread.getLooper()).post(() -> {
+            try {
+                String payload = samplePayload();
+                long[] intentSamples = new long[iterations];
+                long[] channelSamples = new long[iterations];
+                int intentCount = 0;
+                int channelCount = 0;
+
+                for (int i = 0; i < iterations; i++) {
+                    long latency = dispatchViaIntent(appContext, payload);
+                    if (latency >= 0) intentSamples[intentCount++] = latency;
+
+                    latency = dispatchViaChannel(appContext);
+                    if (latency >= 0) channelSamples[channelCount++] = latency;
+                }
+
+                Map<String, Double> result = new LinkedHashMap<>();
+                result.put("payloadBytes", (double) payload.length());
+                putPercentiles(result, "intent", intentSamples, intentCount);
+                putPercentiles(result, "channel", channelSamples, channelCount);
+                Log.i(TAG, "📊 Dispatch latency: " + result);
+                callback.onResult(result);
+
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Benchmark failed: " + e.getMessage());
+                callback.onResult(new LinkedHashMap<>());
+            } finally {
+                thread.quitSafely();
+            }
+        });
+    }
+
+    // Called by OverlayAccessService when it receives a benchmark intent
+    static void onIntentArrived(long sentAtNanos) {
+        arrived(sentAtNanos);
+    }
+
+    // Called by OverlayChannel when it receives MSG_PING
+    static void onChannelArrived(long sentAtNanos) {
+        arrived(sentAtNanos);
+    }
+
+    private static void arrived(long sentAtNanos) {
+        lastLatencyNanos = SystemClock.elapsedRealtimeNanos() - sentAtNanos;
+        CountDownLatch latch = arrival;
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    private static long dispatchViaIntent(Context context, String payload) throws InterruptedException {
+        arrival = new CountDownLatch(1);
+        Intent intent = new Intent(context, OverlayAccessService.class);
+        intent.putExtra("appData", payload);
+        intent.putExtra("appState", "showLockScreen");
+        intent.putExtra(EXTRA_SENT_AT, SystemClock.elapsedRealtimeNanos());
+        context.startService(intent);
+        return awaitArrival();
+    }
+
+    private static long dispatchViaChannel(Context context) throws InterruptedException {
+        arrival = new CountDownLatch(1);
+        OverlayChannel.getInstance(context).sendPing(SystemClock.elapsedRealtimeNanos());
+        return awaitArrival();
+    }
+
+    private static long awaitArrival() throws InterruptedException {
+        if (!arrival.await(ARRIVAL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            Log.w(TAG, "⚠️ Dispatch did not arrive in time");
+            return -1;
+        }
+        return lastLatencyNanos;
+    }
+
+    // Largest real app entry (icon included) if a session exists, otherwise an icon-sized stand-in
+    private static String samplePayload() {
+        try {
+            JSONObject session = new JSONObject(SessionStore.getActiveSession());
+            String largest = null;
+            Iterator<String> keys = session.keys();
+            while (keys.hasNext()) {
+                String entry = session.getJSONObject(keys.next()).toString();
+                if (largest == null || entry.length() > largest.length()) {
+                    largest = entry;
+                }
+            }
+            if (largest != null) {
+                return largest;
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ Using synthetic payload: " + e.getMessage());
+        }
+
+        char[] icon = new char[20_000];
+        Arrays.fill(icon, 'A');
+        return "{\"packageName\":\"com.example.benchmark\",\"appName\":\"Benchmark\","
+                + "\"icon\":\"data:image/png;base64," + new String(icon) + "\"}";
+    }
+
+    private static void putPercentiles(Map<String, Double> result, String prefix, long[] samples, int count) {
+        result.put(prefix + "Samples", (double) count);
+        if (count == 0) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        result.put(prefix + "P50Us", sorted[count / 2] / 1000.0);
+        result.put(prefix + "P95Us", sorted[Math.min(count - 1, (int) (count * 0.95))] / 1000.0);
+        result.put(prefix + "MaxUs", sorted[count - 1] / 1000.0);
+    }
+}
@@ -0,0 +1,143 @@
+// android/app/src/main/java/com/saveyourchild/OverlayLeakCheck.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.provider.Settings;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Steady-state heap check for the overlay: cycles OverlayController through
+ * show → shown → hide with a real renderer and compares the Java and native heap
+ * after a GC before and after the measured cycles. A renderer that keeps a WebView,
+ * a bitmap or a bound payload per show shows up as growth per cycle.
+ *
+ * Needs the overlay permission; the overlay flashes on screen while it runs.
+ * Run from JS with AppMonitorModule.runOverlayLeakCheck(cycles, renderer).
+ */
+public final class OverlayLeakCheck {
+
+    private static final String TAG = "OverlayLeakCheck";
+    private static final int WARMUP_CYCLES = 3;
+    private static final long STATE_TIMEOUT_MS = 3_000;
+    private static final long POLL_MS = 20;
+    // Growth per cycle above this after warm-up is reported as a leak
+    private static final long LEAK_THRESHOLD_BYTES_PER_CYCLE = 4 * 1024;
+
+    public interface Callback {
+        void onResult(Map<String, Double> result);
+    }
+
+    private OverlayLeakCheck() {}
+
+    public static void run(Context context, int cycles, OverlayController.RendererType renderer, Callback callback) {
+        final Context appContext = context.getApplicationContext();
+        if (!Settings.canDrawOverlays(appContext)) {
+            Log.e(TAG, "❌ Overlay permission not granted");
+            callback.onResult(new LinkedHashMap<>());
+            return;
+        }
+        HandlerThread thread = new HandlerThread(TAG);
+        thread.start();
+        new Handler(thread.getLooper()).post(() -> {
+            Map<String, Double> result = new LinkedHashMap<>();
+            try {
+                OverlayController controller = OverlayController.getInstance(appContext);
+                OverlayContent content = new OverlayContent(OverlayContent.Screen.LOCK, sampleAppData(), true);
+
+                int failed = 0;
+                for (int i = 0; i < WARMUP_CYCLES; i++) {
+                    if (!cycle(controller, renderer, content)) failed++;
+                }
+                long javaBefore = settledJavaHeap();
+                long nativeBefore = Debug.getNativeHeapAllocatedSize();
+
+                for (int i = 0; i < cycles; i++) {
+                    if (!cycle(controller, renderer, content)) failed++;
+                }
+                long javaGrowth = settledJavaHeap() - javaBefore;
+                long nativeGrowth = Debug.getNativeHeapAllocatedSize() - nativeBefore;
+                long perCycle = cycles > 0 ? (javaGrowth + nativeGrowth) / cycles : 0;
+
+                result.put("cycles", (double) cycles);
+                result.put("failedCycles", (double) failed);
+                result.put("javaHeapGrowthKb", javaGrowth / 1024.0);
+                result.put("nativeHeapGrowthKb", nativeGrowth / 1024.0);
+                result.put("growthPerCycleBytes", (double) perCycle);
+                result.put("leakSuspected", perCycle > LEAK_THRESHOLD_BYTES_PER_CYCLE ? 1.0 : 0.0);
+                Log.i(TAG, "📊 " + renderer + " show/hide: " + result);
+
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Leak check failed: " + e.getMessage());
+            } finally {
+                callback.onResult(result);
+                thread.quitSafely();
+            }
+        });
+    }
+
+    // One show until SHOWN, then hide until HIDDEN; false when either timed out
+    private static boolean cycle(OverlayController controller, OverlayController.RendererType renderer,
+                                 OverlayContent content) throws InterruptedException {
+        controller.show(renderer, content);
+        boolean shown = awaitState(controller, OverlayController.State.SHOWN);
+        controller.hide();
+        boolean hidden = awaitState(controller, OverlayController.State.HIDDEN);
+        return shown && hidden;
+    }
+
+    private static boolean awaitState(OverlayController controller, OverlayController.State expected)
+            throws InterruptedException {
+        long deadline = SystemClock.elapsedRealtime() + STATE_TIMEOUT_MS;
+        while (controller.getState() != expected) {
+            if (SystemClock.elapsedRealtime() > deadline) {
+                Log.w(TAG, "⚠️ Overlay did not reach " + expected);
+                return false;
+            }
+            Thread.sleep(POLL_MS);
+        }
+        return true;
+    }
+
+    private static long settledJavaHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            System.runFinalization();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Icon-sized payload so a retained copy per cycle is visible above the noise
+    private static JSONObject sampleAppData() throws Exception {
+        char[] icon = new char[20_000];
+        Arrays.fill(icon, 'A');
+        long now = System.currentTimeMillis();
+        JSONObject appData = new JSONObject();
+        appData.put("packageName", "com.example.leakcheck");
+        appData.put("appName", "Leak Check");
+        appData.put("icon", "data:image/png;base64," + new String(icon));
+        appData.put("lockUpToTime", isoTime(now + 60 * 60_000));
+        return appData;
+    }
+
+    private static String isoTime(long millis) {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return sdf.format(new Date(millis));
+    }
+}
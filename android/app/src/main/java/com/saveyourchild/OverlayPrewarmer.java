@@ -0,0 +1,453 @@
+// android/app/src/main/java/com/saveyourchild/OverlayPrewarmer.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the overlay for the app the child is likely to open next, so the first
+ * block after idle doesn't pay for the window attach, page load and data
+ * injection.
+ *
+ * AppMonitorService reports the window changes it receives, which are only those
+ * of monitored apps and launchers (AccessibilityEventFilter), plus the active
+ * window read on unlock. It never sees a switch between two unwatched apps, so
+ * nothing here tracks "the" foreground app. Each reported monitored app is a
+ * launch for LaunchPredictor, which counts one per app and hour anyway. A
+ * launcher, or an unlock into anything but a monitored app, triggers an
+ * evaluation. When a monitored app that is currently locked or
+ * awaiting access setup has a launch probability of at least thresholdPct for
+ * the next LOOKAHEAD_MS, OverlayController loads that app's screen into the
+ * hidden window. A show for it within holdMs is a hit. A different show, the
+ * hold running out or the screen going off is a miss, and the renderer gives
+ * back what it loaded.
+ *
+ * The budget (persisted, see setBudget) caps the work: evaluations at most every
+ * minEvaluateIntervalMs, at most maxPrewarmsPerHour pre-warms, and a model of at
+ * most maxApps apps (LaunchPredictor.BYTES_PER_APP each). Off by default on LOW
+ * tier devices. Main thread only, apart from getMetrics/getBudget/setBudget.
+ */
+public final class OverlayPrewarmer {
+
+    private static final String TAG = "OverlayPrewarmer";
+    private static final String PREFS = "overlay_prewarm";
+    private static final String MODEL_FILE = "launch_model";
+    private static final long LOOKAHEAD_MS = 15 * 60_000;
+    private static final long HOUR_MS = 3_600_000L;
+
+    // Budget keys, also the keys of getBudget() and AppMonitorModule.setPrewarmBudget
+    static final String ENABLED = "enabled";
+    static final String THRESHOLD_PCT = "thresholdPct";
+    static final String HOLD_MS = "holdMs";
+    static final String MAX_PREWARMS_PER_HOUR = "maxPrewarmsPerHour";
+    static final String MIN_EVALUATE_INTERVAL_MS = "minEvaluateIntervalMs";
+    static final String MAX_APPS = "maxApps";
+
+    private static final int DEFAULT_THRESHOLD_PCT = 40;
+    private static final long DEFAULT_HOLD_MS = 120_000;
+    private static final int DEFAULT_MAX_PREWARMS_PER_HOUR = 6;
+    private static final long DEFAULT_MIN_EVALUATE_INTERVAL_MS = 30_000;
+    private static final int DEFAULT_MAX_APPS = 32;
+
+    private static OverlayPrewarmer instance;
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Handler worker;
+    private final SharedPreferences prefs;
+    private final File modelFile;
+    private final LaunchPredictor predictor;
+    private final long[] deadlines = new long[3];   // reused, main thread only
+
+    // Budget: written from the module thread, read on main
+    private volatile boolean enabled;
+    private volatile int thresholdPct;
+    private volatile long holdMs;
+    private volatile int maxPrewarmsPerHour;
+    private volatile long minEvaluateIntervalMs;
+    private volatile int maxApps;
+
+    // Main thread only
+    private String target;                   // package warmed for, null when none
+    private OverlayContent.Screen targetScreen;
+    private long lastEvaluateAt = -1;
+    private boolean modelDirty = false;
+    // Until the saved model is in, nothing is learned or saved: readFrom replaces the model
+    private boolean modelLoaded = false;
+    private final ArrayDeque<Long> recentPrewarms = new ArrayDeque<>();   // uptimeMillis
+
+    private final Runnable holdExpired = () -> miss("hold expired");
+
+    private final ScreenStateMonitor.Listener screenListener = new ScreenStateMonitor.Listener() {
+        @Override
+        public void onScreenOff() {
+            miss("screen off");
+            saveModel();
+        }
+
+        @Override
+        public void onScreenOn() {
+            // Keyguard may still be up; wait for onUserPresent
+        }
+
+        @Override
+        public void onUserPresent() {
+            // AppMonitorService calls onUserPresent with the active window instead
+        }
+    };
+
+    private final AtomicLong evaluationCount = new AtomicLong();
+    private final AtomicLong budgetSkipCount = new AtomicLong();
+    private final AtomicLong prewarmCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong launchesLearned = new AtomicLong();
+    private final AtomicLong modelApps = new AtomicLong();
+    private final AtomicLong coldShowCount = new AtomicLong();
+    private final AtomicLong coldShowTotalMs = new AtomicLong();
+    private final AtomicLong prewarmedShowCount = new AtomicLong();
+    private final AtomicLong prewarmedShowTotalMs = new AtomicLong();
+    private final LatencyHistogram evaluateLatency = new LatencyHistogram();
+
+    private OverlayPrewarmer(Context context) {
+        this.context = context;
+        this.prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        this.modelFile = new File(context.getFilesDir(), MODEL_FILE);
+        readBudget();
+        this.predictor = new LaunchPredictor(maxApps);
+        HandlerThread thread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        this.worker = new Handler(thread.getLooper());
+        worker.post(this::loadModel);
+    }
+
+    public static synchronized OverlayPrewarmer getInstance(Context context) {
+        if (instance == null) {
+            instance = new OverlayPrewarmer(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** Called by AppMonitorService once connected. */
+    void start() {
+        ScreenStateMonitor.getInstance(context).addListener(screenListener);
+    }
+
+    void stop() {
+        ScreenStateMonitor.getInstance(context).removeListener(screenListener);
+        miss("service stopped");
+        saveModel();
+    }
+
+    /**
+     * A window state change while the user is present, from a monitored app or a
+     * launcher; monitored = the app is in the session.
+     */
+    void onWindowStateChanged(String packageName, boolean monitored, long nowMillis) {
+        // Our own overlay window
+        if (packageName.equals(context.getPackageName())) {
+            return;
+        }
+        if (monitored) {
+            if (!modelLoaded) {
+                return;
+            }
+            // Activity changes inside the app too; the predictor counts one launch per hour
+            if (predictor.onLaunch(packageName, toLocal(nowMillis))) {
+                modelApps.set(predictor.size());
+                modelDirty = true;
+                launchesLearned.incrementAndGet();
+            }
+        } else {
+            // Home screen (any app while the filter is off): a good moment to guess what comes next
+            evaluate(nowMillis);
+        }
+    }
+
+    /**
+     * Back from screen-off; foregroundPackage is the active window's package, null
+     * when unreadable. Unlocking into a monitored app counts as opening it.
+     */
+    void onUserPresent(String foregroundPackage, boolean monitored, long nowMillis) {
+        if (foregroundPackage != null && monitored) {
+            onWindowStateChanged(foregroundPackage, true, nowMillis);
+        } else {
+            evaluate(nowMillis);
+        }
+    }
+
+    /** OverlayController is about to show; returns whether it was pre-warmed for exactly this. */
+    boolean onShowRequested(String packageName, OverlayContent.Screen screen) {
+        if (target == null) {
+            return false;
+        }
+        boolean hit = packageName.equals(target) && screen == targetScreen;
+        mainHandler.removeCallbacks(holdExpired);
+        target = null;
+        if (hit) {
+            hitCount.incrementAndGet();
+            Log.d(TAG, "🎯 Pre-warm hit for: " + packageName);
+        } else {
+            // The show reuses the warmed renderer anyway, nothing to release
+            missCount.incrementAndGet();
+        }
+        return hit;
+    }
+
+    /** Show request → content on screen for a show that prewarmed (or not) found ready. */
+    void onShown(boolean prewarmed, long latencyMs) {
+        if (prewarmed) {
+            prewarmedShowCount.incrementAndGet();
+            prewarmedShowTotalMs.addAndGet(latencyMs);
+        } else {
+            coldShowCount.incrementAndGet();
+            coldShowTotalMs.addAndGet(latencyMs);
+        }
+    }
+
+    // ---- Budget (any thread) ----
+
+    Map<String, Long> getBudget() {
+        Map<String, Long> budget = new LinkedHashMap<>();
+        budget.put(ENABLED, enabled ? 1L : 0L);
+        budget.put(THRESHOLD_PCT, (long) thresholdPct);
+        budget.put(HOLD_MS, holdMs);
+        budget.put(MAX_PREWARMS_PER_HOUR, (long) maxPrewarmsPerHour);
+        budget.put(MIN_EVALUATE_INTERVAL_MS, minEvaluateIntervalMs);
+        budget.put(MAX_APPS, (long) maxApps);
+        return budget;
+    }
+
+    /** Sets and persists the given budget keys; the others keep their values. Returns the budget. */
+    Map<String, Long> setBudget(Map<String, Long> values) {
+        SharedPreferences.Editor editor = prefs.edit();
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            String key = entry.getKey();
+            long value = entry.getValue();
+            if (ENABLED.equals(key)) {
+                editor.putBoolean(key, value != 0);
+            } else if (THRESHOLD_PCT.equals(key)) {
+                editor.putInt(key, (int) Math.max(1, Math.min(100, value)));
+            } else if (MAX_PREWARMS_PER_HOUR.equals(key) || MAX_APPS.equals(key)) {
+                editor.putInt(key, (int) Math.max(0, Math.min(Integer.MAX_VALUE, value)));
+            } else if (HOLD_MS.equals(key) || MIN_EVALUATE_INTERVAL_MS.equals(key)) {
+                editor.putLong(key, Math.max(0, value));
+            } else {
+                throw new IllegalArgumentException("Unknown budget key: " + key);
+            }
+        }
+        editor.apply();
+        readBudget();
+        mainHandler.post(() -> {
+            predictor.setMaxApps(maxApps);
+            modelApps.set(predictor.size());
+            if (!enabled) {
+                miss("disabled");
+            }
+        });
+        Log.i(TAG, "🔥 Pre-warm budget: " + getBudget());
+        return getBudget();
+    }
+
+    Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        long hits = hitCount.get();
+        long misses = missCount.get();
+        long cold = coldShowCount.get();
+        long warm = prewarmedShowCount.get();
+        long avgCold = cold == 0 ? 0 : coldShowTotalMs.get() / cold;
+        long avgWarm = warm == 0 ? 0 : prewarmedShowTotalMs.get() / warm;
+        metrics.put("prewarmEnabled", enabled ? 1L : 0L);
+        metrics.put("prewarmEvaluations", evaluationCount.get());
+        metrics.put("prewarmBudgetSkips", budgetSkipCount.get());
+        metrics.put("prewarmCount", prewarmCount.get());
+        metrics.put("prewarmHits", hits);
+        metrics.put("prewarmMisses", misses);
+        metrics.put("prewarmHitRatePct", hits + misses == 0 ? 0L : hits * 100 / (hits + misses));
+        metrics.put("prewarmLaunchesLearned", launchesLearned.get());
+        metrics.put("prewarmModelApps", modelApps.get());
+        metrics.put("prewarmModelKb", modelApps.get() * LaunchPredictor.BYTES_PER_APP / 1024);
+        metrics.put("coldShowAvgMs", avgCold);
+        metrics.put("prewarmedShowAvgMs", avgWarm);
+        // Against the cold average so far; 0 until both kinds of show have happened
+        metrics.put("prewarmSavedMs", cold == 0 || warm == 0 ? 0L : Math.max(0, avgCold - avgWarm) * warm);
+        return metrics;
+    }
+
+    LatencyHistogram getEvaluateLatency() {
+        return evaluateLatency;
+    }
+
+    // ---- Main thread ----
+
+    private void evaluate(long nowMillis) {
+        if (!enabled || target != null) {
+            return;
+        }
+        long uptime = SystemClock.uptimeMillis();
+        while (!recentPrewarms.isEmpty() && uptime - recentPrewarms.peekFirst() > HOUR_MS) {
+            recentPrewarms.pollFirst();
+        }
+        if ((lastEvaluateAt >= 0 && uptime - lastEvaluateAt < minEvaluateIntervalMs)
+                || recentPrewarms.size() >= maxPrewarmsPerHour) {
+            budgetSkipCount.incrementAndGet();
+            return;
+        }
+        lastEvaluateAt = uptime;
+        evaluationCount.incrementAndGet();
+
+        long start = System.nanoTime();
+        long local = toLocal(nowMillis);
+        float threshold = thresholdPct / 100f;
+        String best = null;
+        OverlayContent.Screen bestScreen = null;
+        float bestProbability = 0f;
+        for (String packageName : SessionStore.getMonitoredPackages()) {
+            float probability = predictor.probabilityWithin(packageName, local, LOOKAHEAD_MS);
+            if (probability < threshold || probability <= bestProbability) {
+                continue;
+            }
+            // Only apps the child would be stopped at need an overlay
+            OverlayContent.Screen screen = screenFor(packageName, nowMillis);
+            if (screen != null) {
+                best = packageName;
+                bestScreen = screen;
+                bestProbability = probability;
+            }
+        }
+        evaluateLatency.record((System.nanoTime() - start) / 1000);
+        if (best != null) {
+            prewarm(best, bestScreen, bestProbability, uptime);
+        }
+    }
+
+    private OverlayContent.Screen screenFor(String packageName, long nowMillis) {
+        if (!SessionClock.readDeadlines(packageName, deadlines)) {
+            return null;
+        }
+        switch (DecisionPipeline.decide(deadlines, nowMillis)) {
+            case NEEDS_ACCESS_SETUP:
+                return OverlayContent.Screen.ACCESS;
+            case IN_LOCK_PERIOD:
+                return OverlayContent.Screen.LOCK;
+            default:
+                return null;
+        }
+    }
+
+    private void prewarm(String packageName, OverlayContent.Screen screen, float probability, long uptime) {
+        JSONObject appData = SessionStore.getAppData(packageName);
+        if (appData == null) {
+            return;
+        }
+        target = packageName;
+        targetScreen = screen;
+        recentPrewarms.addLast(uptime);
+        prewarmCount.incrementAndGet();
+        OverlayController.getInstance(context).prewarm(OverlayChannel.DEFAULT_RENDERER, new OverlayContent(screen, appData));
+        mainHandler.postDelayed(holdExpired, holdMs);
+        Log.d(TAG, "🔥 Pre-warming " + screen + " for " + packageName + " (p=" + Math.round(probability * 100) + "%)");
+    }
+
+    private void miss(String reason) {
+        if (target == null) {
+            return;
+        }
+        Log.d(TAG, "🧊 Pre-warm miss for " + target + ": " + reason);
+        mainHandler.removeCallbacks(holdExpired);
+        target = null;
+        missCount.incrementAndGet();
+        OverlayController.getInstance(context).releasePrewarm();
+    }
+
+    private void readBudget() {
+        boolean lowTier = DeviceTier.getInstance(context).getTier() == DeviceTier.Tier.LOW;
+        enabled = prefs.getBoolean(ENABLED, !lowTier);
+        thresholdPct = prefs.getInt(THRESHOLD_PCT, DEFAULT_THRESHOLD_PCT);
+        holdMs = prefs.getLong(HOLD_MS, DEFAULT_HOLD_MS);
+        maxPrewarmsPerHour = prefs.getInt(MAX_PREWARMS_PER_HOUR, DEFAULT_MAX_PREWARMS_PER_HOUR);
+        minEvaluateIntervalMs = prefs.getLong(MIN_EVALUATE_INTERVAL_MS, DEFAULT_MIN_EVALUATE_INTERVAL_MS);
+        maxApps = prefs.getInt(MAX_APPS, DEFAULT_MAX_APPS);
+    }
+
+    private static long toLocal(long millis) {
+        return millis + TimeZone.getDefault().getOffset(millis);
+    }
+
+    // ---- Model file: serialized on main, written and read on the worker ----
+
+    private void saveModel() {
+        if (!modelLoaded || !modelDirty) {
+            return;
+        }
+        modelDirty = false;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            predictor.writeTo(out);
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Error serializing launch model: " + e.getMessage());
+            return;
+        }
+        byte[] data = bytes.toByteArray();
+        worker.post(() -> {
+            File tmp = new File(modelFile.getPath() + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                out.write(data);
+            } catch (IOException e) {
+                Log.e(TAG, "❌ Error writing launch model: " + e.getMessage());
+                return;
+            }
+            if (!tmp.renameTo(modelFile)) {
+                Log.e(TAG, "❌ Could not replace " + modelFile);
+            }
+        });
+    }
+
+    private void loadModel() {
+        byte[] data = null;
+        if (modelFile.exists()) {
+            try (RandomAccessFile file = new RandomAccessFile(modelFile, "r")) {
+                data = new byte[(int) file.length()];
+                file.readFully(data);
+            } catch (IOException e) {
+                Log.e(TAG, "❌ Error reading launch model: " + e.getMessage());
+                data = null;
+            }
+        }
+        byte[] model = data;
+        mainHandler.post(() -> {
+            if (model != null) {
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(model))) {
+                    predictor.readFrom(in);
+                    modelApps.set(predictor.size());
+                    Log.d(TAG, "📚 Launch model loaded: " + predictor.size() + " apps");
+                } catch (IOException e) {
+                    Log.w(TAG, "⚠️ Launch model unreadable, starting over: " + e.getMessage());
+                }
+            }
+            modelLoaded = true;
+        });
+    }
+}
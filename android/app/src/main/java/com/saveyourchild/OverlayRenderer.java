@@ -0,0 +1,39 @@
+// android/app/src/main/java/com/saveyourchild/OverlayRenderer.java
+package com.saveyourchild;
+
+import android.view.View;
+
+/**
+ * One way of drawing overlay content inside the window owned by OverlayController.
+ * All methods are called on the main thread. Views are created once and reused
+ * across interventions; the controller only swaps which renderer is attached.
+ */
+interface OverlayRenderer {
+
+    /** The renderer's view, created on first call and reused afterwards. */
+    View getView();
+
+    /** Displays content, running onReady once it is actually visible to the user. */
+    void bind(OverlayContent content, Runnable onReady);
+
+    /**
+     * The window is hidden and content is likely to be shown soon: load what bind()
+     * will need for it without displaying anything. A later bind() uses it.
+     */
+    void prewarm(OverlayContent content);
+
+    /** The pre-warm went unused: give back what prewarm() loaded beyond the usual state. */
+    void releasePrewarm();
+
+    /** Called when the overlay is hidden or another renderer takes over. Keeps the view. */
+    void reset();
+
+    /** Screen went off while shown: stop animations and timers, keep the content. */
+    void pause();
+
+    /** Screen is back on: undo pause(). */
+    void resume();
+
+    /** Drops the view and any resources behind it. */
+    void release();
+}
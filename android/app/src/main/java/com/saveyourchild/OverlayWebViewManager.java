@@ -0,0 +1,329 @@
+// android/app/src/main/java/com/saveyourchild/OverlayWebViewManager.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.ViewGroup;
+import android.webkit.RenderProcessGoneDetail;
+import android.webkit.WebMessage;
+import android.webkit.WebMessagePort;
+import android.webkit.WebResourceError;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+import android.widget.FrameLayout;
+
+import java.io.ByteArrayInputStream;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the overlay's WebViews: at most one per page, created on first use and
+ * reused for every intervention after that. A hidden page is cleaned up with a
+ * reset message instead of being reloaded or destroyed.
+ *
+ * Data goes to the page over a WebMessagePort. Once a page has loaded, the manager
+ * posts it one end of a message channel; the page answers "ready" when its script
+ * is wired up, and from then on native sends typed JSON messages (init, update,
+ * tick, reset) and the page acknowledges applied content with "applied".
+ *
+ * When the renderer process dies (crash, or the system reclaiming it while the
+ * overlay is hidden) every page loses its WebView. The manager destroys the dead
+ * views and tells the renderer, which recreates the page it needs on the next bind.
+ * Main thread only.
+ */
+final class OverlayWebViewManager {
+
+    private static final String TAG = "OverlayWebViewManager";
+    private static final String ACCESS_SCREEN_URL = "file:///android_asset/accessScreen.html";
+    private static final String LOCK_SCREEN_URL = "file:///android_asset/lockscreen.html";
+
+    // Channel protocol, see the "Native channel" block in the pages
+    private static final String MSG_PORT = "overlay-port";
+    private static final String MSG_READY = "ready";
+    private static final String MSG_APPLIED = "applied";
+    private static final String MSG_RESET = "{\"type\":\"reset\"}";
+    // file:// pages have an opaque origin, which only the wildcard matches
+    private static final Uri ANY_ORIGIN = Uri.parse("*");
+    // App icons for the pages, drawn natively instead of shipped as Base64 in the session;
+    // never reaches the network, shouldInterceptRequest answers it (see ICON_URL in the pages)
+    private static final String ICON_URL_PREFIX = "https://app-icon.saveyourchild.invalid/";
+    private static final int PAGE_ICON_SIZE_PX = 192;
+
+    interface Listener {
+        /** The page opened its message channel and can take data. */
+        void onPageReady(Page page);
+
+        /** The page applied the last init or update message. */
+        void onContentApplied(Page page);
+
+        /** The page's WebView was destroyed after its renderer went away. */
+        void onPageGone(Page page);
+    }
+
+    /** One loaded HTML page. */
+    static final class Page {
+        final OverlayContent.Screen screen;
+        final WebView webView;
+        final long createdAt = SystemClock.elapsedRealtime();
+        WebMessagePort port;
+        boolean ready = false;
+        boolean hasContent = false;   // an init went out since the last reset
+        int loadTraceCookie;          // open syc.webview.pageLoad section, 0 once ready
+
+        Page(OverlayContent.Screen screen, WebView webView) {
+            this.screen = screen;
+            this.webView = webView;
+        }
+    }
+
+    // Process-wide, so a renderer that leaks its manager still shows up in the counts
+    private static final AtomicInteger liveCount = new AtomicInteger();
+    private static final AtomicLong createdCount = new AtomicLong();
+    private static final AtomicLong rendererGoneCount = new AtomicLong();
+    private static final AtomicLong rendererCrashCount = new AtomicLong();
+    private static final AtomicLong recoveredCount = new AtomicLong();
+    private static final AtomicLong resetCount = new AtomicLong();
+    private static final AtomicLong messagesSentCount = new AtomicLong();
+    private static final AtomicLong messagesDroppedCount = new AtomicLong();
+    private static final AtomicLong lastPageReadyMs = new AtomicLong();
+
+    private final Context context;
+    private final Listener listener;
+    private final Object jsInterface;
+    private final EnumMap<OverlayContent.Screen, Page> pages = new EnumMap<>(OverlayContent.Screen.class);
+    private boolean recovering = false;   // a page was lost and not yet recreated
+
+    OverlayWebViewManager(Context context, Object jsInterface, Listener listener) {
+        this.context = context;
+        this.jsInterface = jsInterface;
+        this.listener = listener;
+    }
+
+    /** The page for screen, created and added to container if it doesn't exist. */
+    Page obtain(OverlayContent.Screen screen, FrameLayout container) {
+        Page page = pages.get(screen);
+        if (page == null) {
+            page = create(screen, container);
+            pages.put(screen, page);
+            if (recovering) {
+                recovering = false;
+                recoveredCount.incrementAndGet();
+            }
+        }
+        return page;
+    }
+
+    /** Posts a message to the page; dropped (and counted) until the page is ready. */
+    void send(Page page, String message) {
+        WebMessagePort port = page.port;
+        if (!page.ready || port == null) {
+            messagesDroppedCount.incrementAndGet();
+            return;
+        }
+        port.postMessage(new WebMessage(message));
+        messagesSentCount.incrementAndGet();
+    }
+
+    /** Returns the page to its initial state for the next intervention. */
+    void reset(Page page) {
+        if (page.ready) {
+            resetCount.incrementAndGet();
+            send(page, MSG_RESET);
+        }
+        page.hasContent = false;
+        page.webView.onPause();
+    }
+
+    /** True when screen's page exists (loaded or loading). */
+    boolean has(OverlayContent.Screen screen) {
+        return pages.containsKey(screen);
+    }
+
+    /** Destroys one page, e.g. a pre-warmed one that went unused; obtain() recreates it. */
+    void discard(Page page) {
+        if (pages.get(page.screen) == page) {
+            pages.remove(page.screen);
+            destroy(page);
+        }
+    }
+
+    void releaseAll() {
+        for (Page page : pages.values()) {
+            destroy(page);
+        }
+        pages.clear();
+    }
+
+    static Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("webViewLiveCount", (long) liveCount.get());
+        metrics.put("webViewCreatedCount", createdCount.get());
+        metrics.put("webViewRendererGoneCount", rendererGoneCount.get());
+        metrics.put("webViewRendererCrashCount", rendererCrashCount.get());
+        metrics.put("webViewRecoveredCount", recoveredCount.get());
+        metrics.put("webViewResetCount", resetCount.get());
+        metrics.put("webViewMessagesSentCount", messagesSentCount.get());
+        metrics.put("webViewMessagesDroppedCount", messagesDroppedCount.get());
+        metrics.put("webViewLastPageReadyMs", lastPageReadyMs.get());
+        // The renderer's own process is sandboxed; this is our process, where the WebView's
+        // browser side lives. Debug.getPss() walks smaps, so it's only read on request.
+        metrics.put("processPssKb", Debug.getPss());
+        metrics.put("nativeHeapKb", Debug.getNativeHeapAllocatedSize() / 1024);
+        return metrics;
+    }
+
+    private Page create(OverlayContent.Screen screen, FrameLayout container) {
+        WebView view = new WebView(context);
+        WebSettings settings = view.getSettings();
+        settings.setJavaScriptEnabled(true);
+        settings.setDomStorageEnabled(true);
+        settings.setAllowFileAccess(true);
+        settings.setAllowContentAccess(true);
+        settings.setLoadWithOverviewMode(true);
+        settings.setUseWideViewPort(true);
+        settings.setBuiltInZoomControls(false);
+        settings.setDisplayZoomControls(false);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            // Full priority while on screen; while hidden the system may reclaim the
+            // renderer under memory pressure, which onRenderProcessGone recovers from
+            view.setRendererPriorityPolicy(WebView.RENDERER_PRIORITY_IMPORTANT, true);
+        }
+
+        // accessScreen.html talks to AndroidAccess, lockscreen.html's unlock path to Android
+        view.addJavascriptInterface(jsInterface, "AndroidAccess");
+        view.addJavascriptInterface(jsInterface, "Android");
+
+        final Page page = new Page(screen, view);
+        page.loadTraceCookie = PerfTrace.beginAsync(PerfTrace.PAGE_LOAD);
+        view.setWebViewClient(new WebViewClient() {
+            @Override
+            public void onPageFinished(WebView view, String url) {
+                super.onPageFinished(view, url);
+                if (pages.get(page.screen) != page) {
+                    return;
+                }
+                openChannel(page);
+            }
+
+            @Override
+            public void onReceivedError(WebView view, WebResourceRequest req, WebResourceError err) {
+                Log.e(TAG, "WebView error: " + err.getDescription());
+            }
+
+            // WebView IO thread
+            @Override
+            public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+                String url = request.getUrl().toString();
+                if (!url.startsWith(ICON_URL_PREFIX)) {
+                    return null;
+                }
+                String packageName = Uri.decode(url.substring(ICON_URL_PREFIX.length()));
+                byte[] png = AppIconCache.getInstance(context).renderPng(packageName, PAGE_ICON_SIZE_PX);
+                if (png == null) {
+                    // Page falls back to its emoji on the image error
+                    return new WebResourceResponse("image/png", null, 404, "Not Found", null, null);
+                }
+                return new WebResourceResponse("image/png", null, new ByteArrayInputStream(png));
+            }
+
+            @Override
+            public boolean onRenderProcessGone(WebView view, RenderProcessGoneDetail detail) {
+                // didCrash() is API 26, like this callback; the helper only gets the flag
+                onRendererGone(page, detail.didCrash());
+                // Handled: the WebView is destroyed below instead of taking the app down
+                return true;
+            }
+        });
+
+        container.addView(view, new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        // The tier is read before first paint; init messages carry it again for overrides
+        String url = screen == OverlayContent.Screen.ACCESS ? ACCESS_SCREEN_URL : LOCK_SCREEN_URL;
+        view.loadUrl(url + "?tier=" + DeviceTier.getInstance(context).getTierName());
+        liveCount.incrementAndGet();
+        createdCount.incrementAndGet();
+        Log.d(TAG, "📄 Loading page for screen: " + screen + " (" + liveCount.get() + " live)");
+        return page;
+    }
+
+    // Hands the page its end of a fresh channel; a reload gets a new one
+    private void openChannel(final Page page) {
+        closeChannel(page);
+        WebMessagePort[] ports = page.webView.createWebMessageChannel();
+        page.port = ports[0];
+        page.port.setWebMessageCallback(new WebMessagePort.WebMessageCallback() {
+            @Override
+            public void onMessage(WebMessagePort port, WebMessage message) {
+                // Main thread; ignore a channel that was replaced meanwhile
+                if (port == page.port && pages.get(page.screen) == page) {
+                    onPageMessage(page, message.getData());
+                }
+            }
+        });
+        page.webView.postWebMessage(new WebMessage(MSG_PORT, new WebMessagePort[]{ports[1]}), ANY_ORIGIN);
+    }
+
+    private void onPageMessage(Page page, String data) {
+        if (MSG_READY.equals(data)) {
+            page.ready = true;
+            page.hasContent = false;
+            page.loadTraceCookie = PerfTrace.endAsync(PerfTrace.PAGE_LOAD, page.loadTraceCookie);
+            long readyMs = SystemClock.elapsedRealtime() - page.createdAt;
+            lastPageReadyMs.set(readyMs);
+            Log.d(TAG, "🤝 " + page.screen + " page ready after " + readyMs + "ms");
+            listener.onPageReady(page);
+        } else if (MSG_APPLIED.equals(data)) {
+            listener.onContentApplied(page);
+        } else {
+            Log.w(TAG, "⚠️ Unknown message from " + page.screen + " page: " + data);
+        }
+    }
+
+    private void closeChannel(Page page) {
+        page.ready = false;
+        if (page.port != null) {
+            page.port.close();
+            page.port = null;
+        }
+    }
+
+    private void onRendererGone(Page page, boolean crashed) {
+        rendererGoneCount.incrementAndGet();
+        if (crashed) {
+            rendererCrashCount.incrementAndGet();
+        }
+        Log.w(TAG, "⚠️ Renderer gone for " + page.screen + (crashed ? " (crashed)" : " (reclaimed)"));
+
+        // The same view may be reported again; only the current one is ours to drop
+        if (pages.get(page.screen) != page) {
+            return;
+        }
+        pages.remove(page.screen);
+        destroy(page);
+        recovering = true;
+        listener.onPageGone(page);
+    }
+
+    private void destroy(Page page) {
+        page.loadTraceCookie = PerfTrace.endAsync(PerfTrace.PAGE_LOAD, page.loadTraceCookie);
+        closeChannel(page);
+        ViewGroup parent = (ViewGroup) page.webView.getParent();
+        if (parent != null) {
+            parent.removeView(page.webView);
+        }
+        page.webView.stopLoading();
+        page.webView.destroy();
+        liveCount.decrementAndGet();
+    }
+}
@@ -0,0 +1,114 @@
+// android/app/src/main/java/com/saveyourchild/PerfTrace.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.Trace;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * android.os.Trace sections around enforcement and overlay work, for Perfetto /
+ * systrace captures (see scripts/perfetto/). Off unless the runtime flag is set:
+ * from the debug screen (AppMonitorModule.setTracingEnabled) or over adb with
+ *   adb shell dumpsys activity service com.saveyourchild/.AppMonitorService trace on
+ * The flag is persisted, so a cold start after enabling it is traced too.
+ *
+ * Synchronous sections nest on the calling thread:
+ *   boolean traced = PerfTrace.begin(PerfTrace.EVALUATE);
+ *   try { ... } finally { PerfTrace.end(traced); }
+ * begin() returns whether it opened a section, so flipping the flag mid-section
+ * never unbalances the thread's stack. Async sections span threads and callbacks
+ * (show request → content on screen) and are matched by the cookie beginAsync
+ * returns; 0 means nothing was opened. They need API 29, below that they are skipped.
+ */
+public final class PerfTrace {
+
+    private static final String TAG = "PerfTrace";
+    private static final String PREFS = "perf_trace";
+    private static final String KEY_ENABLED = "enabled";
+
+    // Slice names; scripts/perfetto/stage_durations.sql groups by these
+    static final String ACCESSIBILITY_EVENT = "syc.onAccessibilityEvent";
+    static final String EVALUATE = "syc.evaluate";
+    static final String SECTION_SCAN = "syc.sectionScan";
+    static final String SESSION_UPDATE = "syc.sessionStore.update";
+    static final String UPDATE_SESSION_FOR_APP = "syc.updateActiveSessionForApp";
+    static final String GET_INSTALLED_APPS = "syc.getInstalledApps";
+    static final String ICON_RENDER = "syc.iconRender";
+    static final String OVERLAY_ADD_VIEW = "syc.overlay.addView";
+    static final String REACT_ROOT_START = "syc.react.startReactApplication";
+    // Async tracks
+    static final String OVERLAY_SHOW = "syc.overlay.show";
+    static final String PAGE_LOAD = "syc.webview.pageLoad";
+    static final String PAGE_INJECT = "syc.webview.inject";
+
+    private static volatile boolean enabled = false;
+    private static volatile boolean initialized = false;
+    private static final AtomicInteger nextCookie = new AtomicInteger();
+
+    private PerfTrace() {}
+
+    /** Reads the persisted flag once per process. Safe to call from every entry point. */
+    public static void init(Context context) {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        enabled = prefs(context).getBoolean(KEY_ENABLED, false);
+        if (enabled) {
+            Log.i(TAG, "🧵 Trace sections enabled");
+        }
+    }
+
+    public static void setEnabled(Context context, boolean on) {
+        initialized = true;
+        enabled = on;
+        prefs(context).edit().putBoolean(KEY_ENABLED, on).apply();
+        Log.i(TAG, "🧵 Trace sections " + (on ? "enabled" : "disabled"));
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    static boolean begin(String section) {
+        if (!enabled) {
+            return false;
+        }
+        Trace.beginSection(section);
+        return true;
+    }
+
+    static void end(boolean traced) {
+        if (traced) {
+            Trace.endSection();
+        }
+    }
+
+    static int beginAsync(String section) {
+        if (!enabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return 0;
+        }
+        int cookie = nextCookie.incrementAndGet();
+        if (cookie == 0) {
+            cookie = nextCookie.incrementAndGet();
+        }
+        Trace.beginAsyncSection(section, cookie);
+        return cookie;
+    }
+
+    /** Closes an async section; always returns 0 so callers can clear their cookie in one line. */
+    static int endAsync(String section, int cookie) {
+        if (cookie != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(section, cookie);
+        }
+        return 0;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+}
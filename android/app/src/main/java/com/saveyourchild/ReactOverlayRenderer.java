@@ -0,0 +1,122 @@
+// android/app/src/main/java/com/saveyourchild/ReactOverlayRenderer.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.View;
+
+import com.facebook.react.ReactNativeHost;
+import com.facebook.react.ReactRootView;
+
+/**
+ * Renders the "LockScreenOverlay" React component. The controller only picks this
+ * renderer when a React context already exists (see isAvailable), so nothing here
+ * ever waits for React Native to start - or starts it: the overlay path runs in
+ * the accessibility service, and creating a context from there would bring up a
+ * runtime of its own next to the app's (new architecture) one.
+ */
+final class ReactOverlayRenderer implements OverlayRenderer {
+
+    private static final String TAG = "ReactOverlayRenderer";
+    private static final String COMPONENT_NAME = "LockScreenOverlay";
+
+    private final Context context;
+    private ReactRootView rootView;
+    private boolean started = false;
+
+    ReactOverlayRenderer(Context context) {
+        this.context = context;
+    }
+
+    // ✅ Check for a live React context without creating or loading anything
+    static boolean isAvailable(Context context) {
+        try {
+            MainApplication application = (MainApplication) context.getApplicationContext();
+            ReactNativeHost host = application.getReactNativeHost();
+            return application.isReactNativeLoaded()
+                    && host.hasInstance()
+                    && host.getReactInstanceManager().getCurrentReactContext() != null;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error checking React Native context: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public View getView() {
+        if (rootView == null) {
+            rootView = new ReactRootView(context);
+        }
+        return rootView;
+    }
+
+    @Override
+    public void bind(OverlayContent content, Runnable onReady) {
+        render(content);
+        onReady.run();
+    }
+
+    // Mounting the root is the expensive part; done ahead, bind() is a props update
+    @Override
+    public void prewarm(OverlayContent content) {
+        render(content);
+    }
+
+    @Override
+    public void releasePrewarm() {
+        // The root stays mounted like after any show
+    }
+
+    @Override
+    public void reset() {
+        // The root stays mounted so the next show is just a props update
+    }
+
+    @Override
+    public void pause() {
+        // The overlay component counts down on SessionClock ticks, which stop with the screen
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void release() {
+        if (rootView != null) {
+            rootView.unmountReactApplication();
+            rootView = null;
+        }
+        started = false;
+    }
+
+    private void render(OverlayContent content) {
+        getView();
+
+        Bundle props = new Bundle();
+        props.putString("appName", content.appName);
+        props.putString("packageName", content.packageName);
+        props.putString("screen", content.screen.name());
+        props.putInt("remainingTime", content.getRemainingLockMinutes());
+        props.putString("timestamp", String.valueOf(System.currentTimeMillis()));
+
+        if (!started) {
+            MainApplication application = (MainApplication) context.getApplicationContext();
+            boolean traced = PerfTrace.begin(PerfTrace.REACT_ROOT_START);
+            try {
+                rootView.startReactApplication(
+                        application.getReactNativeHost().getReactInstanceManager(),
+                        COMPONENT_NAME,
+                        props
+                );
+            } finally {
+                PerfTrace.end(traced);
+            }
+            started = true;
+        } else {
+            // Same root, new props - React re-renders in place
+            rootView.setAppProperties(props);
+        }
+    }
+}
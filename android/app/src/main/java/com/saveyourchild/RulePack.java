@@ -0,0 +1,232 @@
+// android/app/src/main/java/com/saveyourchild/RulePack.java
+package com.saveyourchild;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A versioned set of in-app section rules, compiled at load time and immutable
+ * afterwards, so RulePackManager can swap packs with a single reference write.
+ *
+ * Text format, one directive per line ('#' starts a comment):
+ *
+ *   pack 4
+ *   rule com.instagram.android reels 300000000-
+ *     id com.instagram.android:id/clips_viewer_view_pager
+ *     id clips_video_container
+ *     class com.instagram.clips.ClipsViewerView
+ *
+ * A rule applies to the app's versionCode range: "a-b", "a-" (and newer), "-b"
+ * (and older) or "*". When several rules of a package cover the installed version
+ * the first one wins, so list the narrow ranges first. Plain Java so packs can be
+ * checked against node-tree fixtures on the JVM (see RulePackReplay).
+ */
+public final class RulePack {
+
+    private final int version;
+    private final Map<String, List<Rule>> rulesByPackage;
+    private final int ruleCount;
+
+    // Resolved matcher per package for the versionCode it was resolved for
+    private final Map<String, Resolved> resolved = new HashMap<>();
+
+    private static final class Rule {
+        final long minVersionCode;
+        final long maxVersionCode;
+        final SectionMatcher matcher;
+
+        Rule(long minVersionCode, long maxVersionCode, SectionMatcher matcher) {
+            this.minVersionCode = minVersionCode;
+            this.maxVersionCode = maxVersionCode;
+            this.matcher = matcher;
+        }
+    }
+
+    private static final class Resolved {
+        final long versionCode;
+        final SectionMatcher matcher;   // null = no rule for this version
+
+        Resolved(long versionCode, SectionMatcher matcher) {
+            this.versionCode = versionCode;
+            this.matcher = matcher;
+        }
+    }
+
+    private RulePack(int version, Map<String, List<Rule>> rulesByPackage, int ruleCount) {
+        this.version = version;
+        this.rulesByPackage = rulesByPackage;
+        this.ruleCount = ruleCount;
+    }
+
+    public static RulePack empty() {
+        return new RulePack(0, Collections.emptyMap(), 0);
+    }
+
+    /** Parses and compiles a pack; IllegalArgumentException names the offending line. */
+    public static RulePack parse(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        Map<String, List<Rule>> rules = new HashMap<>();
+        int version = -1;
+        int ruleCount = 0;
+
+        String rulePackage = null;
+        String ruleSection = null;
+        long[] ruleRange = null;
+        List<String> viewIds = new ArrayList<>();
+        List<String> classNames = new ArrayList<>();
+
+        String line;
+        int lineNumber = 0;
+        while (true) {
+            line = reader.readLine();
+            lineNumber++;
+            String[] parts = line != null ? tokens(line) : null;
+            if (parts != null && parts.length == 0) {
+                continue;
+            }
+
+            // A new rule, or the end of input, closes the rule being collected
+            if (rulePackage != null && (parts == null || parts[0].equals("rule") || parts[0].equals("pack"))) {
+                if (viewIds.isEmpty() && classNames.isEmpty()) {
+                    throw new IllegalArgumentException("Rule for " + rulePackage + " has no selectors (line " + lineNumber + ")");
+                }
+                List<Rule> packageRules = rules.get(rulePackage);
+                if (packageRules == null) {
+                    packageRules = new ArrayList<>();
+                    rules.put(rulePackage, packageRules);
+                }
+                packageRules.add(new Rule(ruleRange[0], ruleRange[1],
+                        SectionMatcher.compile(ruleSection, viewIds, classNames)));
+                ruleCount++;
+                rulePackage = null;
+                viewIds = new ArrayList<>();
+                classNames = new ArrayList<>();
+            }
+            if (parts == null) {
+                break;
+            }
+
+            switch (parts[0]) {
+                case "pack":
+                    expectArgs(parts, 2, lineNumber);
+                    if (version >= 0) {
+                        throw new IllegalArgumentException("Duplicate pack header (line " + lineNumber + ")");
+                    }
+                    version = parseInt(parts[1], lineNumber);
+                    break;
+                case "rule":
+                    if (parts.length != 3 && parts.length != 4) {
+                        throw new IllegalArgumentException("Expected: rule <package> <section> [range] (line " + lineNumber + ")");
+                    }
+                    rulePackage = parts[1];
+                    ruleSection = parts[2];
+                    ruleRange = parseRange(parts.length == 4 ? parts[3] : "*", lineNumber);
+                    break;
+                case "id":
+                    expectInRule(rulePackage, parts, lineNumber);
+                    viewIds.add(parts[1]);
+                    break;
+                case "class":
+                    expectInRule(rulePackage, parts, lineNumber);
+                    classNames.add(parts[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown directive '" + parts[0] + "' (line " + lineNumber + ")");
+            }
+        }
+
+        if (version < 0) {
+            throw new IllegalArgumentException("Missing 'pack <version>' header");
+        }
+        return new RulePack(version, Collections.unmodifiableMap(rules), ruleCount);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    public boolean hasRules(String packageName) {
+        return rulesByPackage.containsKey(packageName);
+    }
+
+    /** The matcher for this app at this versionCode, or null. Cached until the version changes. */
+    public synchronized SectionMatcher getMatcher(String packageName, long versionCode) {
+        Resolved entry = resolved.get(packageName);
+        if (entry == null || entry.versionCode != versionCode) {
+            entry = new Resolved(versionCode, findMatcher(packageName, versionCode));
+            resolved.put(packageName, entry);
+        }
+        return entry.matcher;
+    }
+
+    private SectionMatcher findMatcher(String packageName, long versionCode) {
+        List<Rule> packageRules = rulesByPackage.get(packageName);
+        if (packageRules == null) {
+            return null;
+        }
+        for (Rule rule : packageRules) {
+            if (versionCode >= rule.minVersionCode && versionCode <= rule.maxVersionCode) {
+                return rule.matcher;
+            }
+        }
+        return null;
+    }
+
+    private static String[] tokens(String line) {
+        int comment = line.indexOf('#');
+        String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+        return content.isEmpty() ? new String[0] : content.split("\\s+");
+    }
+
+    private static long[] parseRange(String range, int lineNumber) {
+        if (range.equals("*")) {
+            return new long[]{Long.MIN_VALUE, Long.MAX_VALUE};
+        }
+        int dash = range.indexOf('-');
+        if (dash < 0) {
+            long exact = parseLong(range, lineNumber);
+            return new long[]{exact, exact};
+        }
+        String min = range.substring(0, dash);
+        String max = range.substring(dash + 1);
+        return new long[]{
+                min.isEmpty() ? Long.MIN_VALUE : parseLong(min, lineNumber),
+                max.isEmpty() ? Long.MAX_VALUE : parseLong(max, lineNumber)
+        };
+    }
+
+    private static void expectInRule(String rulePackage, String[] parts, int lineNumber) {
+        if (rulePackage == null) {
+            throw new IllegalArgumentException("'" + parts[0] + "' outside a rule (line " + lineNumber + ")");
+        }
+        expectArgs(parts, 2, lineNumber);
+    }
+
+    private static void expectArgs(String[] parts, int count, int lineNumber) {
+        if (parts.length != count) {
+            throw new IllegalArgumentException("'" + parts[0] + "' takes " + (count - 1) + " argument(s) (line " + lineNumber + ")");
+        }
+    }
+
+    private static int parseInt(String value, int lineNumber) {
+        return (int) parseLong(value, lineNumber);
+    }
+
+    private static long parseLong(String value, int lineNumber) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: '" + value + "' (line " + lineNumber + ")");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+// android/app/src/main/java/com/saveyourchild/RulePackManager.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Owns the active RulePack for in-app section blocking.
+ *
+ * Of the pack installed in app storage (files/rule_packs/active.pack) and the one
+ * bundled in assets, the newer version wins. An app update that ships a newer
+ * bundled pack therefore replaces an older installed one, which is deleted so it
+ * can't come back. install() validates and compiles a new pack first, writes
+ * it atomically and only then swaps the reference, so the running service moves
+ * to it on its next scan without a restart and never sees a half-loaded pack.
+ */
+public final class RulePackManager {
+
+    private static final String TAG = "RulePackManager";
+    private static final String BUNDLED_PACK_ASSET = "rule_packs/default.pack";
+    private static final String INSTALLED_PACK_FILE = "rule_packs/active.pack";
+
+    private static RulePackManager instance;
+
+    private final Context context;
+    private volatile RulePack activePack;
+
+    // Installed versionCode per package; cleared when packages change
+    private final ConcurrentHashMap<String, Long> versionCodes = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Runnable> packChangedListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder versionCacheHits = new LongAdder();
+    private final LongAdder versionCacheMisses = new LongAdder();
+
+    private RulePackManager(Context context) {
+        this.context = context;
+    }
+
+    public static synchronized RulePackManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new RulePackManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** Loaded on first use; packs are a few KB, so parsing them is cheap. */
+    public RulePack getActivePack() {
+        RulePack pack = activePack;
+        if (pack == null) {
+            synchronized (this) {
+                if (activePack == null) {
+                    activePack = loadFromStorage();
+                }
+                pack = activePack;
+            }
+        }
+        return pack;
+    }
+
+    public boolean hasRules(String packageName) {
+        return getActivePack().hasRules(packageName);
+    }
+
+    /** Matcher for the installed version of the app, or null when the pack has none. */
+    public SectionMatcher getMatcher(String packageName) {
+        RulePack pack = getActivePack();
+        if (!pack.hasRules(packageName)) {
+            return null;
+        }
+        return pack.getMatcher(packageName, getVersionCode(packageName));
+    }
+
+    /**
+     * Validates, persists and activates a pack. Rejects packs that don't parse or are
+     * not newer than the active one; the active pack is untouched in both cases.
+     */
+    public synchronized RulePack install(String packText) throws IOException {
+        RulePack pack = RulePack.parse(new StringReader(packText));
+        RulePack current = getActivePack();
+        if (pack.getVersion() <= current.getVersion()) {
+            throw new IllegalArgumentException("Pack version " + pack.getVersion()
+                    + " is not newer than active version " + current.getVersion());
+        }
+
+        File file = new File(context.getFilesDir(), INSTALLED_PACK_FILE);
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        AtomicFile atomicFile = new AtomicFile(file);
+        FileOutputStream out = atomicFile.startWrite();
+        try {
+            out.write(packText.getBytes(StandardCharsets.UTF_8));
+            atomicFile.finishWrite(out);
+        } catch (IOException e) {
+            atomicFile.failWrite(out);
+            throw e;
+        }
+
+        activePack = pack;
+        Log.i(TAG, "✅ Rule pack " + pack.getVersion() + " active (" + pack.getRuleCount() + " rules)");
+        notifyPackChanged();
+        return pack;
+    }
+
+    /** Runs after a new pack became active. */
+    public void addOnPackChangedListener(Runnable listener) {
+        packChangedListeners.addIfAbsent(listener);
+    }
+
+    public void removeOnPackChangedListener(Runnable listener) {
+        packChangedListeners.remove(listener);
+    }
+
+    /** Version code lookups answered without asking PackageManager. */
+    public long getVersionCacheHits() {
+        return versionCacheHits.sum();
+    }
+
+    public long getVersionCacheMisses() {
+        return versionCacheMisses.sum();
+    }
+
+    /** Call when apps were installed or updated so rules are re-resolved per version. */
+    public void invalidateVersions() {
+        versionCodes.clear();
+    }
+
+    private long getVersionCode(String packageName) {
+        Long cached = versionCodes.get(packageName);
+        if (cached != null) {
+            versionCacheHits.increment();
+            return cached;
+        }
+        versionCacheMisses.increment();
+        long versionCode = -1;
+        try {
+            PackageInfo info = context.getPackageManager().getPackageInfo(packageName, 0);
+            versionCode = Build.VERSION.SDK_INT >= Build.VERSION_CODES.P
+                    ? info.getLongVersionCode()
+                    : info.versionCode;
+        } catch (PackageManager.NameNotFoundException e) {
+            Log.w(TAG, "⚠️ Not installed: " + packageName);
+        }
+        versionCodes.put(packageName, versionCode);
+        return versionCode;
+    }
+
+    private RulePack loadFromStorage() {
+        RulePack bundled = loadBundled();
+        AtomicFile installed = new AtomicFile(new File(context.getFilesDir(), INSTALLED_PACK_FILE));
+        if (!installed.getBaseFile().exists()) {
+            return bundled;
+        }
+        RulePack pack;
+        try (FileInputStream in = installed.openRead()) {
+            pack = RulePack.parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Installed rule pack unreadable, using bundled one: " + e.getMessage());
+            return bundled;
+        }
+        if (bundled.getVersion() > pack.getVersion()) {
+            // The app update brought newer rules than the last download
+            Log.i(TAG, "📦 Bundled rule pack " + bundled.getVersion() + " replaces installed " + pack.getVersion());
+            installed.delete();
+            return bundled;
+        }
+        Log.d(TAG, "📦 Installed rule pack " + pack.getVersion() + " (" + pack.getRuleCount() + " rules)");
+        return pack;
+    }
+
+    private RulePack loadBundled() {
+        try (InputStreamReader reader = new InputStreamReader(
+                context.getAssets().open(BUNDLED_PACK_ASSET), StandardCharsets.UTF_8)) {
+            RulePack pack = RulePack.parse(reader);
+            Log.d(TAG, "📦 Bundled rule pack " + pack.getVersion() + " (" + pack.getRuleCount() + " rules)");
+            return pack;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Bundled rule pack unreadable: " + e.getMessage());
+            return RulePack.empty();
+        }
+    }
+
+    private void notifyPackChanged() {
+        for (Runnable listener : packChangedListeners) {
+            listener.run();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+// android/app/src/main/java/com/saveyourchild/ScreenStateMonitor.java
+package com.saveyourchild;
+
+import android.app.KeyguardManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks whether the display is on and the user is past the keyguard, from
+ * ACTION_SCREEN_OFF / ACTION_SCREEN_ON / ACTION_USER_PRESENT, and tells the
+ * enforcement pipeline so it can stop periodic work while nobody can see it.
+ *
+ * One receiver for the whole process, registered while anyone is listening.
+ * Callbacks run on the main thread.
+ */
+public final class ScreenStateMonitor {
+
+    private static final String TAG = "ScreenStateMonitor";
+
+    public interface Listener {
+        /** Display turned off: pause rendering and timers. */
+        void onScreenOff();
+
+        /** Display back on; the keyguard may still be up. */
+        void onScreenOn();
+
+        /** User is past the keyguard (or there is none): the foreground app is visible again. */
+        void onUserPresent();
+    }
+
+    private static ScreenStateMonitor instance;
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean screenOn = true;
+    private volatile boolean userPresent = true;
+    private boolean receiverRegistered = false;   // main thread only
+    private long screenOffAt = 0;
+
+    private final AtomicLong screenOffCount = new AtomicLong();
+    private final AtomicLong totalScreenOffMs = new AtomicLong();
+
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            String action = intent.getAction();
+            if (Intent.ACTION_SCREEN_OFF.equals(action)) {
+                onScreenOffReceived();
+            } else if (Intent.ACTION_SCREEN_ON.equals(action)) {
+                onScreenOnReceived();
+            } else if (Intent.ACTION_USER_PRESENT.equals(action)) {
+                onUserPresentReceived();
+            }
+        }
+    };
+
+    private ScreenStateMonitor(Context context) {
+        this.context = context;
+    }
+
+    public static synchronized ScreenStateMonitor getInstance(Context context) {
+        if (instance == null) {
+            instance = new ScreenStateMonitor(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** Adds a listener; the receiver starts with the first one. Any thread. */
+    public void addListener(Listener listener) {
+        if (listeners.addIfAbsent(listener)) {
+            mainHandler.post(this::updateRegistration);
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        if (listeners.remove(listener)) {
+            mainHandler.post(this::updateRegistration);
+        }
+    }
+
+    public boolean isScreenOn() {
+        return screenOn;
+    }
+
+    public boolean isUserPresent() {
+        return userPresent;
+    }
+
+    public long getScreenOffCount() {
+        return screenOffCount.get();
+    }
+
+    public long getTotalScreenOffMs() {
+        return totalScreenOffMs.get();
+    }
+
+    // ---- Broadcasts (main thread) ----
+
+    private void onScreenOffReceived() {
+        if (!screenOn) {
+            return;
+        }
+        screenOn = false;
+        userPresent = false;
+        screenOffAt = SystemClock.elapsedRealtime();
+        screenOffCount.incrementAndGet();
+        Log.d(TAG, "🌙 Screen off - entering power-save mode");
+
+        for (Listener listener : listeners) {
+            listener.onScreenOff();
+        }
+    }
+
+    private void onScreenOnReceived() {
+        if (screenOn) {
+            return;
+        }
+        screenOn = true;
+        long offMs = SystemClock.elapsedRealtime() - screenOffAt;
+        totalScreenOffMs.addAndGet(offMs);
+        Log.i(TAG, "☀️ Screen on after " + offMs + "ms off (total off " + totalScreenOffMs.get() + "ms)");
+
+        for (Listener listener : listeners) {
+            listener.onScreenOn();
+        }
+
+        // No keyguard (or it was dismissed already): USER_PRESENT may never come
+        KeyguardManager keyguard = (KeyguardManager) context.getSystemService(Context.KEYGUARD_SERVICE);
+        if (keyguard == null || !keyguard.isKeyguardLocked()) {
+            onUserPresentReceived();
+        }
+    }
+
+    private void onUserPresentReceived() {
+        if (userPresent) {
+            return;
+        }
+        if (!screenOn) {
+            // USER_PRESENT without SCREEN_ON (e.g. unlocked via an ambient display) - wake up fully
+            onScreenOnReceived();
+            if (userPresent) {
+                return;
+            }
+        }
+        userPresent = true;
+        Log.d(TAG, "🔓 User present");
+
+        for (Listener listener : listeners) {
+            listener.onUserPresent();
+        }
+    }
+
+    private void updateRegistration() {
+        if (!listeners.isEmpty() && !receiverRegistered) {
+            PowerManager pm = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+            KeyguardManager keyguard = (KeyguardManager) context.getSystemService(Context.KEYGUARD_SERVICE);
+            screenOn = pm == null || pm.isInteractive();
+            userPresent = screenOn && (keyguard == null || !keyguard.isKeyguardLocked());
+            if (!screenOn) {
+                screenOffAt = SystemClock.elapsedRealtime();
+            }
+
+            IntentFilter filter = new IntentFilter();
+            filter.addAction(Intent.ACTION_SCREEN_OFF);
+            filter.addAction(Intent.ACTION_SCREEN_ON);
+            filter.addAction(Intent.ACTION_USER_PRESENT);
+            context.registerReceiver(receiver, filter);
+            receiverRegistered = true;
+        } else if (listeners.isEmpty() && receiverRegistered) {
+            context.unregisterReceiver(receiver);
+            receiverRegistered = false;
+        }
+    }
+}
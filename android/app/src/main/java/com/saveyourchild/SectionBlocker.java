@@ -0,0 +1,198 @@
+// android/app/src/main/java/com/saveyourchild/SectionBlocker.java
+package com.saveyourchild;
+
+import android.accessibilityservice.AccessibilityService;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Blocks short-video sections (Instagram Reels, YouTube Shorts, ...) inside apps
+ * the user is otherwise allowed to use, when their session has "noreels" set.
+ *
+ * Content-change events arrive in bursts while a feed scrolls, so a burst is
+ * coalesced into one scan at most every SCAN_DEBOUNCE_MS. A scan walks the active
+ * window to a bounded depth and node count, recycling every node it obtains, and
+ * stops at the first node the app's compiled SectionMatcher accepts. Matchers come
+ * from the active RulePack for the installed app version and are looked up per
+ * scan, so a newly installed pack applies without restarting the service. On a
+ * match the service presses Back, which leaves the section but keeps the app open.
+ */
+final class SectionBlocker {
+
+    private static final String TAG = "SectionBlocker";
+
+    private static final long SCAN_DEBOUNCE_MS = 250;
+    private static final long BLOCK_COOLDOWN_MS = 1_000;   // let Back take effect before scanning again
+    private static final long SCAN_BUDGET_NANOS = 1_000_000;  // 1 ms
+
+    private static final SectionScanner.NodeAdapter<AccessibilityNodeInfo> NODE_ADAPTER =
+            new SectionScanner.NodeAdapter<AccessibilityNodeInfo>() {
+                @Override
+                public String getViewId(AccessibilityNodeInfo node) {
+                    return node.getViewIdResourceName();
+                }
+
+                @Override
+                public CharSequence getClassName(AccessibilityNodeInfo node) {
+                    return node.getClassName();
+                }
+
+                @Override
+                public boolean isVisible(AccessibilityNodeInfo node) {
+                    return node.isVisibleToUser();
+                }
+
+                @Override
+                public int getChildCount(AccessibilityNodeInfo node) {
+                    return node.getChildCount();
+                }
+
+                @Override
+                public AccessibilityNodeInfo getChild(AccessibilityNodeInfo node, int index) {
+                    return node.getChild(index);
+                }
+
+                @Override
+                public void release(AccessibilityNodeInfo node) {
+                    node.recycle();
+                }
+            };
+
+    private final AccessibilityService service;
+    private final AccessibilityEventFilter eventFilter;
+    private final RulePackManager rulePacks;
+    private final SectionScanner<AccessibilityNodeInfo> scanner =
+            new SectionScanner<>(NODE_ADAPTER, SectionScanner.MAX_DEPTH, SectionScanner.MAX_NODES);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable scanRunnable = this::scan;
+
+    private String pendingPackage;
+    private boolean scanScheduled = false;
+    private long lastBlockAt = 0;
+
+    // Metrics
+    private final AtomicLong contentEventCount = new AtomicLong();
+    private final AtomicLong scanCount = new AtomicLong();
+    private final AtomicLong blockCount = new AtomicLong();
+    private final AtomicLong overBudgetScanCount = new AtomicLong();
+    private final AtomicLong lastScanMicros = new AtomicLong();
+    private final AtomicLong maxScanMicros = new AtomicLong();
+    private final LatencyHistogram scanLatency = new LatencyHistogram();
+
+    SectionBlocker(AccessibilityService service, AccessibilityEventFilter eventFilter) {
+        this.service = service;
+        this.eventFilter = eventFilter;
+        this.rulePacks = RulePackManager.getInstance(service);
+    }
+
+    /** Content or window change in an app the user is currently allowed to use. Main thread. */
+    void onWindowChanged(String packageName) {
+        if (!eventFilter.isContentInspected(packageName)) {
+            return;
+        }
+        contentEventCount.incrementAndGet();
+        pendingPackage = packageName;
+        if (!scanScheduled) {
+            scanScheduled = true;
+            mainHandler.postDelayed(scanRunnable, SCAN_DEBOUNCE_MS);
+        }
+    }
+
+    void stop() {
+        mainHandler.removeCallbacks(scanRunnable);
+        scanScheduled = false;
+    }
+
+    long getScanCount() {
+        return scanCount.get();
+    }
+
+    long getBlockCount() {
+        return blockCount.get();
+    }
+
+    long getContentEventCount() {
+        return contentEventCount.get();
+    }
+
+    long getOverBudgetScanCount() {
+        return overBudgetScanCount.get();
+    }
+
+    long getLastScanMicros() {
+        return lastScanMicros.get();
+    }
+
+    long getMaxScanMicros() {
+        return maxScanMicros.get();
+    }
+
+    LatencyHistogram getScanLatency() {
+        return scanLatency;
+    }
+
+    /** Whether the session asks for this app's short-video section to be blocked. */
+    static boolean isSectionBlocked(Context context, String packageName) {
+        JSONObject appData = SessionStore.getAppData(packageName);
+        return appData != null && appData.optBoolean("noreels", false)
+                && RulePackManager.getInstance(context).hasRules(packageName);
+    }
+
+    private void scan() {
+        scanScheduled = false;
+        String packageName = pendingPackage;
+        SectionMatcher matcher = packageName != null ? rulePacks.getMatcher(packageName) : null;
+        if (matcher == null || SystemClock.uptimeMillis() - lastBlockAt < BLOCK_COOLDOWN_MS) {
+            return;
+        }
+
+        AccessibilityNodeInfo root = service.getRootInActiveWindow();
+        if (root == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean matched = false;
+        boolean traced = PerfTrace.begin(PerfTrace.SECTION_SCAN);
+        try {
+            // The active window may already belong to another app by now
+            CharSequence rootPackage = root.getPackageName();
+            if (rootPackage != null && packageName.contentEquals(rootPackage)) {
+                matched = scanner.scan(root, matcher);
+            }
+        } finally {
+            root.recycle();
+            PerfTrace.end(traced);
+        }
+        recordScan(System.nanoTime() - start);
+
+        if (matched) {
+            lastBlockAt = SystemClock.uptimeMillis();
+            blockCount.incrementAndGet();
+            Log.i(TAG, "🚫 Blocked " + matcher.getSection() + " in " + packageName);
+            service.performGlobalAction(AccessibilityService.GLOBAL_ACTION_BACK);
+        }
+    }
+
+    private void recordScan(long nanos) {
+        scanCount.incrementAndGet();
+        long micros = nanos / 1000;
+        lastScanMicros.set(micros);
+        scanLatency.record(micros);
+        if (micros > maxScanMicros.get()) {
+            maxScanMicros.set(micros);
+        }
+        if (nanos > SCAN_BUDGET_NANOS) {
+            overBudgetScanCount.incrementAndGet();
+            Log.w(TAG, "⚠️ Scan took " + micros + "µs over " + scanner.getNodesVisited() + " nodes");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+// android/app/src/main/java/com/saveyourchild/SectionMatcher.java
+package com.saveyourchild;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compiled selectors for one app's blocked section (Reels, Shorts, ...). A node
+ * matches when its view-ID resource name or its class name is in the rule set.
+ *
+ * Compiled once into hash sets so matching a node is a couple of lookups on
+ * strings the accessibility framework already handed us. Plain Java, no Android
+ * types, so matchers can be exercised on the JVM.
+ */
+public final class SectionMatcher {
+
+    private final String section;
+    private final Set<String> viewIds;        // full "package:id/name"
+    private final Set<String> viewIdNames;    // bare "name", matched against the part after ":id/"
+    private final Set<String> classNames;
+
+    private SectionMatcher(String section, Set<String> viewIds, Set<String> viewIdNames, Set<String> classNames) {
+        this.section = section;
+        this.viewIds = viewIds;
+        this.viewIdNames = viewIdNames;
+        this.classNames = classNames;
+    }
+
+    /**
+     * Rules may give view IDs fully qualified ("com.instagram.android:id/clips_viewer_view_pager")
+     * or bare ("clips_viewer_view_pager"); class names are fully qualified.
+     */
+    public static SectionMatcher compile(String section, Collection<String> viewIdRules, Collection<String> classNameRules) {
+        Set<String> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (String rule : viewIdRules) {
+            if (rule.indexOf(":id/") > 0) {
+                ids.add(rule);
+            } else {
+                names.add(rule);
+            }
+        }
+        return new SectionMatcher(section,
+                Collections.unmodifiableSet(ids),
+                Collections.unmodifiableSet(names),
+                Collections.unmodifiableSet(new HashSet<>(classNameRules)));
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public boolean isEmpty() {
+        return viewIds.isEmpty() && viewIdNames.isEmpty() && classNames.isEmpty();
+    }
+
+    public int getRuleCount() {
+        return viewIds.size() + viewIdNames.size() + classNames.size();
+    }
+
+    /** Either argument may be null (nodes without an ID, or with flagReportViewIds off). */
+    public boolean matches(String viewId, CharSequence className) {
+        if (viewId != null) {
+            if (viewIds.contains(viewId)) {
+                return true;
+            }
+            if (!viewIdNames.isEmpty()) {
+                int sep = viewId.indexOf(":id/");
+                if (sep >= 0 && viewIdNames.contains(viewId.substring(sep + 4))) {
+                    return true;
+                }
+            }
+        }
+        return className != null && !classNames.isEmpty() && classNames.contains(className.toString());
+    }
+}
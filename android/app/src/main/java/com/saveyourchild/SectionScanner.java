@@ -0,0 +1,81 @@
+// android/app/src/main/java/com/saveyourchild/SectionScanner.java
+package com.saveyourchild;
+
+/**
+ * Bounded depth-first search for the first visible node a SectionMatcher accepts.
+ *
+ * Generic over the node type so the same walk runs on AccessibilityNodeInfo in the
+ * service and on recorded node-tree fixtures on the JVM. Every child obtained from
+ * the adapter is released again; the root stays owned by the caller. Not thread-safe,
+ * use one instance per thread.
+ */
+public final class SectionScanner<N> {
+
+    // Bounds used on device; the JVM replay uses the same so fixtures see what the service sees
+    public static final int MAX_DEPTH = 12;
+    public static final int MAX_NODES = 400;
+
+    public interface NodeAdapter<N> {
+        String getViewId(N node);
+
+        CharSequence getClassName(N node);
+
+        boolean isVisible(N node);
+
+        int getChildCount(N node);
+
+        /** May return null when the child went away. */
+        N getChild(N node, int index);
+
+        void release(N node);
+    }
+
+    private final NodeAdapter<N> adapter;
+    private final int maxDepth;
+    private final int maxNodes;
+    private int nodesVisited;
+
+    public SectionScanner(NodeAdapter<N> adapter, int maxDepth, int maxNodes) {
+        this.adapter = adapter;
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+    }
+
+    public boolean scan(N root, SectionMatcher matcher) {
+        nodesVisited = 0;
+        return containsMatch(root, matcher, 0);
+    }
+
+    /** Nodes looked at by the last scan, capped at maxNodes + 1. */
+    public int getNodesVisited() {
+        return nodesVisited;
+    }
+
+    private boolean containsMatch(N node, SectionMatcher matcher, int depth) {
+        if (++nodesVisited > maxNodes) {
+            return false;
+        }
+        if (matcher.matches(adapter.getViewId(node), adapter.getClassName(node))) {
+            return adapter.isVisible(node);
+        }
+        if (depth >= maxDepth) {
+            return false;
+        }
+
+        int childCount = adapter.getChildCount(node);
+        for (int i = 0; i < childCount && nodesVisited <= maxNodes; i++) {
+            N child = adapter.getChild(node, i);
+            if (child == null) {
+                continue;
+            }
+            try {
+                if (containsMatch(child, matcher, depth + 1)) {
+                    return true;
+                }
+            } finally {
+                adapter.release(child);
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,261 @@
+// android/app/src/main/java/com/saveyourchild/SessionClock.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One shared once-per-second clock for every visible countdown (overlay pages, RN
+ * screens) instead of each running its own interval.
+ *
+ * Ticks land on wall-clock second boundaries, only run while somebody is subscribed
+ * and stop while the display is off (see ScreenStateMonitor). Subscribers get the
+ * tick time and look up what they need with getAccessRemainingMillis /
+ * getLockRemainingMillis, which read the session deadlines parsed once per
+ * SessionStore version instead of per tick.
+ */
+public final class SessionClock {
+
+    private static final String TAG = "SessionClock";
+    private static final long TICK_MS = 1000;
+
+    public interface Subscriber {
+        /** Called on the main thread, nowMillis is a whole wall-clock second. */
+        void onTick(long nowMillis);
+    }
+
+    private static SessionClock instance;
+
+    // Deadlines per package as {accessStart, accessEnd, lockUpTo} epoch millis (0 = unset)
+    // plus an isActive flag, null when the app is not in the session
+    private static HashMap<String, long[]> deadlines = new HashMap<>();
+    private static long deadlinesVersion = -1;
+    private static final LongAdder deadlineCacheHits = new LongAdder();
+    private static final LongAdder deadlineCacheMisses = new LongAdder();
+
+    private final ScreenStateMonitor screenState;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ArrayList<Subscriber> subscribers = new ArrayList<>();   // main thread only
+
+    private boolean ticking = false;
+
+    private final AtomicLong tickCount = new AtomicLong();
+    private final AtomicLong suspendCount = new AtomicLong();
+
+    private final Runnable tickRunnable = this::tick;
+
+    private final ScreenStateMonitor.Listener screenListener = new ScreenStateMonitor.Listener() {
+        @Override
+        public void onScreenOff() {
+            if (ticking) suspendCount.incrementAndGet();
+            updateTicking();
+        }
+
+        @Override
+        public void onScreenOn() {
+            // Catch up immediately instead of waiting for the next boundary
+            if (!subscribers.isEmpty() && !ticking) {
+                deliver(currentSecond());
+            }
+            updateTicking();
+        }
+
+        @Override
+        public void onUserPresent() {}
+    };
+
+    private SessionClock(Context context) {
+        this.screenState = ScreenStateMonitor.getInstance(context);
+    }
+
+    public static synchronized SessionClock getInstance(Context context) {
+        if (instance == null) {
+            instance = new SessionClock(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** Starts delivering ticks to the subscriber, beginning with an immediate one. Any thread. */
+    public void subscribe(Subscriber subscriber) {
+        mainHandler.post(() -> {
+            if (subscribers.contains(subscriber)) {
+                return;
+            }
+            subscribers.add(subscriber);
+            if (subscribers.size() == 1) {
+                screenState.addListener(screenListener);
+            }
+            if (screenState.isScreenOn()) {
+                subscriber.onTick(currentSecond());
+            }
+            updateTicking();
+        });
+    }
+
+    /** Stops ticks to the subscriber. Any thread. */
+    public void unsubscribe(Subscriber subscriber) {
+        mainHandler.post(() -> {
+            if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+                screenState.removeListener(screenListener);
+            }
+            updateTicking();
+        });
+    }
+
+    public long getTickCount() {
+        return tickCount.get();
+    }
+
+    public long getSuspendCount() {
+        return suspendCount.get();
+    }
+
+    /** Deadline lookups answered from the per-version cache. */
+    public static long getDeadlineCacheHits() {
+        return deadlineCacheHits.sum();
+    }
+
+    /** Lookups that had to parse the app's session entry. */
+    public static long getDeadlineCacheMisses() {
+        return deadlineCacheMisses.sum();
+    }
+
+    // ---- Remaining time ----
+
+    /** Millis of access time left for the app at nowMillis, 0 outside its access window. */
+    public static long getAccessRemainingMillis(String packageName, long nowMillis) {
+        long[] d = getDeadlines(packageName);
+        if (d == null || nowMillis < d[0] || nowMillis >= d[1]) {
+            return 0;
+        }
+        return d[1] - nowMillis;
+    }
+
+    /** Millis until the app's lock ends at nowMillis, 0 when not locked. */
+    public static long getLockRemainingMillis(String packageName, long nowMillis) {
+        long[] d = getDeadlines(packageName);
+        if (d == null || nowMillis < d[1] || nowMillis >= d[2]) {
+            return 0;
+        }
+        return d[2] - nowMillis;
+    }
+
+    /**
+     * Fills out with the app's {accessStart, accessEnd, lockUpTo} epoch millis (0 = unset)
+     * for DecisionPipeline. Returns false when the app is not active in the session.
+     * Reads the per-version cache, so a decision allocates nothing once it is warm.
+     */
+    public static boolean readDeadlines(String packageName, long[] out) {
+        long[] d = getDeadlines(packageName);
+        if (d == null || d[3] == 0) {
+            return false;
+        }
+        out[0] = d[0];
+        out[1] = d[1];
+        out[2] = d[2];
+        return true;
+    }
+
+    /** Parses the ISO-8601 UTC timestamps the JS side writes, 0 when empty or invalid. */
+    public static long parseIsoMillis(String iso) {
+        if (iso == null || iso.isEmpty() || iso.equals("null")) {
+            return 0;
+        }
+        try {
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+            sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return sdf.parse(iso).getTime();
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error parsing time '" + iso + "': " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static synchronized long[] getDeadlines(String packageName) {
+        long version = SessionStore.getVersion();
+        if (deadlinesVersion != version) {
+            deadlines = new HashMap<>();
+            deadlinesVersion = version;
+        }
+        if (deadlines.containsKey(packageName)) {
+            deadlineCacheHits.increment();
+        } else {
+            deadlineCacheMisses.increment();
+            JSONObject appData = SessionStore.getAppData(packageName);
+            deadlines.put(packageName, appData != null ? parseDeadlines(appData) : null);
+        }
+        return deadlines.get(packageName);
+    }
+
+    // {accessStart, accessEnd, lockUpTo, isActive ? 1 : 0}
+    private static long[] parseDeadlines(JSONObject appData) {
+        String accessEndTime = appData.optString("accessEndTime", "");
+        String lockUpToTime = appData.optString("lockUpToTime", "");
+        long accessStart = parseIsoMillis(appData.optString("accessStartTime", ""));
+        long accessEnd = parseIsoMillis(accessEndTime);
+        long lockUpTo = parseIsoMillis(lockUpToTime);
+        if ((accessEnd == 0 && !isUnset(accessEndTime)) || (lockUpTo == 0 && !isUnset(lockUpToTime))) {
+            // Corrupt timing: treat as never set up, so the user gets the access screen
+            accessStart = 0;
+        }
+        return new long[]{accessStart, accessEnd, lockUpTo, appData.optBoolean("isActive", false) ? 1 : 0};
+    }
+
+    private static boolean isUnset(String iso) {
+        return iso.isEmpty() || iso.equals("null");
+    }
+
+    // ---- Ticking ----
+
+    private void tick() {
+        ticking = false;
+        if (subscribers.isEmpty() || !screenState.isScreenOn()) {
+            return;
+        }
+        deliver(currentSecond());
+        scheduleNextTick();
+    }
+
+    private void deliver(long now) {
+        tickCount.incrementAndGet();
+        // Copy: a subscriber may unsubscribe from inside onTick
+        for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+            subscriber.onTick(now);
+        }
+    }
+
+    private void updateTicking() {
+        boolean shouldTick = !subscribers.isEmpty() && screenState.isScreenOn();
+        if (shouldTick && !ticking) {
+            scheduleNextTick();
+        } else if (!shouldTick && ticking) {
+            mainHandler.removeCallbacks(tickRunnable);
+            ticking = false;
+        }
+    }
+
+    // Next wall-clock second boundary, so every subscriber flips its display at the same moment
+    private void scheduleNextTick() {
+        long delay = TICK_MS - (System.currentTimeMillis() % TICK_MS);
+        mainHandler.postDelayed(tickRunnable, delay);
+        ticking = true;
+    }
+
+    private static long currentSecond() {
+        long now = System.currentTimeMillis();
+        // A tick may fire a few ms early; round to the nearest second
+        return (now + TICK_MS / 2) / TICK_MS * TICK_MS;
+    }
+}
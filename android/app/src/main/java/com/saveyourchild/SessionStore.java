@@ -0,0 +1,283 @@
+// android/app/src/main/java/com/saveyourchild/SessionStore.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.tencent.mmkv.MMKV;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide holder for the active session rules, backed by the "session" MMKV
+ * instance. That instance is the single source of truth: one key per app,
+ * "app:<packageName>" → that app's session JSON, memory-mapped and persisted, so
+ * AppMonitorService can enforce from it when JS isn't running.
+ *
+ * Plain Java on purpose: AppMonitorService and the overlays read and write the
+ * session through here so a process started only for enforcement never loads
+ * React Native classes. JS goes through here too (AppMonitorModule's synchronous
+ * session methods) instead of opening the file with react-native-mmkv: that
+ * library bundles its own MMKV core, and two cores of possibly different versions
+ * mapping one file in one process can disagree on its layout and lock protocol.
+ * Only com.tencent:mmkv touches the file; react-native-mmkv keeps its own default
+ * instance. Native changes reach JS as the OnSessionChangedListener the module
+ * registers, which names the app instead of sending the JSON.
+ */
+public final class SessionStore {
+
+    private static final String TAG = "SessionStore";
+
+    static final String STORE_ID = "session";
+    static final String APP_KEY_PREFIX = "app:";
+
+    public interface OnSessionChangedListener {
+        /** packageName is null when the whole session was replaced. */
+        void onSessionChanged(String packageName);
+    }
+
+    private static MMKV storage;   // null until init(); the session is then memory-only
+    private static JSONObject session = new JSONObject();
+    private static volatile OnSessionChangedListener listener;
+    private static volatile long version = 0;
+    // Told about every change, whichever side made it (the JS-facing listener above only hears native ones)
+    private static final CopyOnWriteArrayList<Runnable> versionListeners = new CopyOnWriteArrayList<>();
+
+    // Serialized form of session, rebuilt lazily once per version
+    private static String sessionJson = "{}";
+    private static long sessionJsonVersion = 0;
+    private static final LongAdder sessionJsonHits = new LongAdder();
+    private static final LongAdder sessionJsonMisses = new LongAdder();
+
+    private SessionStore() {}
+
+    /** Opens the shared store and loads the session. Safe to call from every entry point. */
+    public static void init(Context context) {
+        synchronized (SessionStore.class) {
+            if (storage != null) {
+                return;
+            }
+            try {
+                MMKV.initialize(context.getApplicationContext());
+                storage = MMKV.mmkvWithID(STORE_ID, MMKV.SINGLE_PROCESS_MODE);
+                session = readAll();
+                version++;
+                Log.d(TAG, "✅ Session loaded from MMKV: " + session.length() + " apps");
+            } catch (Throwable t) {
+                storage = null;
+                Log.e(TAG, "❌ Error opening session store: " + t.getMessage());
+            }
+        }
+        notifyVersionListeners();
+    }
+
+    public static synchronized String getActiveSession() {
+        if (sessionJsonVersion != version) {
+            sessionJsonMisses.increment();
+            sessionJson = session.toString();
+            sessionJsonVersion = version;
+        } else {
+            sessionJsonHits.increment();
+        }
+        return sessionJson;
+    }
+
+    /** getActiveSession() calls served from the cached serialization. */
+    public static long getSessionJsonCacheHits() {
+        return sessionJsonHits.sum();
+    }
+
+    public static long getSessionJsonCacheMisses() {
+        return sessionJsonMisses.sum();
+    }
+
+    /** Number of apps in the session, active or not. */
+    public static synchronized int getAppCount() {
+        return session.length();
+    }
+
+    /** Bumped on every change; lets readers tell whether their copy is stale. */
+    public static long getVersion() {
+        return version;
+    }
+
+    /** Replaces the whole session; null clears it. Returns false when the JSON doesn't parse. */
+    public static boolean setActiveSession(String activeSessionJson) {
+        JSONObject replacement;
+        try {
+            replacement = new JSONObject(activeSessionJson != null ? activeSessionJson : "{}");
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error parsing active session: " + e.getMessage());
+            return false;
+        }
+        boolean traced = PerfTrace.begin(PerfTrace.SESSION_UPDATE);
+        try {
+            synchronized (SessionStore.class) {
+                if (storage != null) {
+                    storage.removeValuesForKeys(appKeys());
+                    Iterator<String> keys = replacement.keys();
+                    while (keys.hasNext()) {
+                        String packageName = keys.next();
+                        JSONObject appData = replacement.optJSONObject(packageName);
+                        if (appData != null) {
+                            storage.encode(APP_KEY_PREFIX + packageName, appData.toString());
+                        }
+                    }
+                }
+                session = replacement;
+                version++;
+            }
+        } finally {
+            PerfTrace.end(traced);
+        }
+        notifyVersionListeners();
+        return true;
+    }
+
+    /**
+     * One app's session data from the shared parsed tree, or null. Lets the overlay
+     * layer receive just a package name and look the (icon-sized) payload up here
+     * instead of getting it serialized into every message. Treat it as read-only.
+     */
+    public static synchronized JSONObject getAppData(String packageName) {
+        return session.optJSONObject(packageName);
+    }
+
+    /** One app's session data serialized, or null; a copy callers may keep. */
+    public static synchronized String getAppJson(String packageName) {
+        JSONObject appData = session.optJSONObject(packageName);
+        return appData != null ? appData.toString() : null;
+    }
+
+    /** Packages whose session entry is active, i.e. the apps enforcement has to watch. */
+    public static synchronized Set<String> getMonitoredPackages() {
+        Set<String> packages = new HashSet<>();
+        Iterator<String> keys = session.keys();
+        while (keys.hasNext()) {
+            String packageName = keys.next();
+            JSONObject appData = session.optJSONObject(packageName);
+            if (appData != null && appData.optBoolean("isActive", false)) {
+                packages.add(packageName);
+            }
+        }
+        return packages;
+    }
+
+    /**
+     * Runs after every session change, on the thread that made it and after the
+     * store's lock is released, so a listener may call back into SessionStore or take
+     * its own locks. Concurrent changes may notify out of order; read getVersion()
+     * or the data itself rather than counting calls. Keep it short.
+     */
+    public static void addOnVersionChangedListener(Runnable versionListener) {
+        versionListeners.addIfAbsent(versionListener);
+    }
+
+    public static void removeOnVersionChangedListener(Runnable versionListener) {
+        versionListeners.remove(versionListener);
+    }
+
+    private static JSONObject readAll() {
+        JSONObject loaded = new JSONObject();
+        for (String key : appKeys()) {
+            String appJson = storage.decodeString(key);
+            if (appJson == null) {
+                continue;
+            }
+            try {
+                loaded.put(key.substring(APP_KEY_PREFIX.length()), new JSONObject(appJson));
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Skipping unreadable session entry " + key + ": " + e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    private static String[] appKeys() {
+        String[] all = storage.allKeys();
+        List<String> keys = new ArrayList<>();
+        if (all != null) {
+            for (String key : all) {
+                if (key.startsWith(APP_KEY_PREFIX)) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static void notifyVersionListeners() {
+        for (Runnable versionListener : versionListeners) {
+            versionListener.run();
+        }
+    }
+
+    public static void setOnSessionChangedListener(OnSessionChangedListener sessionListener) {
+        listener = sessionListener;
+    }
+
+    /**
+     * Merges one app's session data into the active session, keeping the stored icon
+     * when the new data doesn't carry one, writes it to MMKV and notifies the listener.
+     */
+    public static void updateApp(String packageName, String sessionDataJson) {
+        if (!writeApp(packageName, sessionDataJson)) {
+            return;
+        }
+        OnSessionChangedListener currentListener = listener;
+        if (currentListener != null) {
+            currentListener.onSessionChanged(packageName);
+        }
+    }
+
+    /**
+     * updateApp for changes JS made: the same merge and write, but the
+     * OnSessionChangedListener isn't called, JS already knows. Returns false when
+     * the JSON doesn't parse.
+     */
+    public static boolean updateAppFromJs(String packageName, String sessionDataJson) {
+        return writeApp(packageName, sessionDataJson);
+    }
+
+    private static boolean writeApp(String packageName, String sessionDataJson) {
+        boolean traced = PerfTrace.begin(PerfTrace.SESSION_UPDATE);
+        try {
+            // Parse new session data (without icon)
+            JSONObject newSessionData = new JSONObject(sessionDataJson);
+
+            synchronized (SessionStore.class) {
+                // ✅ Add icon from existing session data if available
+                JSONObject existingAppData = session.optJSONObject(packageName);
+                if (existingAppData != null && !existingAppData.optString("icon", "").isEmpty()
+                        && newSessionData.optString("icon", "").isEmpty()) {
+                    newSessionData.put("icon", existingAppData.getString("icon"));
+                    Log.d(TAG, "✅ Preserved existing icon for: " + packageName);
+                }
+
+                if (storage != null) {
+                    storage.encode(APP_KEY_PREFIX + packageName, newSessionData.toString());
+                }
+                session.put(packageName, newSessionData);
+                version++;
+            }
+            Log.d(TAG, "✅ Active session updated for: " + packageName);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error updating active session: " + e.getMessage());
+            return false;
+        } finally {
+            PerfTrace.end(traced);
+        }
+
+        // Outside the lock: listeners reach into SessionClock, the overlay and the JS bridge
+        notifyVersionListeners();
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+// android/app/src/main/java/com/saveyourchild/StartupTrace.java
+package com.saveyourchild;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Records cold-start milestones of the enforcement path (service connected → first
+ * overlay on screen) relative to process start. Each milestone is only recorded
+ * once per process, so this is effectively free after the first intervention.
+ *
+ * Read the summary with: adb logcat -s StartupTrace
+ */
+public final class StartupTrace {
+
+    private static final String TAG = "StartupTrace";
+
+    public static final String SERVICE_CONNECTED = "serviceConnected";
+    public static final String FIRST_EVENT = "firstEvent";
+    public static final String FIRST_DECISION = "firstDecision";
+    public static final String OVERLAY_ATTACHED = "overlayAttached";
+    public static final String FIRST_ENFORCEMENT = "firstEnforcement";
+
+    private static final String[] STAGES = {
+            SERVICE_CONNECTED, FIRST_EVENT, FIRST_DECISION, OVERLAY_ATTACHED, FIRST_ENFORCEMENT
+    };
+
+    // Elapsed-realtime millis per stage, 0 = not reached yet
+    private static final long[] stageTimes = new long[STAGES.length];
+    private static boolean reported = false;
+
+    private StartupTrace() {}
+
+    public static synchronized void mark(String stage) {
+        int index = indexOf(stage);
+        if (index < 0 || stageTimes[index] != 0) {
+            return;
+        }
+
+        stageTimes[index] = SystemClock.elapsedRealtime();
+        Log.d(TAG, "⏱️ " + stage + " at +" + sinceProcessStart(stageTimes[index]) + "ms");
+
+        if (FIRST_ENFORCEMENT.equals(stage) && !reported) {
+            reported = true;
+            report();
+        }
+    }
+
+    /** Time from process start to the first overlay content being shown, or -1 if not reached. */
+    public static synchronized long getTimeToFirstEnforcement() {
+        long enforced = stageTimes[indexOf(FIRST_ENFORCEMENT)];
+        return enforced == 0 ? -1 : sinceProcessStart(enforced);
+    }
+
+    private static void report() {
+        StringBuilder sb = new StringBuilder("📊 Cold start summary:");
+        for (int i = 0; i < STAGES.length; i++) {
+            sb.append(' ').append(STAGES[i]).append('=');
+            sb.append(stageTimes[i] == 0 ? "-" : sinceProcessStart(stageTimes[i]) + "ms");
+        }
+        sb.append(" timeToFirstEnforcement=").append(sinceProcessStart(stageTimes[indexOf(FIRST_ENFORCEMENT)])).append("ms");
+        Log.i(TAG, sb.toString());
+    }
+
+    private static long sinceProcessStart(long elapsedRealtime) {
+        return elapsedRealtime - Process.getStartElapsedRealtime();
+    }
+
+    private static int indexOf(String stage) {
+        for (int i = 0; i < STAGES.length; i++) {
+            if (STAGES[i].equals(stage)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,181 @@
+// android/app/src/main/java/com/saveyourchild/SystemPackageRegistry.java
+package com.saveyourchild;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.inputmethod.InputMethodInfo;
+import android.view.inputmethod.InputMethodManager;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Packages that are never worth a session lookup: home screens, keyboards, apps
+ * with FLAG_SYSTEM and our own package, discovered from PackageManager instead of
+ * a hard-coded list so every OEM launcher is covered.
+ *
+ * Built on a background thread at startup and rebuilt when packages or the input
+ * method change. Lookups are a single read of an immutable HashSet. Until the
+ * first build finishes only our own package is in it, which just means a few
+ * early events take the full session check.
+ */
+public final class SystemPackageRegistry {
+
+    private static final String TAG = "SystemPackageRegistry";
+    private static final long REBUILD_DELAY_MS = 500;  // coalesce package-update bursts
+
+    private static SystemPackageRegistry instance;
+
+    private final Context context;
+    private final Handler worker;
+    private final Runnable rebuildRunnable = this::rebuild;
+
+    private volatile Set<String> systemPackages;
+    private volatile Set<String> homePackages = Collections.emptySet();
+    private boolean started = false;
+    private final CopyOnWriteArrayList<Runnable> packagesChangedListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private volatile long lastBuildMs = 0;
+
+    private final BroadcastReceiver packageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            Log.d(TAG, "📦 " + intent.getAction() + ", rebuilding");
+            scheduleRebuild();
+        }
+    };
+
+    private SystemPackageRegistry(Context context) {
+        this.context = context;
+        this.systemPackages = Collections.singleton(context.getPackageName());
+
+        HandlerThread thread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        this.worker = new Handler(thread.getLooper());
+    }
+
+    public static synchronized SystemPackageRegistry getInstance(Context context) {
+        if (instance == null) {
+            instance = new SystemPackageRegistry(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** Builds the registry in the background and starts following package changes. */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        IntentFilter packageFilter = new IntentFilter();
+        packageFilter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        packageFilter.addDataScheme("package");
+        context.registerReceiver(packageReceiver, packageFilter);
+        context.registerReceiver(packageReceiver, new IntentFilter(Intent.ACTION_INPUT_METHOD_CHANGED));
+
+        worker.post(rebuildRunnable);
+    }
+
+    public synchronized void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        context.unregisterReceiver(packageReceiver);
+        worker.removeCallbacks(rebuildRunnable);
+    }
+
+    /** O(1): true for launchers, keyboards, system apps and our own package. */
+    public boolean isSystemPackage(String packageName) {
+        return systemPackages.contains(packageName);
+    }
+
+    public Set<String> getHomePackages() {
+        return homePackages;
+    }
+
+    public int size() {
+        return systemPackages.size();
+    }
+
+    public long getRebuildCount() {
+        return rebuildCount.get();
+    }
+
+    public long getLastBuildMs() {
+        return lastBuildMs;
+    }
+
+    /** Runs on the worker thread after every rebuild, i.e. after packages were added, updated or removed. */
+    public void addOnPackagesChangedListener(Runnable listener) {
+        packagesChangedListeners.addIfAbsent(listener);
+    }
+
+    public void removeOnPackagesChangedListener(Runnable listener) {
+        packagesChangedListeners.remove(listener);
+    }
+
+    private void scheduleRebuild() {
+        worker.removeCallbacks(rebuildRunnable);
+        worker.postDelayed(rebuildRunnable, REBUILD_DELAY_MS);
+    }
+
+    // Worker thread
+    private void rebuild() {
+        long start = SystemClock.elapsedRealtime();
+        PackageManager pm = context.getPackageManager();
+        Set<String> packages = new HashSet<>();
+
+        try {
+            packages.add(context.getPackageName());
+
+            Set<String> homes = AccessibilityEventFilter.discoverLaunchers(pm);
+            packages.addAll(homes);
+            homePackages = homes;
+
+            InputMethodManager imm = (InputMethodManager) context.getSystemService(Context.INPUT_METHOD_SERVICE);
+            if (imm != null) {
+                for (InputMethodInfo ime : imm.getInputMethodList()) {
+                    packages.add(ime.getPackageName());
+                }
+            }
+
+            for (ApplicationInfo app : pm.getInstalledApplications(0)) {
+                if ((app.flags & ApplicationInfo.FLAG_SYSTEM) != 0) {
+                    packages.add(app.packageName);
+                }
+            }
+        } catch (Exception e) {
+            // Keep the previous set rather than publish a partial one
+            Log.e(TAG, "❌ Error building registry: " + e.getMessage());
+            return;
+        }
+
+        systemPackages = Collections.unmodifiableSet(packages);
+        rebuildCount.incrementAndGet();
+        lastBuildMs = SystemClock.elapsedRealtime() - start;
+        Log.d(TAG, "✅ " + packages.size() + " system packages (" + homePackages.size()
+                + " launchers) in " + lastBuildMs + "ms");
+
+        for (Runnable listener : packagesChangedListeners) {
+            listener.run();
+        }
+    }
+}
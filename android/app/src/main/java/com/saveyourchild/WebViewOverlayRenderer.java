@@ -0,0 +1,268 @@
+// android/app/src/main/java/com/saveyourchild/WebViewOverlayRenderer.java
+package com.saveyourchild;
+
+import android.content.Context;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+import android.webkit.JavascriptInterface;
+import android.widget.FrameLayout;
+
+/**
+ * Renders accessScreen.html / lockscreen.html. Each page gets one WebView that is
+ * loaded once and kept (see OverlayWebViewManager), so switching apps, refreshing a
+ * countdown or moving from the access screen to the lock screen only posts new
+ * data over the page's message channel - nothing reloads unless the WebView
+ * renderer went away.
+ */
+final class WebViewOverlayRenderer implements OverlayRenderer {
+
+    private static final String TAG = "WebViewOverlayRenderer";
+
+    private final Context context;
+    private final OverlayController controller;
+    private final OverlayWebViewManager webViews;
+
+    private FrameLayout container;
+    private OverlayWebViewManager.Page activePage;
+    private OverlayContent pendingContent;
+    private Runnable pendingReady;
+    private boolean timersPaused = false;
+    private int injectTraceCookie;   // open syc.webview.inject section, 0 when none
+
+    // Page loaded ahead of a likely show (see OverlayPrewarmer), until bind or release
+    private OverlayWebViewManager.Page prewarmPage;
+    private OverlayContent prewarmContent;
+    private boolean prewarmCreatedPage = false;
+
+    // Drives the page countdowns from the shared clock instead of per-page setIntervals
+    private final SessionClock.Subscriber tickSubscriber = this::onTick;
+
+    private final OverlayWebViewManager.Listener pageListener = new OverlayWebViewManager.Listener() {
+        @Override
+        public void onPageReady(OverlayWebViewManager.Page page) {
+            if (page == activePage && pendingContent != null) {
+                sendContent(page);
+            } else if (page == prewarmPage) {
+                sendPrewarmContent(page);
+            }
+        }
+
+        @Override
+        public void onContentApplied(OverlayWebViewManager.Page page) {
+            if (page != activePage || pendingContent == null) {
+                return;
+            }
+            injectTraceCookie = PerfTrace.endAsync(PerfTrace.PAGE_INJECT, injectTraceCookie);
+            SessionClock.getInstance(context).subscribe(tickSubscriber);
+            Runnable onReady = pendingReady;
+            pendingReady = null;
+            if (onReady != null) {
+                onReady.run();
+            }
+        }
+
+        @Override
+        public void onPageGone(OverlayWebViewManager.Page page) {
+            if (page == prewarmPage) {
+                prewarmPage = null;
+                prewarmContent = null;
+            }
+            if (page != activePage) {
+                return;
+            }
+            activePage = null;
+            // On screen right now: bring the page back with the same content
+            OverlayContent content = pendingContent;
+            if (content != null) {
+                Log.i(TAG, "🔁 Recreating " + page.screen + " page for: " + content.appName);
+                bind(content, pendingReady);
+            }
+        }
+    };
+
+    WebViewOverlayRenderer(Context context, OverlayController controller) {
+        this.context = context;
+        this.controller = controller;
+        this.webViews = new OverlayWebViewManager(context, new OverlayJsInterface(), pageListener);
+    }
+
+    @Override
+    public View getView() {
+        if (container == null) {
+            container = new FrameLayout(context);
+        }
+        return container;
+    }
+
+    @Override
+    public void bind(OverlayContent content, Runnable onReady) {
+        getView();
+        pendingContent = content;
+        pendingReady = onReady;
+        prewarmPage = null;
+        prewarmContent = null;
+
+        OverlayWebViewManager.Page page = webViews.obtain(content.screen, container);
+        if (page != activePage) {
+            if (activePage != null) {
+                activePage.webView.setVisibility(View.GONE);
+                activePage.webView.onPause();
+            }
+            page.webView.setVisibility(View.VISIBLE);
+            activePage = page;
+        }
+        page.webView.onResume();
+        if (timersPaused) {
+            page.webView.resumeTimers();
+            timersPaused = false;
+        }
+
+        // Not ready yet: the page's ready message sends the pending content
+        if (page.ready) {
+            sendContent(page);
+        }
+    }
+
+    // Loads the page and hands it the app's data while the window is hidden, so the
+    // show only has to make it visible and send an update
+    @Override
+    public void prewarm(OverlayContent content) {
+        getView();
+        prewarmCreatedPage = !webViews.has(content.screen);
+        OverlayWebViewManager.Page page = webViews.obtain(content.screen, container);
+        if (page != activePage) {
+            page.webView.setVisibility(View.GONE);
+        }
+        page.webView.onResume();
+        prewarmPage = page;
+        prewarmContent = content;
+        if (page.ready) {
+            sendPrewarmContent(page);
+        }
+    }
+
+    // A page only this pre-warm created is destroyed again; a page that was there before goes back to reset
+    @Override
+    public void releasePrewarm() {
+        OverlayWebViewManager.Page page = prewarmPage;
+        prewarmPage = null;
+        prewarmContent = null;
+        if (page == null) {
+            return;
+        }
+        if (prewarmCreatedPage && page != activePage) {
+            webViews.discard(page);
+        } else {
+            webViews.reset(page);
+        }
+    }
+
+    @Override
+    public void reset() {
+        SessionClock.getInstance(context).unsubscribe(tickSubscriber);
+        injectTraceCookie = PerfTrace.endAsync(PerfTrace.PAGE_INJECT, injectTraceCookie);
+        pendingContent = null;
+        pendingReady = null;
+        if (activePage != null) {
+            webViews.reset(activePage);
+        }
+    }
+
+    // WebView timers are process-wide, but the overlay pages are the only WebViews here
+    @Override
+    public void pause() {
+        if (activePage != null) {
+            activePage.webView.onPause();
+            activePage.webView.pauseTimers();
+            timersPaused = true;
+        }
+    }
+
+    @Override
+    public void resume() {
+        if (activePage != null) {
+            activePage.webView.resumeTimers();
+            activePage.webView.onResume();
+            timersPaused = false;
+        }
+    }
+
+    @Override
+    public void release() {
+        reset();
+        prewarmPage = null;
+        prewarmContent = null;
+        webViews.releaseAll();
+        activePage = null;
+        container = null;
+    }
+
+    private void sendContent(OverlayWebViewManager.Page page) {
+        OverlayContent content = pendingContent;
+        if (content == null) {
+            return;
+        }
+        String type = page.hasContent ? "update" : "init";
+        page.hasContent = true;
+        // Send → the page's "applied"; a newer send supersedes the open one
+        PerfTrace.endAsync(PerfTrace.PAGE_INJECT, injectTraceCookie);
+        injectTraceCookie = PerfTrace.beginAsync(PerfTrace.PAGE_INJECT);
+        webViews.send(page, contentMessage(type, content));
+        Log.d(TAG, "Data sent (" + type + ") for: " + content.appName);
+    }
+
+    // The page builds the screen (and starts the icon load) now; its "applied" is ignored while hidden
+    private void sendPrewarmContent(OverlayWebViewManager.Page page) {
+        OverlayContent content = prewarmContent;
+        if (content == null || page.hasContent) {
+            return;
+        }
+        page.hasContent = true;
+        webViews.send(page, contentMessage("init", content));
+        Log.d(TAG, "Data sent (prewarm) for: " + content.appName);
+    }
+
+    // appData is already JSON; the page parses the message once, nothing is evaluated
+    private String contentMessage(String type, OverlayContent content) {
+        String tier = DeviceTier.getInstance(context).getTierName();
+        return "{\"type\":\"" + type + "\",\"tier\":\"" + tier + "\",\"app\":" + content.appData + "}";
+    }
+
+    // Sends the remaining lock seconds (0 on the access screen) to the page's countdown
+    private void onTick(long nowMillis) {
+        OverlayContent content = pendingContent;
+        OverlayWebViewManager.Page page = activePage;
+        if (content == null || page == null || !page.ready) {
+            return;
+        }
+        long remainingSeconds = content.screen == OverlayContent.Screen.LOCK
+                ? (content.getRemainingLockMillis(nowMillis) + 999) / 1000
+                : 0;
+        webViews.send(page, "{\"type\":\"tick\",\"remaining\":" + remainingSeconds + "}");
+    }
+
+    // JavaScript interface
+    private class OverlayJsInterface {
+        @JavascriptInterface
+        public void onFocusSessionStart(String sessionJson) {
+            Log.d(TAG, "Focus session started: " + sessionJson);
+            controller.onFocusSessionStart(sessionJson);
+        }
+
+        @JavascriptInterface
+        public void onCancel() {
+            controller.onCancel();
+        }
+
+        @JavascriptInterface
+        public void onTimeUp() {
+            controller.onTimeUp();
+        }
+
+        @JavascriptInterface
+        public void logMessage(String message) {
+            Log.d(TAG, "📄 " + message);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+// android/scripts/AllocationBudget.java
+package com.saveyourchild;
+
+import org.json.JSONObject;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Allocation budget for the enforcement decision path: drives synthetic window
+ * events through DecisionPipeline and fails when the bytes allocated per event
+ * exceed the budget. Run through check-allocation-budget.sh.
+ *
+ * The host is the device's session lookup, not EventReplay's fake: the session
+ * goes into the real SessionStore (memory-only, no MMKV) as the JSON the app
+ * writes, with ISO timestamps, and every decision reads it through
+ * SessionClock.readDeadlines as AppMonitorService does. Each event is wrapped
+ * the way onAccessibilityEvent wraps it: PerfTrace sections (off, as normally),
+ * the event counter and both latency histograms. EventCapture is a null check
+ * while no capture runs and is left out.
+ *
+ * The event mix cycles through every outcome: a launcher, an allowed app with a
+ * burst of content changes, a locked app, an app awaiting access setup and an app
+ * outside the session. Warm-up passes fill the per-version deadline cache; the
+ * cold pass after a session change is reported but not budgeted.
+ */
+public final class AllocationBudget {
+
+    private static final long START_MILLIS = 1_760_870_400_000L;
+    private static final long EVENT_SPACING_MS = 50;
+    private static final int WARMUP_PASSES = 5;
+
+    private static final String LAUNCHER = "com.google.android.apps.nexuslauncher";
+    private static final String ALLOWED = "com.instagram.android";
+    private static final String LOCKED = "com.zhiliaoapp.musically";
+    private static final String SETUP = "com.google.android.youtube";
+    private static final String OUTSIDE = "com.example.notes";
+
+    /** AppMonitorService.pipelineHost minus the overlay: the session lookup is the shared code. */
+    static final class SessionHost implements DecisionPipeline.Host {
+        final Set<String> systemPackages = new HashSet<>();
+        long interventions;
+        long scans;
+
+        @Override
+        public boolean isUserPresent() {
+            return true;
+        }
+
+        @Override
+        public boolean isSystemPackage(String packageName) {
+            return systemPackages.contains(packageName);
+        }
+
+        @Override
+        public boolean readDeadlines(String packageName, long[] out) {
+            return SessionClock.readDeadlines(packageName, out);
+        }
+
+        @Override
+        public void onLockExpired(String packageName) {
+            // Not in the mix: resetting the timing writes the session, which is no per-event cost
+        }
+
+        @Override
+        public void intervene(String packageName, DecisionPipeline.AppState state) {
+            interventions++;
+        }
+
+        @Override
+        public void requestSectionScan(String packageName) {
+            scans++;
+        }
+    }
+
+    // Stand-ins for AppMonitorService's per-event bookkeeping
+    private static final LongAdder eventCount = new LongAdder();
+    private static final LatencyHistogram dispatchLatency = new LatencyHistogram();
+    private static final LatencyHistogram decisionLatency = new LatencyHistogram();
+
+    private AllocationBudget() {}
+
+    public static void main(String[] args) {
+        int events = 10_000;
+        int passes = 10;
+        double budgetBytes = 0.5;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--events")) {
+                events = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--passes")) {
+                passes = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--budget")) {
+                budgetBytes = Double.parseDouble(args[++i]);
+            }
+        }
+
+        com.sun.management.ThreadMXBean threads = EventReplay.allocationBean();
+        if (threads == null) {
+            System.err.println("This JVM has no per-thread allocation counter");
+            System.exit(2);
+        }
+
+        EventReplay.Capture capture = syntheticCapture(events);
+        SessionHost host = new SessionHost();
+        host.systemPackages.addAll(capture.systemPackages);
+        DecisionPipeline pipeline = new DecisionPipeline(host);
+        SessionStore.setActiveSession(sessionJson(events));
+
+        long cold = runPass(capture, pipeline, threads);
+        for (int pass = 1; pass < WARMUP_PASSES; pass++) {
+            runPass(capture, pipeline, threads);
+        }
+        host.interventions = 0;
+        host.scans = 0;
+        long allocated = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            allocated += runPass(capture, pipeline, threads);
+        }
+
+        double perEvent = (double) allocated / ((long) events * passes);
+        System.out.printf("decision path: %d events x %d passes, %.2f B/event (budget %.2f)%n",
+                events, passes, perEvent, budgetBytes);
+        System.out.printf("  first pass after a session change: %.2f B/event (deadline cache rebuild)%n",
+                (double) cold / events);
+        System.out.printf("  %d interventions, %d section scans per pass; deadline cache %d hits, %d misses%n",
+                host.interventions / passes, host.scans / passes,
+                SessionClock.getDeadlineCacheHits(), SessionClock.getDeadlineCacheMisses());
+        if (host.interventions == 0 || host.scans == 0) {
+            // The session didn't parse as intended; a budget over no decisions means nothing
+            System.out.println("FAIL the synthetic session produced no interventions or scans");
+            System.exit(1);
+        }
+        if (perEvent > budgetBytes) {
+            System.out.println("FAIL allocation budget exceeded");
+            System.exit(1);
+        }
+        System.out.println("PASS");
+    }
+
+    // Bytes allocated while feeding the events, wrapped like AppMonitorService.onAccessibilityEvent
+    private static long runPass(EventReplay.Capture capture, DecisionPipeline pipeline,
+            com.sun.management.ThreadMXBean threads) {
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < capture.size; i++) {
+            String packageName = capture.packages[i];
+            boolean traced = PerfTrace.begin(PerfTrace.ACCESSIBILITY_EVENT);
+            try {
+                eventCount.increment();
+                dispatchLatency.record(1);
+                if (capture.types[i] == EventReplay.CONTENT) {
+                    pipeline.onWindowContentChanged(packageName);
+                    continue;
+                }
+                boolean tracedEvaluate = PerfTrace.begin(PerfTrace.EVALUATE);
+                long start = System.nanoTime();
+                pipeline.onWindowStateChanged(packageName, START_MILLIS + capture.offsets[i]);
+                decisionLatency.record((System.nanoTime() - start) / 1000);
+                PerfTrace.end(tracedEvaluate);
+            } finally {
+                PerfTrace.end(traced);
+            }
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    static EventReplay.Capture syntheticCapture(int events) {
+        EventReplay.Capture capture = new EventReplay.Capture();
+        capture.name = "synthetic";
+        capture.startMillis = START_MILLIS;
+        capture.systemPackages.add(LAUNCHER);
+
+        String[] cycle = {LAUNCHER, ALLOWED, ALLOWED, ALLOWED, ALLOWED, ALLOWED, ALLOWED, LOCKED, SETUP, OUTSIDE};
+        for (int i = 0; i < events; i++) {
+            int step = i % cycle.length;
+            // The allowed app's first event opens it, the rest are its content changes
+            int type = cycle[step].equals(ALLOWED) && step > 1 ? EventReplay.CONTENT : EventReplay.STATE;
+            capture.add(i * EVENT_SPACING_MS, type, cycle[step], null);
+        }
+        return capture;
+    }
+
+    // The session as StorageService writes it: one entry per app, ISO-8601 UTC timestamps
+    private static String sessionJson(int events) {
+        long end = START_MILLIS + events * EVENT_SPACING_MS + 60_000;
+        JSONObject session = new JSONObject();
+        session.put(ALLOWED, app("Instagram", START_MILLIS, end, end + 60_000));
+        session.put(LOCKED, app("TikTok", START_MILLIS - 120_000, START_MILLIS - 60_000, end));
+        session.put(SETUP, app("YouTube", 0, 0, 0));
+        return session.toString();
+    }
+
+    private static JSONObject app(String appName, long accessStart, long accessEnd, long lockUpTo) {
+        JSONObject app = new JSONObject();
+        app.put("appName", appName);
+        app.put("isActive", true);
+        app.put("accessStartTime", iso(accessStart));
+        app.put("accessEndTime", iso(accessEnd));
+        app.put("lockUpToTime", iso(lockUpTo));
+        return app;
+    }
+
+    private static String iso(long millis) {
+        if (millis == 0) {
+            return "";
+        }
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(millis));
+    }
+}
@@ -0,0 +1,392 @@
+// android/scripts/EventReplay.java
+package com.saveyourchild;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replays an EventCapture file through DecisionPipeline on the JVM, with a fake
+ * session, system package set and overlay sink in place of the Android host.
+ * Run through replay-events.sh.
+ *
+ * Reports throughput, per-event decision latency percentiles and the allocation
+ * rate of the pipeline. A capture may carry an "expect" line with the overlay
+ * commands one pass must produce, e.g. "expect access=2 lock=1 scans=4"; the
+ * replay exits 1 when they differ.
+ */
+public final class EventReplay {
+
+    static final int STATE = 0;
+    static final int CONTENT = 1;
+    private static final int SCREEN_OFF = 2;
+    private static final int USER_PRESENT = 3;
+    private static final int SESSION = 4;
+
+    /** A capture parsed into flat arrays, so the replay loop doesn't allocate. */
+    static final class Capture {
+        String name;
+        long startMillis;
+        Map<String, long[]> initialSession = new HashMap<>();
+        Set<String> systemPackages = new HashSet<>();
+        Map<String, Long> expected = new LinkedHashMap<>();
+
+        int size;
+        long[] offsets = new long[256];
+        int[] types = new int[256];
+        String[] packages = new String[256];
+        Object[] sessions = new Object[256];   // Map<String, long[]> for SESSION records
+
+        void add(long offset, int type, String packageName, Map<String, long[]> session) {
+            if (size == offsets.length) {
+                int capacity = size * 2;
+                offsets = Arrays.copyOf(offsets, capacity);
+                types = Arrays.copyOf(types, capacity);
+                packages = Arrays.copyOf(packages, capacity);
+                sessions = Arrays.copyOf(sessions, capacity);
+            }
+            offsets[size] = offset;
+            types[size] = type;
+            packages[size] = packageName;
+            sessions[size] = session;
+            size++;
+        }
+    }
+
+    /** Stands in for session, registry, overlay and section blocker. */
+    static final class FakeHost implements DecisionPipeline.Host {
+        final Capture capture;
+        final Map<String, long[]> session = new HashMap<>();
+        boolean userPresent = true;
+
+        long accessCount;
+        long lockCount;
+        long redundantCount;
+        long expiredCount;
+        long scanCount;
+        private DecisionPipeline.AppState lastScreen;
+        private String lastScreenPackage;
+
+        FakeHost(Capture capture) {
+            this.capture = capture;
+            setSession(capture.initialSession);
+        }
+
+        void setSession(Map<String, long[]> snapshot) {
+            session.clear();
+            for (Map.Entry<String, long[]> entry : snapshot.entrySet()) {
+                session.put(entry.getKey(), entry.getValue().clone());
+            }
+        }
+
+        @Override
+        public boolean isUserPresent() {
+            return userPresent;
+        }
+
+        @Override
+        public boolean isSystemPackage(String packageName) {
+            return capture.systemPackages.contains(packageName);
+        }
+
+        @Override
+        public boolean readDeadlines(String packageName, long[] out) {
+            long[] deadlines = session.get(packageName);
+            if (deadlines == null) {
+                return false;
+            }
+            System.arraycopy(deadlines, 0, out, 0, 3);
+            return true;
+        }
+
+        @Override
+        public void onLockExpired(String packageName) {
+            expiredCount++;
+            long[] deadlines = session.get(packageName);
+            deadlines[0] = deadlines[1] = deadlines[2] = 0;
+        }
+
+        @Override
+        public void intervene(String packageName, DecisionPipeline.AppState state) {
+            if (state == DecisionPipeline.AppState.IN_LOCK_PERIOD) {
+                lockCount++;
+            } else {
+                accessCount++;
+            }
+            // OverlayController updates an overlay showing the same screen in place
+            if (state == lastScreen && packageName.equals(lastScreenPackage)) {
+                redundantCount++;
+            }
+            lastScreen = state;
+            lastScreenPackage = packageName;
+        }
+
+        @Override
+        public void requestSectionScan(String packageName) {
+            scanCount++;
+        }
+
+        Map<String, Long> counts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("access", accessCount);
+            counts.put("lock", lockCount);
+            counts.put("redundant", redundantCount);
+            counts.put("expired", expiredCount);
+            counts.put("scans", scanCount);
+            return counts;
+        }
+    }
+
+    private EventReplay() {}
+
+    public static void main(String[] args) throws Exception {
+        double speed = 0;   // 0 = as fast as possible
+        int loops = 1;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--speed")) {
+                speed = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("--loops")) {
+                loops = Integer.parseInt(args[++i]);
+            } else {
+                files.add(args[i]);
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("usage: EventReplay [--speed <x>] [--loops <n>] <capture>...");
+            System.exit(2);
+        }
+
+        boolean failed = false;
+        for (String path : files) {
+            failed |= !replay(parse(new File(path)), speed, loops);
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    static boolean replay(Capture capture, double speed, int loops) throws InterruptedException {
+        long[] latencies = new long[capture.size * loops];
+        int samples = 0;
+        long busyNanos = 0;
+        Map<String, Long> firstPass = null;
+        DecisionPipeline pipeline = null;
+        FakeHost host = null;
+
+        // Allocation is counted over the event loops only, not the per-loop fake setup
+        com.sun.management.ThreadMXBean threads = allocationBean();
+        long allocated = 0;
+        long wallStart = System.nanoTime();
+
+        for (int loop = 0; loop < loops; loop++) {
+            host = new FakeHost(capture);
+            pipeline = new DecisionPipeline(host);
+            long loopStart = System.nanoTime();
+            long firstOffset = capture.size > 0 ? capture.offsets[0] : 0;
+            long allocatedBefore = threads != null ? threads.getCurrentThreadAllocatedBytes() : 0;
+
+            for (int i = 0; i < capture.size; i++) {
+                long offset = capture.offsets[i];
+                if (speed > 0) {
+                    long dueNanos = loopStart + (long) ((offset - firstOffset) * 1_000_000 / speed);
+                    long waitNanos = dueNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+                    }
+                }
+
+                long now = capture.startMillis + offset;
+                long start = System.nanoTime();
+                switch (capture.types[i]) {
+                    case STATE:
+                        pipeline.onWindowStateChanged(capture.packages[i], now);
+                        break;
+                    case CONTENT:
+                        pipeline.onWindowContentChanged(capture.packages[i]);
+                        break;
+                    case SCREEN_OFF:
+                        host.userPresent = false;
+                        break;
+                    case USER_PRESENT:
+                        host.userPresent = true;
+                        pipeline.onUserPresent(foregroundOnUnlock(capture.packages[i], pipeline), now);
+                        break;
+                    case SESSION:
+                        @SuppressWarnings("unchecked")
+                        Map<String, long[]> snapshot = (Map<String, long[]>) capture.sessions[i];
+                        host.setSession(snapshot);
+                        break;
+                    default:
+                        break;
+                }
+                long elapsed = System.nanoTime() - start;
+                busyNanos += elapsed;
+                if (capture.types[i] == STATE || capture.types[i] == CONTENT || capture.types[i] == USER_PRESENT) {
+                    latencies[samples++] = elapsed;
+                }
+            }
+            if (threads != null) {
+                allocated += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            }
+            if (firstPass == null) {
+                firstPass = host.counts();
+            }
+        }
+
+        long wallNanos = System.nanoTime() - wallStart;
+        long events = (long) capture.size * loops;
+
+        Arrays.sort(latencies, 0, samples);
+        System.out.println(capture.name + ": " + capture.size + " records x " + loops + " loops"
+                + (speed > 0 ? " at " + speed + "x" : " at max speed"));
+        System.out.printf("  throughput  %.0f events/s (busy), wall %d ms%n",
+                events / Math.max(busyNanos / 1e9, 1e-9), wallNanos / 1_000_000);
+        System.out.println("  latency     p50=" + percentile(latencies, samples, 50)
+                + "ns p95=" + percentile(latencies, samples, 95)
+                + "ns p99=" + percentile(latencies, samples, 99)
+                + "ns max=" + (samples > 0 ? latencies[samples - 1] : 0) + "ns");
+        if (threads != null) {
+            System.out.printf("  allocation  %.1f B/event, %.1f MB/s%n",
+                    (double) allocated / Math.max(events, 1), allocated / 1e6 / Math.max(wallNanos / 1e9, 1e-9));
+        } else {
+            System.out.println("  allocation  n/a (JVM has no thread allocation counter)");
+        }
+        // Every loop starts from the same state, so the last pipeline's counts hold for each pass
+        System.out.println("  decisions   " + pipeline.getDecisionCount() + "/pass, system skipped "
+                + pipeline.getSystemShortCircuitCount() + ", skipped while off "
+                + pipeline.getEventsSkippedWhileOff() + ", screen-on re-evaluations "
+                + pipeline.getScreenOnReevaluations());
+        System.out.println("  overlay     " + firstPass);
+
+        for (Map.Entry<String, Long> entry : capture.expected.entrySet()) {
+            Long actual = firstPass.get(entry.getKey());
+            if (!entry.getValue().equals(actual)) {
+                System.out.println("  FAIL expected " + entry.getKey() + "=" + entry.getValue() + ", got " + actual);
+                return false;
+            }
+        }
+        if (!capture.expected.isEmpty()) {
+            System.out.println("  PASS " + capture.expected);
+        }
+        return true;
+    }
+
+    static Capture parse(File file) throws IOException {
+        Capture capture = new Capture();
+        capture.name = file.getName();
+        Map<String, long[]> session = null;   // snapshot being read
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (content.isEmpty()) {
+                    continue;
+                }
+                String[] parts = content.split("\\s+");
+                try {
+                    switch (parts[0]) {
+                        case "start":
+                            capture.startMillis = Long.parseLong(parts[1]);
+                            continue;
+                        case "session":
+                            session = new HashMap<>();
+                            if (capture.size == 0) {
+                                capture.initialSession = session;
+                            } else {
+                                capture.add(Long.parseLong(parts[1]), SESSION, null, session);
+                            }
+                            continue;
+                        case "app":
+                            session.put(parts[1], new long[]{
+                                    absolute(capture, parts[2]), absolute(capture, parts[3]), absolute(capture, parts[4])
+                            });
+                            continue;
+                        case "system":
+                            capture.systemPackages.add(parts[1]);
+                            continue;
+                        case "expect":
+                            for (int i = 1; i < parts.length; i++) {
+                                String[] pair = parts[i].split("=");
+                                capture.expected.put(pair[0], Long.parseLong(pair[1]));
+                            }
+                            continue;
+                        default:
+                            break;
+                    }
+
+                    long offset = Long.parseLong(parts[0]);
+                    switch (parts[1]) {
+                        case "STATE":
+                            capture.add(offset, STATE, parts[2], null);
+                            break;
+                        case "CONTENT":
+                            capture.add(offset, CONTENT, parts[2], null);
+                            break;
+                        case "SCREEN_OFF":
+                            capture.add(offset, SCREEN_OFF, null, null);
+                            break;
+                        case "USER_PRESENT":
+                            capture.add(offset, USER_PRESENT, parts.length > 2 ? parts[2] : null, null);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("unknown event type " + parts[1]);
+                    }
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException(file + ": " + e.getMessage() + " (line " + lineNumber + ")", e);
+                }
+            }
+        }
+        return capture;
+    }
+
+    // "-" = the service couldn't read the active window. Older captures carry no
+    // package at all; for those the last event's package is the best guess there is.
+    private static String foregroundOnUnlock(String recorded, DecisionPipeline pipeline) {
+        if (recorded == null) {
+            return pipeline.getLastForegroundPackage();
+        }
+        return recorded.equals("-") ? null : recorded;
+    }
+
+    private static long absolute(Capture capture, String offset) {
+        return offset.equals("-") ? 0 : capture.startMillis + Long.parseLong(offset);
+    }
+
+    private static long percentile(long[] sorted, int count, int percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+
+    static com.sun.management.ThreadMXBean allocationBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+        return null;
+    }
+}
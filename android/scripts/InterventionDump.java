@@ -0,0 +1,167 @@
+// android/scripts/InterventionDump.java
+package com.saveyourchild;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Prints an InterventionLog directory pulled from a device: the daily rollups,
+ * totals per app and the newest raw records. Run through dump-interventions.sh.
+ *
+ * --verify rebuilds the rollups from the segments and exits 1 when they differ
+ * from the persisted ones. Only meaningful while segment 1 is still on disk (no
+ * rotation has dropped records the rollups already hold), and in the time zone
+ * the device had.
+ */
+public final class InterventionDump {
+
+    private InterventionDump() {}
+
+    public static void main(String[] args) throws IOException {
+        File dir = null;
+        int recent = 20;
+        boolean verify = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--records")) {
+                recent = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--verify")) {
+                verify = true;
+            } else {
+                dir = new File(args[i]);
+            }
+        }
+        if (dir == null || !dir.isDirectory()) {
+            System.err.println("Usage: InterventionDump [--records <n>] [--verify] <interventions dir>");
+            System.exit(2);
+        }
+
+        TimeZone zone = TimeZone.getDefault();
+        List<String> packages = readPackages(new File(dir, "packages"));
+        File[] segments = segments(dir);
+        InterventionRollups rebuilt = new InterventionRollups();
+        List<InterventionRecord> records = new ArrayList<>();
+        for (File segment : segments) {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(segment.toPath()));
+            if (!InterventionRecord.readHeader(in)) {
+                System.err.println("skipping " + segment.getName() + ": unknown header");
+                continue;
+            }
+            while (in.remaining() >= InterventionRecord.SIZE) {
+                InterventionRecord record = InterventionRecord.readFrom(in);
+                rebuilt.add(record, zone);
+                records.add(record);
+            }
+        }
+        InterventionRollups persisted = readRollups(new File(dir, "rollups"));
+        InterventionRollups rollups = persisted != null ? persisted : rebuilt;
+
+        System.out.printf("%d segments, %d records, %d packages, rollups %s%n", segments.length, records.size(),
+                packages.size(), persisted != null ? "from file" : "rebuilt (no rollup file)");
+
+        SimpleDateFormat day = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        System.out.println();
+        System.out.println("day         total access  lock cancel started timeout ended dismiss failed avgTTO");
+        for (Map.Entry<Long, long[]> bucket : rollups.totals(false, Long.MIN_VALUE, Long.MAX_VALUE).entrySet()) {
+            long[] c = bucket.getValue();
+            System.out.printf("%s %6d %6d %5d %6d %7d %7d %5d %7d %6d %5dms%n", day.format(new Date(bucket.getKey())),
+                    c[InterventionRollups.TOTAL], c[InterventionRollups.ACCESS], c[InterventionRollups.LOCK],
+                    c[InterventionRollups.CANCELLED], c[InterventionRollups.SESSION_STARTED],
+                    c[InterventionRollups.TIMED_OUT], c[InterventionRollups.LOCK_ENDED],
+                    c[InterventionRollups.DISMISSED], c[InterventionRollups.FAILED], averageTimeToOverlay(c));
+        }
+
+        System.out.println();
+        System.out.println("app                                        total   lock avgTTO maxTTO");
+        for (Map.Entry<Integer, long[]> app : rollups.byPackage(Long.MIN_VALUE, Long.MAX_VALUE).entrySet()) {
+            long[] c = app.getValue();
+            System.out.printf("%-42s %6d %6d %5dms %5dms%n", packageName(packages, app.getKey()),
+                    c[InterventionRollups.TOTAL], c[InterventionRollups.LOCK], averageTimeToOverlay(c),
+                    c[InterventionRollups.TIME_TO_OVERLAY_MAX_MS]);
+        }
+
+        SimpleDateFormat time = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        System.out.println();
+        for (InterventionRecord r : records.subList(Math.max(0, records.size() - recent), records.size())) {
+            System.out.printf("%s %-40s %-6s %-14s tto %5dms on screen %6dms%n", time.format(new Date(r.startedAt)),
+                    packageName(packages, r.packageId), InterventionRecord.stateName(r.state),
+                    InterventionRecord.outcomeName(r.outcome), r.timeToOverlayMs, r.durationMs);
+        }
+
+        if (verify) {
+            if (persisted == null) {
+                System.err.println("verify: no rollup file");
+                System.exit(1);
+            }
+            // Same retention as the device applies before writing
+            rebuilt.trim(System.currentTimeMillis());
+            persisted.trim(System.currentTimeMillis());
+            boolean same = sameCounters(persisted.totals(true, Long.MIN_VALUE, Long.MAX_VALUE),
+                    rebuilt.totals(true, Long.MIN_VALUE, Long.MAX_VALUE))
+                    && sameCounters(persisted.totals(false, Long.MIN_VALUE, Long.MAX_VALUE),
+                    rebuilt.totals(false, Long.MIN_VALUE, Long.MAX_VALUE));
+            System.out.println();
+            System.out.println("verify: rollups " + (same ? "match" : "DIFFER FROM") + " the segments");
+            System.exit(same ? 0 : 1);
+        }
+    }
+
+    private static long averageTimeToOverlay(long[] counters) {
+        long shown = counters[InterventionRollups.SHOWN];
+        return shown == 0 ? 0 : counters[InterventionRollups.TIME_TO_OVERLAY_SUM_MS] / shown;
+    }
+
+    private static boolean sameCounters(Map<Long, long[]> a, Map<Long, long[]> b) {
+        if (!a.keySet().equals(b.keySet())) {
+            return false;
+        }
+        for (Map.Entry<Long, long[]> bucket : a.entrySet()) {
+            if (!Arrays.equals(bucket.getValue(), b.get(bucket.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String packageName(List<String> packages, int id) {
+        return id >= 0 && id < packages.size() ? packages.get(id) : "#" + id;
+    }
+
+    private static List<String> readPackages(File file) throws IOException {
+        return file.exists() ? Files.readAllLines(file.toPath(), StandardCharsets.UTF_8) : new ArrayList<>();
+    }
+
+    private static InterventionRollups readRollups(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return InterventionRollups.readFrom(in);
+        } catch (IOException e) {
+            System.err.println("rollups unreadable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static File[] segments(File dir) {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".seg"));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files, (a, b) -> a.getName().compareTo(b.getName()));
+        return files;
+    }
+}
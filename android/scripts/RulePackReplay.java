@@ -0,0 +1,244 @@
+// android/scripts/RulePackReplay.java
+package com.saveyourchild;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replays recorded node-tree fixtures against a RulePack on the JVM, using the
+ * same SectionScanner bounds as the service. Run through replay-rule-fixtures.sh.
+ *
+ * Fixture format: header lines, then one node per line indented by two spaces
+ * per level ('#' starts a comment):
+ *
+ *   package com.instagram.android
+ *   versionCode 412000000
+ *   expect reels                       # or "none"
+ *   android.widget.FrameLayout
+ *     androidx.viewpager.widget.ViewPager id=com.instagram.android:id/clips_viewer_view_pager
+ *     android.view.View hidden
+ *
+ * Exits 1 when any fixture doesn't produce the expected section.
+ */
+public final class RulePackReplay {
+
+    private static final int TIMING_RUNS = 1000;
+
+    static final class FixtureNode {
+        final String className;
+        final String viewId;
+        final boolean visible;
+        final List<FixtureNode> children = new ArrayList<>();
+
+        FixtureNode(String className, String viewId, boolean visible) {
+            this.className = className;
+            this.viewId = viewId;
+            this.visible = visible;
+        }
+    }
+
+    static final class Fixture {
+        String name;
+        String packageName;
+        long versionCode = -1;
+        String expect;
+        FixtureNode root;
+    }
+
+    private static final SectionScanner.NodeAdapter<FixtureNode> ADAPTER =
+            new SectionScanner.NodeAdapter<FixtureNode>() {
+                @Override
+                public String getViewId(FixtureNode node) {
+                    return node.viewId;
+                }
+
+                @Override
+                public CharSequence getClassName(FixtureNode node) {
+                    return node.className;
+                }
+
+                @Override
+                public boolean isVisible(FixtureNode node) {
+                    return node.visible;
+                }
+
+                @Override
+                public int getChildCount(FixtureNode node) {
+                    return node.children.size();
+                }
+
+                @Override
+                public FixtureNode getChild(FixtureNode node, int index) {
+                    return node.children.get(index);
+                }
+
+                @Override
+                public void release(FixtureNode node) {
+                }
+            };
+
+    private RulePackReplay() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: RulePackReplay <pack> <fixture|dir>...");
+            System.exit(2);
+        }
+
+        RulePack pack;
+        try (Reader reader = open(new File(args[0]))) {
+            pack = RulePack.parse(reader);
+        }
+        System.out.println("pack " + pack.getVersion() + ", " + pack.getRuleCount() + " rules");
+
+        List<File> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            collect(new File(args[i]), files);
+        }
+
+        SectionScanner<FixtureNode> scanner =
+                new SectionScanner<>(ADAPTER, SectionScanner.MAX_DEPTH, SectionScanner.MAX_NODES);
+        int failures = 0;
+        for (File file : files) {
+            Fixture fixture = parseFixture(file);
+            SectionMatcher matcher = pack.getMatcher(fixture.packageName, fixture.versionCode);
+            String actual = "none";
+            int nodes = 0;
+            long nanos = 0;
+            if (matcher != null) {
+                if (scanner.scan(fixture.root, matcher)) {
+                    actual = matcher.getSection();
+                }
+                nodes = scanner.getNodesVisited();
+                nanos = timeScan(scanner, fixture.root, matcher);
+            }
+
+            boolean pass = actual.equals(fixture.expect);
+            if (!pass) {
+                failures++;
+            }
+            System.out.println((pass ? "PASS " : "FAIL ") + fixture.name
+                    + "  expected=" + fixture.expect + " actual=" + actual
+                    + "  nodes=" + nodes + " scan=" + nanos + "ns");
+        }
+
+        System.out.println(files.size() - failures + "/" + files.size() + " fixtures passed");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Average over TIMING_RUNS after as many warm-up runs, so the JIT doesn't skew the first fixture
+    private static long timeScan(SectionScanner<FixtureNode> scanner, FixtureNode root, SectionMatcher matcher) {
+        for (int run = 0; run < TIMING_RUNS; run++) {
+            scanner.scan(root, matcher);
+        }
+        long start = System.nanoTime();
+        for (int run = 0; run < TIMING_RUNS; run++) {
+            scanner.scan(root, matcher);
+        }
+        return (System.nanoTime() - start) / TIMING_RUNS;
+    }
+
+    static Fixture parseFixture(File file) throws IOException {
+        Fixture fixture = new Fixture();
+        fixture.name = file.getName();
+        List<FixtureNode> stack = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(open(file))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                if (comment >= 0) {
+                    line = line.substring(0, comment);
+                }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                int indent = 0;
+                while (line.charAt(indent) == ' ') {
+                    indent++;
+                }
+                String[] parts = line.trim().split("\\s+");
+
+                if (fixture.root == null && indent == 0 && parts.length == 2) {
+                    switch (parts[0]) {
+                        case "package":
+                            fixture.packageName = parts[1];
+                            continue;
+                        case "versionCode":
+                            fixture.versionCode = Long.parseLong(parts[1]);
+                            continue;
+                        case "expect":
+                            fixture.expect = parts[1];
+                            continue;
+                        default:
+                            break;
+                    }
+                }
+
+                int depth = indent / 2;
+                if (indent % 2 != 0 || depth > stack.size() || (depth == 0 && fixture.root != null)) {
+                    throw new IllegalArgumentException(file + ": bad indentation (line " + lineNumber + ")");
+                }
+                FixtureNode node = parseNode(parts);
+                while (stack.size() > depth) {
+                    stack.remove(stack.size() - 1);
+                }
+                if (depth == 0) {
+                    fixture.root = node;
+                } else {
+                    stack.get(depth - 1).children.add(node);
+                }
+                stack.add(node);
+            }
+        }
+
+        if (fixture.packageName == null || fixture.expect == null || fixture.root == null) {
+            throw new IllegalArgumentException(file + ": needs package, expect and a node tree");
+        }
+        return fixture;
+    }
+
+    private static FixtureNode parseNode(String[] parts) {
+        String viewId = null;
+        boolean visible = true;
+        for (String attribute : Arrays.asList(parts).subList(1, parts.length)) {
+            if (attribute.startsWith("id=")) {
+                viewId = attribute.substring(3);
+            } else if (attribute.equals("hidden")) {
+                visible = false;
+            }
+        }
+        return new FixtureNode(parts[0], viewId, visible);
+    }
+
+    private static void collect(File file, List<File> into) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                Arrays.sort(children);
+                for (File child : children) {
+                    collect(child, into);
+                }
+            }
+        } else if (file.getName().endsWith(".tree")) {
+            into.add(file);
+        }
+    }
+
+    private static Reader open(File file) throws IOException {
+        return new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+    }
+}
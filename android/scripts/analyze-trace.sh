@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# Extracts per-stage durations from a trace recorded with record-trace.sh.
+#
+# Prints count / avg / p50 / p95 / p99 / max per PerfTrace section (syc.*),
+# then the breakdown of every intervention: decision → show request, and the
+# sections that ran until the overlay content was on screen.
+#
+# Usage: ./analyze-trace.sh <trace.perfetto-trace>
+# Needs trace_processor_shell on PATH (https://get.perfetto.dev/trace_processor)
+# or TRACE_PROCESSOR pointing at it.
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")" && pwd)"
+TRACE="${1:?usage: $0 <trace.perfetto-trace>}"
+TP="${TRACE_PROCESSOR:-trace_processor_shell}"
+
+if ! command -v "$TP" > /dev/null; then
+  echo "trace_processor_shell not found; set TRACE_PROCESSOR or add it to PATH" >&2
+  exit 1
+fi
+
+echo "== Stage durations =="
+"$TP" --query-file "$ROOT/perfetto/stage_durations.sql" "$TRACE" 2> /dev/null
+
+echo
+echo "== Interventions =="
+"$TP" --query-file "$ROOT/perfetto/intervention_breakdown.sql" "$TRACE" 2> /dev/null
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Fails when the enforcement decision path allocates more than its budget per
+# window event. Runs on the JVM, no device needed.
+#
+# Usage: ./check-allocation-budget.sh [--events <n>] [--passes <n>] [--budget <bytes/event>]
+#
+# Runs the real SessionStore / SessionClock lookup, so it compiles them against
+# the Android stand-ins in jvm-shims/ and needs an org.json implementation: the
+# json.org artifact, downloaded once into ~/.cache/saveyourchild, or the jar
+# given in ORG_JSON_JAR. Its optJSONObject / optString / optBoolean allocate
+# nothing, like Android's.
+#
+# The overlay side is checked on a device instead: AppMonitorModule.runOverlayLeakCheck()
+# cycles the overlay through show/hide and reports heap growth per cycle.
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+SRC="$ROOT/app/src/main/java/com/saveyourchild"
+ORG_JSON_VERSION="20240303"
+
+JSON_JAR="${ORG_JSON_JAR:-}"
+if [ -z "$JSON_JAR" ]; then
+  JSON_JAR="${XDG_CACHE_HOME:-$HOME/.cache}/saveyourchild/json-$ORG_JSON_VERSION.jar"
+  if [ ! -f "$JSON_JAR" ]; then
+    mkdir -p "$(dirname "$JSON_JAR")"
+    curl -sSfLo "$JSON_JAR.tmp" \
+      "https://repo1.maven.org/maven2/org/json/json/$ORG_JSON_VERSION/json-$ORG_JSON_VERSION.jar"
+    mv "$JSON_JAR.tmp" "$JSON_JAR"
+  fi
+fi
+
+OUT="$(mktemp -d)"
+trap 'rm -rf "$OUT"' EXIT
+
+javac -encoding UTF-8 -d "$OUT" -cp "$JSON_JAR" \
+  $(find "$ROOT/scripts/jvm-shims" -name '*.java') \
+  "$SRC/DecisionPipeline.java" \
+  "$SRC/LatencyHistogram.java" \
+  "$SRC/PerfTrace.java" \
+  "$SRC/ScreenStateMonitor.java" \
+  "$SRC/SessionClock.java" \
+  "$SRC/SessionStore.java" \
+  "$ROOT/scripts/EventReplay.java" \
+  "$ROOT/scripts/AllocationBudget.java"
+
+java -cp "$OUT:$JSON_JAR" com.saveyourchild.AllocationBudget "$@"
@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Pulls the intervention log (InterventionLog) off a connected device, or reads
+# a directory pulled earlier, and prints its rollups, per-app totals and the
+# newest raw records. Needs a debuggable build for run-as, and a JDK.
+#
+# Usage: ./dump-interventions.sh [--records <n>] [--verify] [interventions dir]
+# --verify rebuilds the rollups from the segments and exits 1 when they differ.
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+SRC="$ROOT/app/src/main/java/com/saveyourchild"
+PACKAGE="com.saveyourchild"
+
+ARGS=()
+DIR=""
+while [ $# -gt 0 ]; do
+  case "$1" in
+    --records) ARGS+=("$1" "$2"); shift 2 ;;
+    --verify) ARGS+=("$1"); shift ;;
+    *) DIR="$1"; shift ;;
+  esac
+done
+
+OUT="$(mktemp -d)"
+trap 'rm -rf "$OUT"' EXIT
+
+if [ -z "$DIR" ]; then
+  DIR="$OUT/pulled"
+  mkdir -p "$DIR"
+  adb exec-out run-as "$PACKAGE" tar -cf - -C files interventions | tar -xf - -C "$DIR"
+  DIR="$DIR/interventions"
+fi
+
+javac -encoding UTF-8 -d "$OUT/classes" \
+  "$SRC/InterventionRecord.java" \
+  "$SRC/InterventionRollups.java" \
+  "$ROOT/scripts/InterventionDump.java"
+
+java -cp "$OUT/classes" com.saveyourchild.InterventionDump "${ARGS[@]+"${ARGS[@]}"}" "$DIR"
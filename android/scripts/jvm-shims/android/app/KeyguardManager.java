@@ -0,0 +1,10 @@
+// android/scripts/jvm-shims/android/app/KeyguardManager.java
+// JVM stand-in: compile-time surface only.
+package android.app;
+
+public final class KeyguardManager {
+
+    public boolean isKeyguardLocked() {
+        return false;
+    }
+}
@@ -0,0 +1,8 @@
+// android/scripts/jvm-shims/android/content/BroadcastReceiver.java
+// JVM stand-in: compile-time surface only.
+package android.content;
+
+public abstract class BroadcastReceiver {
+
+    public abstract void onReceive(Context context, Intent intent);
+}
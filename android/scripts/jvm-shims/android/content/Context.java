@@ -0,0 +1,20 @@
+// android/scripts/jvm-shims/android/content/Context.java
+// JVM stand-in: compile-time surface only, the harness never creates a Context.
+package android.content;
+
+public abstract class Context {
+
+    public static final int MODE_PRIVATE = 0;
+    public static final String KEYGUARD_SERVICE = "keyguard";
+    public static final String POWER_SERVICE = "power";
+
+    public abstract Context getApplicationContext();
+
+    public abstract Object getSystemService(String name);
+
+    public abstract SharedPreferences getSharedPreferences(String name, int mode);
+
+    public abstract Intent registerReceiver(BroadcastReceiver receiver, IntentFilter filter);
+
+    public abstract void unregisterReceiver(BroadcastReceiver receiver);
+}
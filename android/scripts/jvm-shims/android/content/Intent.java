@@ -0,0 +1,14 @@
+// android/scripts/jvm-shims/android/content/Intent.java
+// JVM stand-in: compile-time surface only.
+package android.content;
+
+public class Intent {
+
+    public static final String ACTION_SCREEN_OFF = "android.intent.action.SCREEN_OFF";
+    public static final String ACTION_SCREEN_ON = "android.intent.action.SCREEN_ON";
+    public static final String ACTION_USER_PRESENT = "android.intent.action.USER_PRESENT";
+
+    public String getAction() {
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+// android/scripts/jvm-shims/android/content/IntentFilter.java
+// JVM stand-in: compile-time surface only.
+package android.content;
+
+public class IntentFilter {
+
+    public void addAction(String action) {
+    }
+}
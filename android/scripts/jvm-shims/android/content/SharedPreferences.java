@@ -0,0 +1,16 @@
+// android/scripts/jvm-shims/android/content/SharedPreferences.java
+// JVM stand-in: compile-time surface only.
+package android.content;
+
+public interface SharedPreferences {
+
+    boolean getBoolean(String key, boolean defValue);
+
+    Editor edit();
+
+    interface Editor {
+        Editor putBoolean(String key, boolean value);
+
+        void apply();
+    }
+}
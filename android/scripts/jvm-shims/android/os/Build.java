@@ -0,0 +1,16 @@
+// android/scripts/jvm-shims/android/os/Build.java
+// JVM stand-in: reports the newest API level the code branches on.
+package android.os;
+
+public final class Build {
+
+    private Build() {}
+
+    public static final class VERSION {
+        public static final int SDK_INT = VERSION_CODES.Q;
+    }
+
+    public static final class VERSION_CODES {
+        public static final int Q = 29;
+    }
+}
@@ -0,0 +1,20 @@
+// android/scripts/jvm-shims/android/os/Handler.java
+// JVM stand-in: nothing is ever dispatched; the budget drives the main-thread code directly.
+package android.os;
+
+public class Handler {
+
+    public Handler(Looper looper) {
+    }
+
+    public final boolean post(Runnable r) {
+        return false;
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis) {
+        return false;
+    }
+
+    public final void removeCallbacks(Runnable r) {
+    }
+}
@@ -0,0 +1,14 @@
+// android/scripts/jvm-shims/android/os/Looper.java
+// JVM stand-in: compile-time surface only.
+package android.os;
+
+public final class Looper {
+
+    private static final Looper MAIN = new Looper();
+
+    private Looper() {}
+
+    public static Looper getMainLooper() {
+        return MAIN;
+    }
+}
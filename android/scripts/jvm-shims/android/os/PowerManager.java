@@ -0,0 +1,10 @@
+// android/scripts/jvm-shims/android/os/PowerManager.java
+// JVM stand-in: compile-time surface only.
+package android.os;
+
+public final class PowerManager {
+
+    public boolean isInteractive() {
+        return true;
+    }
+}
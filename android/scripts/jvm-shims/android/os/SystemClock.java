@@ -0,0 +1,16 @@
+// android/scripts/jvm-shims/android/os/SystemClock.java
+// JVM stand-in on System.nanoTime.
+package android.os;
+
+public final class SystemClock {
+
+    private SystemClock() {}
+
+    public static long elapsedRealtime() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    public static long uptimeMillis() {
+        return System.nanoTime() / 1_000_000;
+    }
+}
@@ -0,0 +1,20 @@
+// android/scripts/jvm-shims/android/os/Trace.java
+// JVM stand-in: sections are dropped (PerfTrace is off in the budget, as in a normal run).
+package android.os;
+
+public final class Trace {
+
+    private Trace() {}
+
+    public static void beginSection(String sectionName) {
+    }
+
+    public static void endSection() {
+    }
+
+    public static void beginAsyncSection(String methodName, int cookie) {
+    }
+
+    public static void endAsyncSection(String methodName, int cookie) {
+    }
+}
@@ -0,0 +1,36 @@
+// android/scripts/jvm-shims/com/tencent/mmkv/MMKV.java
+// JVM stand-in: SessionStore stays memory-only (no init()) in the budget, so none of this runs.
+package com.tencent.mmkv;
+
+import android.content.Context;
+
+public final class MMKV {
+
+    public static final int SINGLE_PROCESS_MODE = 1;
+
+    private MMKV() {}
+
+    public static String initialize(Context context) {
+        throw new UnsupportedOperationException("MMKV is not available on the JVM");
+    }
+
+    public static MMKV mmkvWithID(String mmapID, int mode) {
+        throw new UnsupportedOperationException("MMKV is not available on the JVM");
+    }
+
+    public boolean encode(String key, String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    public String decodeString(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void removeValuesForKeys(String[] keys) {
+        throw new UnsupportedOperationException();
+    }
+
+    public String[] allKeys() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Measures time-to-first-enforcement on a cold process start.
+#
+# Kills the app process, re-binds the accessibility service (which restarts the
+# process only for AppMonitorService), launches a monitored app and reads the
+# StartupTrace summary from logcat.
+#
+# Usage: ./measure-cold-enforcement.sh <monitored.package> [runs]
+# The package must be in the active session and currently gated or locked.
+
+set -euo pipefail
+
+APP_ID="com.saveyourchild"
+SERVICE="$APP_ID/$APP_ID.AppMonitorService"
+TARGET="${1:?usage: $0 <monitored.package> [runs]}"
+RUNS="${2:-5}"
+
+setting() {
+  adb shell settings get secure "$1" | tr -d '\r'
+}
+
+put_setting() {
+  if [ -z "$2" ] || [ "$2" = "null" ]; then
+    adb shell settings delete secure "$1" > /dev/null
+  else
+    adb shell settings put secure "$1" "'$2'"
+  fi
+}
+
+# Only our service is toggled; every other enabled one is left on and the
+# original settings are put back however the script exits
+SAVED_SERVICES="$(setting enabled_accessibility_services)"
+SAVED_ENABLED="$(setting accessibility_enabled)"
+OTHER_SERVICES="$(printf '%s' "$SAVED_SERVICES" | tr ':' '\n' \
+  | grep -v -e '^null$' -e "^$SERVICE\$" -e "^$APP_ID/\.AppMonitorService\$" | paste -sd: - || true)"
+trap 'put_setting enabled_accessibility_services "$SAVED_SERVICES"; put_setting accessibility_enabled "$SAVED_ENABLED"' EXIT
+
+for run in $(seq 1 "$RUNS"); do
+  adb shell am force-stop "$APP_ID"
+  adb shell am force-stop "$TARGET"
+  adb logcat -c
+
+  # Re-enabling the service makes the system start our process for it alone
+  put_setting enabled_accessibility_services "$OTHER_SERVICES"
+  put_setting enabled_accessibility_services "${OTHER_SERVICES:+$OTHER_SERVICES:}$SERVICE"
+  adb shell settings put secure accessibility_enabled 1
+  sleep 2
+
+  adb shell monkey -p "$TARGET" -c android.intent.category.LAUNCHER 1 > /dev/null
+
+  summary=""
+  for _ in $(seq 1 20); do
+    summary=$(adb logcat -d -s StartupTrace:I | grep "Cold start summary" || true)
+    [ -n "$summary" ] && break
+    sleep 0.5
+  done
+
+  echo "run $run: ${summary:-no enforcement recorded}"
+done
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Measures what the app costs while the screen is off: CPU time of its process,
+# wakeup alarms and wakelocks from batterystats, and the power-save counters the
+# enforcement pipeline logs when the screen comes back.
+#
+# Run it once on a build before the screen-state power mode and once after, with
+# the same monitored app locked and its lock overlay on screen, and compare.
+#
+# Usage: ./measure-screen-off-power.sh <monitored.package> [minutes-off]
+# Needs a device (not an emulator on AC) with USB debugging; the battery is
+# reported as unplugged for the duration.
+
+set -euo pipefail
+
+APP_ID="com.saveyourchild"
+TARGET="${1:?usage: $0 <monitored.package> [minutes-off]}"
+MINUTES="${2:-10}"
+
+cpu_ticks() {
+  # utime + stime of the app process, in clock ticks
+  local pid
+  pid=$(adb shell pidof "$APP_ID" | tr -d '\r')
+  [ -z "$pid" ] && { echo 0; return; }
+  adb shell cat "/proc/$pid/stat" | awk '{print $14 + $15}'
+}
+
+cleanup() {
+  adb shell dumpsys battery reset > /dev/null || true
+}
+trap cleanup EXIT
+
+# Bring the lock overlay up on the monitored app
+adb shell input keyevent KEYCODE_WAKEUP
+adb shell wm dismiss-keyguard
+adb shell monkey -p "$TARGET" -c android.intent.category.LAUNCHER 1 > /dev/null
+sleep 3
+
+adb shell dumpsys battery unplug
+adb shell dumpsys batterystats --reset > /dev/null
+adb logcat -c
+
+ticks_before=$(cpu_ticks)
+hz=$(adb shell getconf CLK_TCK 2>/dev/null | tr -d '\r' || echo 100)
+
+echo "Screen off for $MINUTES min..."
+adb shell input keyevent KEYCODE_SLEEP
+sleep $((MINUTES * 60))
+adb shell input keyevent KEYCODE_WAKEUP
+adb shell wm dismiss-keyguard
+sleep 3
+
+ticks_after=$(cpu_ticks)
+cpu_ms=$(( (ticks_after - ticks_before) * 1000 / hz ))
+
+uid=$(adb shell cmd package list packages -U "$APP_ID" | sed -n 's/.*uid:\([0-9]*\).*/\1/p' | tr -d '\r')
+stats=$(adb shell dumpsys batterystats --charged "$APP_ID")
+
+echo "== $APP_ID, ${MINUTES} min screen off =="
+echo "process cpu time:   ${cpu_ms} ms"
+echo "wakeup alarms:      $(echo "$stats" | grep -c 'Wakeup alarm' || true)"
+echo "$stats" | grep -E "Wake lock|Cpu:|Foreground service" | sed 's/^ */  /' || true
+echo "uid:                ${uid:-unknown}"
+echo "-- pipeline counters --"
+adb logcat -d -s ScreenStateMonitor:I AppMonitorService:I | grep -E "Screen on after|Decisions resumed" || echo "  (none logged)"
@@ -0,0 +1,36 @@
+-- Where each intervention's time went: every syc.overlay.show span (show
+-- request → content on screen), the decision that triggered it and the
+-- sections that ran inside it. Stages can overlap (page load contains inject),
+-- so stage_ms does not add up to show_ms.
+WITH shows AS (
+  SELECT id, ts, dur
+  FROM slice
+  WHERE name = 'syc.overlay.show' AND dur >= 0
+),
+decision AS (
+  -- The last decision that started before the show was requested
+  SELECT shows.id AS show_id, (
+    SELECT e.id FROM slice e
+    WHERE e.name = 'syc.evaluate' AND e.ts <= shows.ts AND e.dur >= 0
+    ORDER BY e.ts DESC LIMIT 1
+  ) AS evaluate_id
+  FROM shows
+)
+SELECT
+  shows.id AS intervention,
+  ROUND(shows.dur / 1e6, 3) AS show_ms,
+  ROUND((shows.ts - e.ts) / 1e6, 3) AS decision_to_show_ms,
+  s.name AS stage,
+  COUNT(s.id) AS count,
+  ROUND(SUM(s.dur) / 1e6, 3) AS stage_ms
+FROM shows
+JOIN decision ON decision.show_id = shows.id
+LEFT JOIN slice e ON e.id = decision.evaluate_id
+JOIN slice s
+  ON s.name GLOB 'syc.*'
+  AND s.id != shows.id
+  AND s.dur >= 0
+  AND s.ts >= shows.ts
+  AND s.ts < shows.ts + shows.dur
+GROUP BY shows.id, s.name
+ORDER BY shows.ts, stage_ms DESC;
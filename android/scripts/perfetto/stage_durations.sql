@@ -0,0 +1,25 @@
+-- Per-stage durations of the PerfTrace sections (syc.*), slowest total first.
+-- Async sections (syc.overlay.show, syc.webview.*) are included; unfinished
+-- slices (dur = -1, e.g. cut off by the end of the trace) are not.
+-- Percentiles are nearest-rank.
+WITH stage AS (
+  SELECT
+    name,
+    dur,
+    ROW_NUMBER() OVER (PARTITION BY name ORDER BY dur) AS rn,
+    COUNT(*) OVER (PARTITION BY name) AS n
+  FROM slice
+  WHERE name GLOB 'syc.*' AND dur >= 0
+)
+SELECT
+  name AS stage,
+  n AS count,
+  ROUND(AVG(dur) / 1e6, 3) AS avg_ms,
+  ROUND(MAX(CASE WHEN rn = (n + 1) / 2 THEN dur END) / 1e6, 3) AS p50_ms,
+  ROUND(MAX(CASE WHEN rn = (n * 95 + 99) / 100 THEN dur END) / 1e6, 3) AS p95_ms,
+  ROUND(MAX(CASE WHEN rn = (n * 99 + 99) / 100 THEN dur END) / 1e6, 3) AS p99_ms,
+  ROUND(MAX(dur) / 1e6, 3) AS max_ms,
+  ROUND(SUM(dur) / 1e6, 3) AS total_ms
+FROM stage
+GROUP BY name
+ORDER BY total_ms DESC;
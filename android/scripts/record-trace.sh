@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Records a Perfetto trace of the enforcement and overlay pipeline.
+#
+# Turns on the app's PerfTrace sections, records with perfetto/enforcement.pbtx
+# while you open monitored apps, and pulls the trace for analyze-trace.sh.
+#
+# Usage: ./record-trace.sh [--seconds <n>] [--keep] [output.perfetto-trace]
+# --keep leaves the sections on afterwards; the flag is persisted, so the next
+# cold start is traced too. Needs Android 10+ (text configs on stdin, and the
+# async sections behind the overlay tracks).
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")" && pwd)"
+APP_ID="com.saveyourchild"
+SERVICE="$APP_ID/.AppMonitorService"
+SECONDS_TO_RECORD=30
+KEEP=false
+OUT="enforcement-$(date +%Y%m%d-%H%M%S).perfetto-trace"
+
+while [ $# -gt 0 ]; do
+  case "$1" in
+    --seconds) SECONDS_TO_RECORD="$2"; shift 2 ;;
+    --keep) KEEP=true; shift ;;
+    *) OUT="$1"; shift ;;
+  esac
+done
+
+DEVICE_TRACE="/data/misc/perfetto-traces/syc-enforcement.perfetto-trace"
+
+# The accessibility service has to be running to take the flag over dumpsys
+adb shell dumpsys activity service "$SERVICE" trace on
+
+sed "s/^duration_ms: .*/duration_ms: $((SECONDS_TO_RECORD * 1000))/" "$ROOT/perfetto/enforcement.pbtx" \
+  | adb shell perfetto --txt -c - -o "$DEVICE_TRACE"
+
+if [ "$KEEP" = false ]; then
+  adb shell dumpsys activity service "$SERVICE" trace off
+fi
+
+adb pull "$DEVICE_TRACE" "$OUT" > /dev/null
+adb shell rm -f "$DEVICE_TRACE"
+echo "trace: $OUT (./analyze-trace.sh $OUT, or open it in ui.perfetto.dev)"
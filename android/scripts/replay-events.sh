@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Replays recorded accessibility event streams through DecisionPipeline on the
+# JVM and reports throughput, decision latency and allocation rate.
+#
+# Usage: ./replay-events.sh [--speed <x>] [--loops <n>] [capture...]
+# --speed 1 replays in real time, 10 ten times faster; the default is as fast
+# as possible. Defaults to every capture in event-captures/. Needs only a JDK.
+#
+# Record a capture on a device with AppMonitorModule.startEventCapture() /
+# stopEventCapture(), then: adb exec-out run-as com.saveyourchild cat <path>
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+SRC="$ROOT/app/src/main/java/com/saveyourchild"
+
+ARGS=("$@")
+has_capture=false
+for arg in "${ARGS[@]+"${ARGS[@]}"}"; do
+  case "$arg" in
+    *.capture) has_capture=true ;;
+  esac
+done
+if [ "$has_capture" = false ]; then
+  ARGS+=("$ROOT"/event-captures/*.capture)
+fi
+
+OUT="$(mktemp -d)"
+trap 'rm -rf "$OUT"' EXIT
+
+javac -encoding UTF-8 -d "$OUT" \
+  "$SRC/DecisionPipeline.java" \
+  "$ROOT/scripts/EventReplay.java"
+
+java -cp "$OUT" com.saveyourchild.EventReplay "${ARGS[@]}"
@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Replays the node-tree fixtures in rule-fixtures/ against a section rule pack
+# on the JVM, using the same matcher and scan bounds as the service.
+#
+# Usage: ./replay-rule-fixtures.sh [pack] [fixture|dir...]
+# Defaults to the bundled pack and every fixture. Needs only a JDK.
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+SRC="$ROOT/app/src/main/java/com/saveyourchild"
+PACK="${1:-$ROOT/app/src/main/assets/rule_packs/default.pack}"
+shift || true
+FIXTURES=("$@")
+[ ${#FIXTURES[@]} -eq 0 ] && FIXTURES=("$ROOT/rule-fixtures")
+
+OUT="$(mktemp -d)"
+trap 'rm -rf "$OUT"' EXIT
+
+javac -encoding UTF-8 -d "$OUT" \
+  "$SRC/SectionMatcher.java" \
+  "$SRC/SectionScanner.java" \
+  "$SRC/RulePack.java" \
+  "$ROOT/scripts/RulePackReplay.java"
+
+java -cp "$OUT" com.saveyourchild.RulePackReplay "$PACK" "${FIXTURES[@]}"
@@ -8,13 +8,11 @@ import {
   Dimensions,
   Animated,
   BackHandler,
-  NativeModules,
   StatusBar,
 } from 'react-native';
 import LinearGradient from 'react-native-linear-gradient';
 import Icon from 'react-native-vector-icons/MaterialIcons';
-
-const { AppMonitorModule } = NativeModules;
+import AppMonitorModule from '../specs/NativeAppMonitorModule';
 const { width, height } = Dimensions.get('window');
 
 const LockScreenOverlay = (props) => {
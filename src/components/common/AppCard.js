@@ -4,17 +4,16 @@ import {
   TouchableOpacity,
   View,
   Text,
-  Image,
   StyleSheet,
   Animated,
   Alert,
 } from 'react-native';
 import { COLORS } from '../../utils/constants';
+import AppIcon from './AppIcon';
 
 const AppCard = ({
   appName,
   packageName,
-  icon,
   isSelected,
   onPress,
   onSettingsPress,
@@ -37,24 +36,16 @@ const AppCard = ({
     outputRange: ['0deg', '360deg'],
   });
 
-  const renderIcon = () => {
-    if (icon && icon.startsWith('data:image')) {
-      return (
-        <Image
-          source={{ uri: icon }}
-          style={styles.appIcon}
-          resizeMode="cover"
-        />
-      );
-    }
-
-    const firstLetter = appName ? appName.charAt(0).toUpperCase() : '?';
-    return (
-      <View style={[styles.appIcon, styles.textIconContainer]}>
-        <Text style={styles.textIcon}>{firstLetter}</Text>
-      </View>
-    );
-  };
+  // Drawn natively by package name; shows the first letter until the icon is ready
+  const renderIcon = () => (
+    <AppIcon
+      packageName={packageName}
+      appName={appName}
+      size={56}
+      cornerRadius={16}
+      placeholderColor={COLORS.PRIMARY}
+    />
+  );
 
   const handleSettingsPress = () => {
     startSpinAnimation();
@@ -63,10 +54,9 @@ const AppCard = ({
         navigation.navigate('AppSettingsScreen', {
           appName,
           packageName,
-          icon,
         });
       } else if (onSettingsPress) {
-        onSettingsPress({ appName, packageName, icon });
+        onSettingsPress({ appName, packageName });
       }
     }, 200);
   };
@@ -153,22 +143,6 @@ const styles = StyleSheet.create({
     position: 'relative',
     marginRight: 16,
   },
-  appIcon: {
-    width: 56,
-    height: 56,
-    borderRadius: 16,
-    backgroundColor: '#F5F5F5',
-  },
-  textIconContainer: {
-    justifyContent: 'center',
-    alignItems: 'center',
-    backgroundColor: COLORS.PRIMARY,
-  },
-  textIcon: {
-    color: 'white',
-    fontSize: 24,
-    fontWeight: 'bold',
-  },
   checkmarkBadge: {
     position: 'absolute',
     top: -6,
@@ -0,0 +1,25 @@
+// src/components/common/AppIcon.js
+import React from 'react';
+import { StyleSheet } from 'react-native';
+import AppIconView from '../../specs/AppIconViewNativeComponent';
+import { COLORS } from '../../utils/constants';
+
+// App launcher icon by package name, drawn natively from a shared bitmap pool.
+// Shows the first letter of appName until the icon is ready.
+const AppIcon = ({ packageName, appName, size = 56, cornerRadius = 16, placeholderColor = COLORS.PRIMARY, style }) => (
+  <AppIconView
+    packageName={packageName}
+    appName={appName}
+    cornerRadius={cornerRadius}
+    placeholderColor={placeholderColor}
+    style={[styles.icon, { width: size, height: size }, style]}
+  />
+);
+
+const styles = StyleSheet.create({
+  icon: {
+    overflow: 'hidden',
+  },
+});
+
+export default React.memo(AppIcon);
@@ -1,5 +1,5 @@
 // src/components/common/CountdownTimer.js
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import {
   View,
   Text,
@@ -7,6 +7,7 @@ import {
   Animated,
 } from 'react-native';
 import { COLORS } from '../../utils/constants';
+import AppMonitorService from '../../services/AppMonitorService';
 
 const CountdownTimer = ({ 
   totalMinutes, 
@@ -17,22 +18,28 @@ const CountdownTimer = ({
   const [timeLeft, setTimeLeft] = useState(totalMinutes * 60); // Convert to seconds
   const [progress] = useState(new Animated.Value(1));
 
+  const timeLeftRef = useRef(timeLeft);
+  timeLeftRef.current = timeLeft;
+  const onTimeEndRef = useRef(onTimeEnd);
+  onTimeEndRef.current = onTimeEnd;
+
   useEffect(() => {
     if (!isActive) return;
 
-    const timer = setInterval(() => {
-      setTimeLeft(prevTime => {
-        if (prevTime <= 1) {
-          clearInterval(timer);
-          onTimeEnd && onTimeEnd();
-          return 0;
-        }
-        return prevTime - 1;
-      });
-    }, 1000);
+    // Count down against a fixed end time on the native clock's ticks, so ticks
+    // skipped while the screen is off don't stretch the countdown
+    const endAt = Date.now() + timeLeftRef.current * 1000;
+    const subscription = AppMonitorService.addSessionClockListener(now => {
+      const remaining = Math.max(0, Math.ceil((endAt - now) / 1000));
+      setTimeLeft(remaining);
+      if (remaining === 0) {
+        subscription.remove();
+        onTimeEndRef.current && onTimeEndRef.current();
+      }
+    });
 
-    return () => clearInterval(timer);
-  }, [isActive, onTimeEnd]);
+    return () => subscription.remove();
+  }, [isActive]);
 
   useEffect(() => {
     const progressValue = timeLeft / (totalMinutes * 60);
@@ -1,5 +1,6 @@
 // src/components/index.js
 export { default as AppCard } from './common/AppCard';
+export { default as AppIcon } from './common/AppIcon';
 export { default as TimePicker } from './common/TimePicker';
 export { default as CountdownTimer } from './common/CountdownTimer';
 export { default as QuoteCard } from './common/QuoteCard';
\ No newline at end of file
@@ -13,6 +13,7 @@ import {
 import LinearGradient from 'react-native-linear-gradient';
 import Icon from 'react-native-vector-icons/MaterialIcons';
 import StorageService from '../services/StorageService';
+import AppMonitorService from '../services/AppMonitorService';
 import { COLORS } from '../utils/constants';
 
 const { width } = Dimensions.get('window');
@@ -24,35 +25,53 @@ const ActiveSessionScreen = ({ navigation, route }) => {
   const [progressValue] = useState(new Animated.Value(1));
 
   useEffect(() => {
-    let interval;
-    
-    if (isActive && timeRemaining > 0) {
-      interval = setInterval(() => {
-        setTimeRemaining(prev => {
-          const newTime = prev - 1;
-          if (newTime <= 0) {
-            // Time's up - navigate to lock screen
-            handleTimeExpired();
-            return 0;
-          }
-          
-          // Update progress animation
-          const progress = newTime / (sessionData.accessTime * 60);
-          Animated.timing(progressValue, {
-            toValue: progress,
-            duration: 500,
-            useNativeDriver: false,
-          }).start();
-          
-          return newTime;
-        });
-      }, 1000);
-    }
+    if (!isActive) return;
 
-    return () => {
-      if (interval) clearInterval(interval);
+    // End time from the route, replaced by the native session's access deadline when
+    // it has one. That is read synchronously and re-read only when the session version
+    // changes, so edits made by the native services show up on the next tick.
+    const totalSeconds = sessionData.accessTime * 60;
+    const startedAt = sessionData.startTime ? new Date(sessionData.startTime).getTime() : Date.now();
+    const routeEndAt = startedAt + totalSeconds * 1000;
+    let endAt = routeEndAt;
+    let sessionVersion = -1;
+
+    const readNativeEndAt = () => {
+      for (const app of sessionData.apps || []) {
+        const deadlines = AppMonitorService.getSessionDeadlines(app.packageName);
+        if (deadlines && deadlines.accessEnd > 0) {
+          return deadlines.accessEnd;
+        }
+      }
+      return routeEndAt;
     };
-  }, [isActive, timeRemaining]);
+
+    const subscription = AppMonitorService.addSessionClockListener(now => {
+      const version = AppMonitorService.getSessionVersion();
+      if (version !== sessionVersion) {
+        sessionVersion = version;
+        endAt = readNativeEndAt();
+      }
+      const newTime = Math.max(0, Math.ceil((endAt - now) / 1000));
+      setTimeRemaining(newTime);
+
+      if (newTime <= 0) {
+        // Time's up - navigate to lock screen
+        subscription.remove();
+        handleTimeExpired();
+        return;
+      }
+
+      // Update progress animation
+      Animated.timing(progressValue, {
+        toValue: newTime / totalSeconds,
+        duration: 500,
+        useNativeDriver: false,
+      }).start();
+    });
+
+    return () => subscription.remove();
+  }, [isActive]);
 
   const handleTimeExpired = () => {
     setIsActive(false);
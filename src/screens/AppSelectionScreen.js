@@ -1,5 +1,5 @@
 // src/screens/AppSelectionScreen.js
-import React, { useState, useEffect, useRef } from 'react';
+import React, { useState, useEffect, useRef, useMemo } from 'react';
 import {
   View,
   Text,
@@ -21,6 +21,16 @@ import StorageService from '../services/StorageService';
 import AppMonitorService from '../services/AppMonitorService';
 
 const { width } = Dimensions.get('window');
+const SEARCH_PAGE_SIZE = 50;
+
+// Selected apps first; otherwise keep search rank (or alphabetical order)
+const selectedFirst = (apps, selectedApps) => {
+  const selected = new Set(selectedApps);
+  return [
+    ...apps.filter(app => selected.has(app.packageName)),
+    ...apps.filter(app => !selected.has(app.packageName)),
+  ];
+};
 
 const AppSelectionScreen = ({ navigation }) => {
   const [installedApps, setInstalledApps] = useState([]);
@@ -40,6 +50,14 @@ const AppSelectionScreen = ({ navigation }) => {
   const scaleAnim = useRef(new Animated.Value(1)).current;
   const rotateAnim = useRef(new Animated.Value(0)).current;
 
+  const appsByPackage = useMemo(
+    () => new Map(installedApps.map(app => [app.packageName, app])),
+    [installedApps],
+  );
+  // The latest search call: chunks of older ones are dropped, and chunks that beat
+  // the first page wait in `pending` until it is in
+  const searchRequestRef = useRef({ id: 0, apps: null, pending: [] });
+
   useEffect(() => {
     initializeScreen();
     startBubbleAnimation();
@@ -49,6 +67,24 @@ const AppSelectionScreen = ({ navigation }) => {
     filterAndSortApps();
   }, [installedApps, selectedApps, searchQuery]);
 
+  // ✅ Results beyond the first page arrive in chunks from the native index
+  useEffect(() => {
+    const subscription = AppMonitorService.addSearchResultsListener(data => {
+      const request = searchRequestRef.current;
+      if (data.requestId !== request.id) return;
+      const more = data.packageNames
+        .map(packageName => appsByPackage.get(packageName))
+        .filter(Boolean);
+      if (request.apps === null) {
+        request.pending.push(...more);
+        return;
+      }
+      request.apps = [...request.apps, ...more];
+      setFilteredApps(selectedFirst(request.apps, selectedApps));
+    });
+    return () => subscription.remove();
+  }, [appsByPackage, selectedApps]);
+
   const startBubbleAnimation = () => {
     // Floating animation
     Animated.loop(
@@ -92,23 +128,31 @@ const AppSelectionScreen = ({ navigation }) => {
     ).start();
   };
 
-  const filterAndSortApps = () => {
-    let filtered = installedApps.filter(app =>
-      app.appName.toLowerCase().includes(searchQuery.toLowerCase())
-    );
+  const filterAndSortApps = async () => {
+    const query = searchQuery.trim();
+    const request = { id: searchRequestRef.current.id + 1, apps: null, pending: [] };
+    searchRequestRef.current = request;
 
-    // Sort: selected apps first, then alphabetically
-    filtered.sort((a, b) => {
-      const aSelected = selectedApps.includes(a.packageName);
-      const bSelected = selectedApps.includes(b.packageName);
-      
-      if (aSelected && !bSelected) return -1;
-      if (!aSelected && bSelected) return 1;
-      
-      return a.appName.localeCompare(b.appName);
-    });
+    let filtered;
+    if (query === '') {
+      filtered = [...installedApps].sort((a, b) =>
+        a.appName.localeCompare(b.appName),
+      );
+    } else {
+      // ✅ Native index returns ranked package names; JS filter only as a fallback
+      const packageNames = await AppMonitorService.searchApps(query, SEARCH_PAGE_SIZE, request.id);
+      if (searchRequestRef.current !== request) return; // a newer keystroke or toggle won
+
+      filtered = packageNames
+        ? packageNames.map(packageName => appsByPackage.get(packageName)).filter(Boolean)
+        : installedApps.filter(app =>
+            app.appName.toLowerCase().includes(query.toLowerCase()),
+          );
+    }
 
-    setFilteredApps(filtered);
+    request.apps = [...filtered, ...request.pending];
+    request.pending = [];
+    setFilteredApps(selectedFirst(request.apps, selectedApps));
   };
 
   const initializeScreen = async () => {
@@ -154,9 +198,6 @@ const AppSelectionScreen = ({ navigation }) => {
   const loadPreviouslySelectedApps = async () => {
     try {
       const activeSession = StorageService.getActiveSession();
-      AppMonitorService.updateActiveSession(
-        JSON.stringify(StorageService.getActiveSession()),
-      );
       if (activeSession && Object.keys(activeSession).length > 0) {
         const selectedPackageNames = Object.keys(activeSession);
         setSelectedApps(selectedPackageNames);
@@ -192,9 +233,6 @@ const AppSelectionScreen = ({ navigation }) => {
           console.log(`🗑️ Removing ${packageName} from active session`);
           delete activeSession[packageName];
           StorageService.setActiveSession(activeSession);
-          AppMonitorService.updateActiveSession(
-            JSON.stringify(StorageService.getActiveSession()),
-          );
 
           console.log(
             'Updated activeSession after removal:',
@@ -220,7 +258,6 @@ const AppSelectionScreen = ({ navigation }) => {
 
           if (selectedApp) {
             activeSession[packageName] = {
-              icon: selectedApp.icon || '',
               appName: selectedApp.appName || 'Unknown App',
               packageName: packageName,
               accessTime: 0,
@@ -234,9 +271,6 @@ const AppSelectionScreen = ({ navigation }) => {
             };
 
             StorageService.setActiveSession(activeSession);
-            AppMonitorService.updateActiveSession(
-              JSON.stringify(StorageService.getActiveSession()),
-            );
             console.log(
               'Updated activeSession after addition:',
               JSON.stringify(StorageService.getActiveSession()),
@@ -325,11 +359,10 @@ const AppSelectionScreen = ({ navigation }) => {
     <AppCard
       appName={item.appName}
       packageName={item.packageName}
-      icon={item.icon}
       isSelected={selectedApps.includes(item.packageName)}
       onPress={() => toggleAppSelection(item.packageName)}
       navigation={navigation}
-      onSettingsPress={({ appName, packageName, icon }) => {
+      onSettingsPress={({ appName, packageName }) => {
         console.log(`Settings pressed for ${appName}`);
       }}
     />
@@ -589,42 +622,34 @@ const MOCK_APPS = [
   {
     appName: 'Instagram',
     packageName: 'com.instagram.android',
-    icon: null,
   },
   {
     appName: 'YouTube',
     packageName: 'com.google.android.youtube',
-    icon: null,
   },
   {
     appName: 'Facebook',
     packageName: 'com.facebook.katana',
-    icon: null,
   },
   {
     appName: 'TikTok',
     packageName: 'com.zhiliaoapp.musically',
-    icon: null,
   },
   {
     appName: 'WhatsApp',
     packageName: 'com.whatsapp',
-    icon: null,
   },
   {
     appName: 'Snapchat',
     packageName: 'com.snapchat.android',
-    icon: null,
   },
   {
     appName: 'Twitter',
     packageName: 'com.twitter.android',
-    icon: null,
   },
   {
     appName: 'Telegram',
     packageName: 'org.telegram.messenger',
-    icon: null,
   },
 ];
 
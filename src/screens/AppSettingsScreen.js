@@ -11,7 +11,7 @@ import {
 import { COLORS } from '../utils/constants';
 
 const AppSettingsScreen = ({ route, navigation }) => {
-  const { appName, packageName, icon } = route.params;
+  const { appName, packageName } = route.params;
 
   return (
     <View style={styles.container}>
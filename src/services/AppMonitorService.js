@@ -1,12 +1,9 @@
 // src/services/AppMonitorService.js
+import AppMonitorModule from '../specs/NativeAppMonitorModule';
 import {
-  NativeModules,
-  NativeEventEmitter,
-  DeviceEventEmitter,
-} from 'react-native';
-
-const { AppMonitorModule } = NativeModules;
-const AppMonitorEmitter = new NativeEventEmitter(AppMonitorModule);
+  addNativeEventListener,
+  removeNativeEventListeners,
+} from './NativeEventBus';
 import StorageService from './StorageService';
 
 class AppMonitorService {
@@ -22,7 +19,7 @@ class AppMonitorService {
 
   // ✅ Listen for app blocked events
   addBlockedAppListener(callback) {
-    const subscription = AppMonitorEmitter.addListener('AppBlocked', data => {
+    const subscription = addNativeEventListener('AppBlocked', data => {
       console.log('📱 App blocked event received:', data);
 
       if (data.action === 'NAVIGATE_TO_LOCK_SCREEN') {
@@ -79,7 +76,7 @@ class AppMonitorService {
 
   async getInstalledApps() {
     try {
-      console.log('🔍 Getting installed apps with icons...');
+      console.log('🔍 Getting installed apps...');
       const apps = await AppMonitorModule.getInstalledApps();
       console.log('✅ Successfully loaded', apps.length, 'apps');
       if (apps && apps.length > 0) {
@@ -103,6 +100,59 @@ class AppMonitorService {
     }
   }
 
+  // ✅ Ranked package names from the native search index (null if unavailable)
+  async searchApps(query, limit, requestId) {
+    try {
+      return await AppMonitorModule.searchApps(query, limit, requestId);
+    } catch (error) {
+      console.error('❌ Error searching apps:', error);
+      return null;
+    }
+  }
+
+  // ✅ Remaining search results streamed in chunks after the first page:
+  // { requestId, query, offset, packageNames, done }
+  addSearchResultsListener(callback) {
+    return addNativeEventListener('AppSearchResults', callback);
+  }
+
+  // ✅ Synchronous session reads (TurboModule, no promise): straight from the
+  // native session, so screens don't wait for a SessionChanged event.
+  getSessionVersion() {
+    return AppMonitorModule.getSessionVersion();
+  }
+
+  getMonitoredPackages() {
+    return AppMonitorModule.getMonitoredPackages();
+  }
+
+  // { accessStart, accessEnd, lockUpTo } in epoch millis (0 = unset),
+  // or null when the app isn't active in the native session.
+  getSessionDeadlines(packageName) {
+    return AppMonitorModule.getSessionDeadlines(packageName);
+  }
+
+  // ✅ Once-per-second tick from the native SessionClock (wall-clock aligned,
+  // paused while the screen is off or the app is in the background).
+  // Call remove() on the returned subscription when the screen unmounts.
+  addSessionClockListener(callback) {
+    const subscription = addNativeEventListener(
+      'SessionClockTick',
+      event => callback(event.now),
+    );
+    AppMonitorModule.subscribeSessionClock();
+
+    let removed = false;
+    return {
+      remove: () => {
+        if (removed) return;
+        removed = true;
+        subscription.remove();
+        AppMonitorModule.unsubscribeSessionClock();
+      },
+    };
+  }
+
   async checkPermissions() {
     try {
       const accessibility =
@@ -132,17 +182,134 @@ class AppMonitorService {
     AppMonitorModule.stopAppMonitoring();
   }
 
-  removeAllListeners() {
-    AppMonitorEmitter.removeAllListeners('AppBlocked');
+  // ✅ Installs a newer section rule pack (text format, see RulePack.java).
+  // Resolves { version, ruleCount }, or null when the pack was rejected.
+  async installRulePack(packText) {
+    try {
+      return await AppMonitorModule.installRulePack(packText);
+    } catch (error) {
+      console.error('❌ Error installing rule pack:', error);
+      return null;
+    }
   }
 
-  async updateActiveSession(JSactiveSession) {
+  // ✅ Records the accessibility event stream for the JVM replay
+  // (android/scripts/replay-events.sh). Both resolve the capture file path.
+  async startEventCapture() {
     try {
-      await AppMonitorModule.updateActiveSession(JSactiveSession);
+      return await AppMonitorModule.startEventCapture();
     } catch (error) {
-      console.error('Error checking permissions:', error);
+      console.error('❌ Error starting event capture:', error);
+      return null;
+    }
+  }
+
+  async stopEventCapture() {
+    try {
+      return await AppMonitorModule.stopEventCapture();
+    } catch (error) {
+      console.error('❌ Error stopping event capture:', error);
+      return null;
     }
   }
+
+  // ✅ { tier, signals }: the tier the overlay pages render for ('LOW' | 'MID' | 'HIGH')
+  // and the RAM, GPU and refresh-rate signals it was measured from.
+  async getDeviceTier() {
+    try {
+      return await AppMonitorModule.getDeviceTier();
+    } catch (error) {
+      console.error('❌ Error getting device tier:', error);
+      return null;
+    }
+  }
+
+  // ✅ Forces a tier to compare the overlay variants; null restores the measured one.
+  // Dropped frames per session are reported per tier in getOverlayMetrics().
+  async setOverlayTier(tier) {
+    try {
+      return await AppMonitorModule.setOverlayTier(tier);
+    } catch (error) {
+      console.error('❌ Error setting overlay tier:', error);
+      return false;
+    }
+  }
+
+  // ✅ Native event bus counters: eventsPosted / eventsCoalesced / eventsDelivered
+  // and batchesDelivered. setEventBusInterval(0) delivers at the next frame.
+  async getEventBusMetrics() {
+    try {
+      return await AppMonitorModule.getEventBusMetrics();
+    } catch (error) {
+      console.error('❌ Error getting event bus metrics:', error);
+      return null;
+    }
+  }
+
+  setEventBusInterval(intervalMs) {
+    AppMonitorModule.setEventBusInterval(intervalMs);
+  }
+
+  // ✅ android.os.Trace sections for Perfetto captures (android/scripts/perfetto/); persisted
+  setTracingEnabled(enabled) {
+    AppMonitorModule.setTracingEnabled(enabled);
+  }
+
+  // ✅ Same snapshot as `adb shell dumpsys activity service com.saveyourchild/.AppMonitorService`:
+  // { session, service, overlay, queues, latency, caches, memory, device }
+  async getDiagnostics() {
+    try {
+      return await AppMonitorModule.getDiagnostics();
+    } catch (error) {
+      console.error('❌ Error getting diagnostics:', error);
+      return null;
+    }
+  }
+
+  // ✅ Block attempts per 'hour' or 'day' bucket in [fromMillis, toMillis):
+  // [{ start, total, access, lock, cancelled, sessionStarted, timedOut, ..., avgTimeToOverlayMs }]
+  async getInterventionStats(fromMillis, toMillis, granularity = 'day') {
+    try {
+      return await AppMonitorModule.getInterventionStats(fromMillis, toMillis, granularity);
+    } catch (error) {
+      console.error('❌ Error getting intervention stats:', error);
+      return [];
+    }
+  }
+
+  // ✅ Same counters per app over the days in [fromMillis, toMillis), most blocked first
+  async getInterventionsByApp(fromMillis, toMillis) {
+    try {
+      return await AppMonitorModule.getInterventionsByApp(fromMillis, toMillis);
+    } catch (error) {
+      console.error('❌ Error getting interventions by app:', error);
+      return [];
+    }
+  }
+
+  // ✅ Pre-warm hit rate, misses and estimated show latency saved
+  async getPrewarmMetrics() {
+    try {
+      return await AppMonitorModule.getPrewarmMetrics();
+    } catch (error) {
+      console.error('❌ Error getting prewarm metrics:', error);
+      return {};
+    }
+  }
+
+  // ✅ e.g. setPrewarmBudget({ enabled: false }) or ({ maxPrewarmsPerHour: 2 }); resolves the full budget
+  async setPrewarmBudget(budget) {
+    try {
+      return await AppMonitorModule.setPrewarmBudget(budget);
+    } catch (error) {
+      console.error('❌ Error setting prewarm budget:', error);
+      return null;
+    }
+  }
+
+  removeAllListeners() {
+    removeNativeEventListeners('AppBlocked');
+  }
 }
 
 export default new AppMonitorService();
@@ -0,0 +1,38 @@
+// src/services/NativeEventBus.js
+import { NativeEventEmitter } from 'react-native';
+import AppMonitorModule from '../specs/NativeAppMonitorModule';
+
+// Native events arrive already coalesced, at most once per frame, as a single
+// NativeEventBatch { events: [{ name, key, payload }] } (NativeEventBus.java).
+// This fans each batch out to the listeners registered per event name.
+const emitter = new NativeEventEmitter(AppMonitorModule);
+const listeners = new Map();
+
+emitter.addListener('NativeEventBatch', batch => {
+  batch.events.forEach(event => {
+    const callbacks = listeners.get(event.name);
+    if (!callbacks) return;
+    callbacks.forEach(callback => {
+      try {
+        callback(event.payload);
+      } catch (error) {
+        console.error(`❌ Error in ${event.name} listener:`, error);
+      }
+    });
+  });
+});
+
+// Returns a subscription with remove(), like NativeEventEmitter.addListener
+export function addNativeEventListener(eventName, callback) {
+  if (!listeners.has(eventName)) {
+    listeners.set(eventName, new Set());
+  }
+  listeners.get(eventName).add(callback);
+  return {
+    remove: () => listeners.get(eventName)?.delete(callback),
+  };
+}
+
+export function removeNativeEventListeners(eventName) {
+  listeners.delete(eventName);
+}
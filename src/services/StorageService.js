@@ -1,43 +1,73 @@
 // src/services/StorageService.js
 import { MMKV } from 'react-native-mmkv';
-import { DeviceEventEmitter } from 'react-native';
+import AppMonitorModule from '../specs/NativeAppMonitorModule';
+import { addNativeEventListener } from './NativeEventBus';
 
+// The session is stored by native SessionStore and reached only through
+// AppMonitorModule. It lives in an MMKV file too, but react-native-mmkv ships its
+// own MMKV core: opening that file from here would map it with a second core in the
+// same process, so this class never does.
 class StorageService {
   constructor() {
     this.storage = new MMKV();
-    
-    // ✅ Listen for active session updates from Java
+    this.sessionListeners = new Set();
+
+    this.migrateLegacySession();
+
+    // ✅ Listen for session changes made by Java
     this.setupEventListeners();
   }
 
-  // ✅ Setup event listeners for Java-side updates
+  // ✅ Native stores the change itself and only says which app changed
   setupEventListeners() {
-    DeviceEventEmitter.addListener('ActiveSessionUpdated', (data) => {
-      try {
-        console.log('📨 Received active session update from Java:', data);
-        if (data.activeSession) {
-          const sessionData = JSON.parse(data.activeSession);
-          this.setActiveSession(sessionData);
-          console.log('✅ MMKV updated from Java side');
-        }
-      } catch (error) {
-        console.error('❌ Error handling ActiveSessionUpdated event:', error);
+    addNativeEventListener('SessionChanged', data => {
+      console.log('📨 Session changed on the Java side:', data.packageName);
+      this.sessionListeners.forEach(listener => listener(data.packageName));
+    });
+  }
+
+  // callback(packageName | null) after Java changed the session; returns an unsubscribe
+  addSessionChangedListener(callback) {
+    this.sessionListeners.add(callback);
+    return () => this.sessionListeners.delete(callback);
+  }
+
+  // Older builds kept the whole session as one JSON string in the default instance
+  migrateLegacySession() {
+    try {
+      const legacy = this.storage.getString('activeSession');
+      if (legacy === undefined) return;
+      if (Object.keys(this.getActiveSession()).length === 0) {
+        this.writeSession(JSON.parse(legacy));
+      }
+      this.storage.delete('activeSession');
+      console.log('✅ Migrated active session to the native session store');
+    } catch (error) {
+      console.error('❌ Error migrating active session:', error);
+    }
+  }
+
+  // Replaces every app entry; non-object values (no app data) are not stored
+  writeSession(session) {
+    const appEntries = {};
+    Object.keys(session || {}).forEach(packageName => {
+      const appData = session[packageName];
+      if (appData && typeof appData === 'object' && !Array.isArray(appData)) {
+        appEntries[packageName] = appData;
       }
     });
+    if (!AppMonitorModule.setActiveSessionJson(JSON.stringify(appEntries))) {
+      throw new Error('native session store rejected the session');
+    }
   }
 
   // Session Management
   setActiveSession(session) {
     try {
       // ✅ Handle both object and string inputs
-      const sessionString = typeof session === 'string' ? session : JSON.stringify(session);
-      this.storage.set('activeSession', sessionString);
-      console.log('✅ Active session saved to MMKV');
-      
-      // ✅ Also update Java side
-      if (global.AppMonitorModule) {
-        global.AppMonitorModule.updateActiveSession(sessionString);
-      }
+      const sessionObject = typeof session === 'string' ? JSON.parse(session) : session;
+      this.writeSession(sessionObject);
+      console.log('✅ Active session saved');
     } catch (error) {
       console.error('❌ Error saving active session:', error);
     }
@@ -45,54 +75,29 @@ class StorageService {
 
   getActiveSession() {
     try {
-      const session = this.storage.getString('activeSession');
-      if (session) {
-        return JSON.parse(session);
-      }
-      return {};
+      return JSON.parse(AppMonitorModule.getActiveSessionJson() || '{}');
     } catch (error) {
       console.error('❌ Error getting active session:', error);
       return {};
     }
   }
 
-  // ✅ New method to sync with Java side
-  syncActiveSessionWithJava() {
-    try {
-      const activeSession = this.getActiveSession();
-      const sessionString = JSON.stringify(activeSession);
-      
-      if (global.AppMonitorModule) {
-        global.AppMonitorModule.updateActiveSession(sessionString);
-        console.log('✅ Active session synced with Java');
-      }
-    } catch (error) {
-      console.error('❌ Error syncing active session with Java:', error);
-    }
-  }
-
   // Update specific app in active session (enhanced)
   updateAppInActiveSession(packageName, updates) {
     try {
-      const activeSession = this.getActiveSession();
-      
-      if (activeSession[packageName]) {
-        activeSession[packageName] = {
-          ...activeSession[packageName],
-          ...updates
-        };
-      } else {
-        // ✅ Create new app entry if doesn't exist
-        activeSession[packageName] = {
-          packageName: packageName,
-          isActive: true,
-          ...updates
-        };
+      const stored = AppMonitorModule.getAppSessionJson(packageName);
+
+      // ✅ Create new app entry if doesn't exist
+      const appData = {
+        ...(stored ? JSON.parse(stored) : { packageName: packageName, isActive: true }),
+        ...updates,
+      };
+
+      if (!AppMonitorModule.setAppSessionJson(packageName, JSON.stringify(appData))) {
+        throw new Error('native session store rejected the update');
       }
-      
-      this.setActiveSession(activeSession);
       console.log(`✅ Updated ${packageName} in active session:`, updates);
-      
+
     } catch (error) {
       console.error('❌ Error updating app in active session:', error);
     }
@@ -101,14 +106,8 @@ class StorageService {
   // Clear active session
   clearActiveSession() {
     try {
-      this.storage.removeItem('activeSession');
-      
-      // ✅ Also clear Java side
-      if (global.AppMonitorModule) {
-        global.AppMonitorModule.updateActiveSession('{}');
-      }
-      
-      console.log('✅ Active session cleared from MMKV and Java');
+      this.writeSession(null);
+      console.log('✅ Active session cleared');
     } catch (error) {
       console.error('❌ Error clearing active session:', error);
     }
@@ -117,8 +116,8 @@ class StorageService {
   // Get specific app from active session
   getAppFromActiveSession(packageName) {
     try {
-      const activeSession = this.getActiveSession();
-      return activeSession[packageName] || null;
+      const appData = AppMonitorModule.getAppSessionJson(packageName);
+      return appData ? JSON.parse(appData) : null;
     } catch (error) {
       console.error('❌ Error getting app from active session:', error);
       return null;
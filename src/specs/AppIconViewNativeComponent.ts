@@ -0,0 +1,18 @@
+// src/specs/AppIconViewNativeComponent.ts
+// Codegen spec for AppIconView (android/.../AppIconViewManager.java).
+// The Java side implements the generated AppIconViewManagerInterface, which codegen
+// puts in com.facebook.react.viewmanagers whatever javaPackageName says; keep both in sync.
+import type { ColorValue, HostComponent, ViewProps } from 'react-native';
+import type { Float, WithDefault } from 'react-native/Libraries/Types/CodegenTypes';
+import codegenNativeComponent from 'react-native/Libraries/Utilities/codegenNativeComponent';
+
+export interface NativeProps extends ViewProps {
+  // Icon comes from the native icon pool; nothing is decoded in JS
+  packageName: string;
+  // First letter is the placeholder until the icon is drawn
+  appName?: string;
+  placeholderColor?: ColorValue;
+  cornerRadius?: WithDefault<Float, 0>;
+}
+
+export default codegenNativeComponent<NativeProps>('AppIconView') as HostComponent<NativeProps>;
@@ -0,0 +1,160 @@
+// src/specs/NativeAppMonitorModule.ts
+// Codegen spec for AppMonitorModule (android/.../AppMonitorModule.java).
+// The Java side extends the generated NativeAppMonitorModuleSpec; keep both in sync.
+import type { TurboModule } from 'react-native';
+import { TurboModuleRegistry } from 'react-native';
+import type { UnsafeObject } from 'react-native/Libraries/Types/CodegenTypes';
+
+export type SessionDeadlines = {
+  // Epoch millis, 0 = unset
+  accessStart: number;
+  accessEnd: number;
+  lockUpTo: number;
+};
+
+export type RemainingTime = {
+  now: number;
+  accessRemainingMs: number;
+  lockRemainingMs: number;
+};
+
+// Icons are drawn natively by package name (AppIconView), not sent over the bridge
+export type InstalledApp = {
+  packageName: string;
+  appName: string;
+};
+
+export type RulePackInfo = {
+  version: number;
+  ruleCount: number;
+};
+
+// Counters of the native intervention log (InterventionRollups), per bucket or per app.
+// Spelled out twice: codegen doesn't take intersection types.
+export type InterventionBucket = {
+  start: number; // epoch millis of the local hour / day
+  total: number;
+  access: number;
+  lock: number;
+  cancelled: number;
+  sessionStarted: number;
+  timedOut: number;
+  lockEnded: number;
+  dismissed: number;
+  failed: number;
+  shown: number;
+  timeToOverlaySumMs: number;
+  timeToOverlayMaxMs: number;
+  avgTimeToOverlayMs: number;
+  onScreenSumMs: number;
+};
+
+export type AppInterventions = {
+  packageName: string;
+  total: number;
+  access: number;
+  lock: number;
+  cancelled: number;
+  sessionStarted: number;
+  timedOut: number;
+  lockEnded: number;
+  dismissed: number;
+  failed: number;
+  shown: number;
+  timeToOverlaySumMs: number;
+  timeToOverlayMaxMs: number;
+  avgTimeToOverlayMs: number;
+  onScreenSumMs: number;
+};
+
+// String fields and counter maps are kept apart: codegen rejects mixed unions like number | string
+export type OverlayMetrics = {
+  state: string; // OverlayController state
+  counters: { [key: string]: number };
+};
+
+export type DeviceTierInfo = {
+  tier: string; // 'LOW' | 'MID' | 'HIGH'
+  signals: { [key: string]: number }; // what the tier was measured from
+};
+
+// Overlay pre-warming limits (OverlayPrewarmer); keys left out keep their value.
+// setPrewarmBudget resolves all of them.
+export type PrewarmBudget = {
+  enabled?: boolean;
+  thresholdPct?: number; // minimum predicted launch probability, 1-100
+  holdMs?: number; // how long a pre-warmed overlay waits for its app
+  maxPrewarmsPerHour?: number;
+  minEvaluateIntervalMs?: number;
+  maxApps?: number; // apps kept in the launch model
+};
+
+export interface Spec extends TurboModule {
+  // Session state, synchronous: read straight from the native SessionStore and
+  // SessionClock caches on the JS thread, no bridge round trip or event mirror
+  getSessionVersion(): number;
+  getMonitoredPackages(): string[];
+  getSessionDeadlines(packageName: string): SessionDeadlines | null;
+
+  // Session storage for StorageService, synchronous. The session lives in native
+  // SessionStore's MMKV file, which JS doesn't open itself (one MMKV core per file).
+  getActiveSessionJson(): string;
+  getAppSessionJson(packageName: string): string | null;
+  setActiveSessionJson(activeSessionJson: string | null): boolean;
+  setAppSessionJson(packageName: string, sessionDataJson: string): boolean;
+  updateActiveSessionForApp(packageName: string, sessionDataJson: string): void;
+  getRemainingTime(packageName: string): Promise<RemainingTime>;
+  subscribeSessionClock(): void;
+  unsubscribeSessionClock(): void;
+
+  // Apps
+  getInstalledApps(): Promise<InstalledApp[]>;
+  // requestId is echoed in the AppSearchResults chunks that follow the first page
+  searchApps(query: string, limit: number, requestId: number): Promise<string[]>;
+
+  // Monitoring and overlay
+  startAppMonitoring(): void;
+  stopAppMonitoring(): void;
+  hideLockScreenOverlay(): void;
+  navigateToLockScreen(appName: string, packageName: string): void;
+  goToHomeScreen(): void;
+  bringAppToForeground(): Promise<boolean>;
+
+  // Permissions
+  checkAccessibilityPermission(): Promise<boolean>;
+  openAccessibilitySettings(): void;
+  checkOverlayPermission(): Promise<boolean>;
+  openOverlaySettings(): void;
+
+  // Rule packs
+  installRulePack(packText: string): Promise<RulePackInfo>;
+  getRulePackVersion(): Promise<number>;
+
+  // Diagnostics
+  getOverlayMetrics(): Promise<OverlayMetrics>;
+  startEventCapture(): Promise<string>;
+  stopEventCapture(): Promise<string | null>;
+  runOverlayDispatchBenchmark(iterations: number): Promise<{ [key: string]: number }>;
+  runOverlayLeakCheck(cycles: number, renderer: string): Promise<{ [key: string]: number }>;
+  getDeviceTier(): Promise<DeviceTierInfo>;
+  setOverlayTier(tier: string | null): Promise<boolean>;
+  getEventBusMetrics(): Promise<{ [key: string]: number }>;
+  setEventBusInterval(intervalMs: number): void;
+  setTracingEnabled(enabled: boolean): void;
+  // { [section]: { [key]: number | string } }; untyped, codegen has no mixed values
+  getDiagnostics(): Promise<UnsafeObject>;
+
+  // Intervention log, aggregated natively from hourly / daily rollups
+  getInterventionStats(fromMillis: number, toMillis: number, granularity: string): Promise<InterventionBucket[]>;
+  getInterventionsByApp(fromMillis: number, toMillis: number): Promise<AppInterventions[]>;
+
+  // Overlay pre-warming for predicted launches of gated apps
+  getPrewarmMetrics(): Promise<{ [key: string]: number }>;
+  setPrewarmBudget(budget: PrewarmBudget): Promise<PrewarmBudget>;
+
+  // NativeEventEmitter; every event arrives inside a NativeEventBatch (NativeEventBus.js)
+  addListener(eventName: string): void;
+  removeListeners(count: number): void;
+}
+
+export default TurboModuleRegistry.getEnforcing<Spec>('AppMonitorModule');